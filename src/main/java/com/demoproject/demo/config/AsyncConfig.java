@@ -11,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.lang.reflect.Method;
 
 @Configuration
@@ -41,6 +43,26 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
     
+    /**
+     * One virtual thread per task for fan-out work that mostly waits on the database.
+     * Concurrency is bounded by the connection pool rather than by a thread pool.
+     */
+    @Bean(name = "dashboardExecutor", destroyMethod = "close")
+    public ExecutorService dashboardExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("WellcaDashboard-", 0).factory());
+    }
+    
+    /**
+     * Virtual threads for background refreshes of cached NBA API data,
+     * which spend nearly all their time waiting on the upstream API.
+     */
+    @Bean(name = "nbaRefreshExecutor", destroyMethod = "close")
+    public ExecutorService nbaRefreshExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("NbaRefresh-", 0).factory());
+    }
+    
     @Override
     @NonNull
     public Executor getAsyncExecutor() {
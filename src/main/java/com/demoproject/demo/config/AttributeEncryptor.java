@@ -3,50 +3,120 @@ package com.demoproject.demo.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
 import jakarta.persistence.AttributeConverter;
-import java.security.Key;
-import java.util.Base64;
 import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
 import java.util.Arrays;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
+/**
+ * Encrypts sensitive columns with AES-GCM through a shared, thread-safe CryptoEngine.
+ * Values written before the switch to GCM are still readable.
+ *
+ * To rotate keys, set the new key as encryption.key and list the old ones in
+ * encryption.previous-keys (comma-separated) until WellcaKeyRotationService has
+ * re-encrypted every row.
+ *
+ * Blind indexes let encrypted values be found by equality. Values are normalized
+ * first (Unicode form, case and whitespace), so "Jane  Doe" finds "jane doe".
+ */
 @Component
 public class AttributeEncryptor implements AttributeConverter<String, String> {
 
-    private static final String AES = "AES";
-    private final Key key;
-    private final Cipher cipher;
-    private static final Logger log = LoggerFactory.getLogger(AttributeEncryptor.class);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
-    public AttributeEncryptor(@Value("${encryption.key}") String secretKey) throws Exception {
-        // Ensure key is exactly 32 bytes (256 bits)
-        byte[] keyBytes = Arrays.copyOf(secretKey.getBytes(StandardCharsets.UTF_8), 32);
-        this.key = new SecretKeySpec(keyBytes, AES);
-        this.cipher = Cipher.getInstance(AES);
+    private final CryptoEngine engine;
+
+    public AttributeEncryptor(@Value("${encryption.key}") String secretKey,
+                              @Value("${encryption.previous-keys:}") List<String> previousKeys,
+                              @Value("${encryption.pool.max-idle:64}") int maxIdle) {
+        List<byte[]> previous = previousKeys.stream()
+            .filter(previousKey -> !previousKey.isBlank())
+            .map(previousKey -> keyBytes(previousKey.trim()))
+            .toList();
+        this.engine = new CryptoEngine(keyBytes(secretKey), previous, maxIdle);
+    }
+
+    private static byte[] keyBytes(String secretKey) {
+        // Ensure key is exactly 32 bytes (256 bits); unchanged so legacy values still decrypt
+        return Arrays.copyOf(secretKey.getBytes(StandardCharsets.UTF_8), 32);
     }
 
     @Override
     public String convertToDatabaseColumn(String attribute) {
-        if (attribute == null) return null;
-        try {
-            cipher.init(Cipher.ENCRYPT_MODE, key);
-            return Base64.getEncoder().encodeToString(cipher.doFinal(attribute.getBytes()));
-        } catch (Exception e) {
-            throw new IllegalStateException("Error encrypting", e);
-        }
+        return engine.encrypt(attribute);
     }
 
     @Override
     public String convertToEntityAttribute(String dbData) {
-        if (dbData == null) return null;
-        try {
-            cipher.init(Cipher.DECRYPT_MODE, key);
-            return new String(cipher.doFinal(Base64.getDecoder().decode(dbData)));
-        } catch (Exception e) {
-            throw new IllegalStateException("Error decrypting", e);
+        return engine.decrypt(dbData);
+    }
+
+    /**
+     * Encrypt a batch of values, e.g. for a bulk insert
+     * @param attributes Plaintexts; null elements stay null
+     * @return Ciphertexts in the same order
+     */
+    public List<String> encryptAll(List<String> attributes) {
+        return engine.encryptAll(attributes);
+    }
+
+    /**
+     * @return true if the stored value is null or already uses the primary key
+     */
+    public boolean isCurrent(String dbData) {
+        return engine.isCurrent(dbData);
+    }
+
+    /**
+     * @return Fingerprint of the primary key
+     */
+    public String getKeyId() {
+        return engine.keyId();
+    }
+
+    /**
+     * @return Prefix of every value encrypted with the primary key, for queries
+     *         that find rows still awaiting re-encryption
+     */
+    public String getCurrentPrefix() {
+        return engine.currentPrefix();
+    }
+
+    /**
+     * @param attribute Plaintext to index, may be null
+     * @return Blind index under the primary key, or null for null or blank input
+     */
+    public String blindIndex(String attribute) {
+        String normalized = normalize(attribute);
+        return normalized != null ? engine.blindIndex(normalized) : null;
+    }
+
+    /**
+     * @param attribute Plaintext to look up
+     * @return Blind indexes under every known key, or an empty list for null or blank input
+     */
+    public List<String> blindIndexes(String attribute) {
+        String normalized = normalize(attribute);
+        return normalized != null ? engine.blindIndexes(normalized) : List.of();
+    }
+
+    private static String normalize(String attribute) {
+        if (attribute == null || attribute.isBlank()) {
+            return null;
         }
+        String composed = Normalizer.normalize(attribute, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(composed.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Decrypt a batch of stored values
+     * @param dbData Ciphertexts; null elements stay null
+     * @return Plaintexts in the same order
+     */
+    public List<String> decryptAll(List<String> dbData) {
+        return engine.decryptAll(dbData);
     }
-}
\ No newline at end of file
+}
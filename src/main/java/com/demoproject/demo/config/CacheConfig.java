@@ -37,6 +37,12 @@ public class CacheConfig {
     private static final int MONTHLY_REPORT_EXPIRE_MINUTES = 30;
     private static final int QUARTERLY_REPORT_EXPIRE_MINUTES = 60;
     private static final int DEFAULT_CACHE_SIZE = 100;
+
+    // Login principals; changes are evicted by UserPrincipalCacheInvalidator, the TTL
+    // only bounds staleness for changes made outside this instance
+    static final String USER_PRINCIPALS_CACHE = "userPrincipals";
+    private static final int USER_PRINCIPALS_EXPIRE_MINUTES = 10;
+    private static final int USER_PRINCIPALS_MAX_SIZE = 1000;
     
     @Bean
     public CacheManager cacheManager() {
@@ -50,7 +56,8 @@ public class CacheConfig {
             "overallProductivity",
             "wellcaData",
             "wellcaRangeData",
-            "serviceDetails"
+            "serviceDetails",
+            USER_PRINCIPALS_CACHE
         ));
         
         // Configure caches with optimized specifications
@@ -96,6 +103,13 @@ public class CacheConfig {
                 .recordStats()
                 .build());
         
+        cacheManager.registerCustomCache(USER_PRINCIPALS_CACHE,
+            Caffeine.newBuilder()
+                .expireAfterWrite(USER_PRINCIPALS_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .maximumSize(USER_PRINCIPALS_MAX_SIZE)
+                .recordStats()
+                .build());
+
         // Set default cache specification for unnamed caches
         cacheManager.setCaffeine(getDefaultCacheBuilder());
         
@@ -0,0 +1,357 @@
+package com.demoproject.demo.config;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe AES-GCM encryption of short strings such as patient names.
+ *
+ * Cipher instances are not thread-safe and expensive to create, so each operation
+ * borrows one from a pool and returns it afterwards. The pool grows to the peak
+ * concurrency instead of one instance per thread, which matters with virtual threads.
+ * Every borrowed slot carries its own SecureRandom, so IV generation never contends.
+ *
+ * Ciphertexts are stored as {@code v1.<keyId>.<base64(iv | ciphertext | tag)>}.
+ * Values without the prefix are legacy AES/ECB ciphertexts and can still be decrypted.
+ *
+ * The engine holds a key ring: new values are always encrypted with the primary key,
+ * while values under any previous key stay readable until they are re-encrypted.
+ *
+ * Blind indexes are deterministic HMAC-SHA256 digests that allow equality lookups
+ * on encrypted columns. Each ring key derives its own HMAC key, so the AES key is
+ * never used for two purposes.
+ */
+public final class CryptoEngine {
+
+    static final String VERSION_PREFIX = "v1.";
+
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    // The historical default of Cipher.getInstance("AES")
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] BLIND_INDEX_CONTEXT = "blind-index-v1".getBytes(StandardCharsets.UTF_8);
+
+    private record Slot(Cipher cipher, SecureRandom random) {
+    }
+
+    private final SecretKeySpec key;
+    private final String keyId;
+    private final String prefix;
+    // Primary key first, then previous keys in the configured order
+    private final Map<String, SecretKeySpec> keyRing = new LinkedHashMap<>();
+    // HMAC keys derived from the ring, in the same order
+    private final List<SecretKeySpec> blindIndexKeys = new ArrayList<>();
+    private final SlotPool gcmPool;
+    private final SlotPool legacyPool;
+
+    /**
+     * @param keyBytes Raw AES key of 16, 24 or 32 bytes
+     * @param maxIdle Largest number of idle ciphers kept per mode
+     */
+    public CryptoEngine(byte[] keyBytes, int maxIdle) {
+        this(keyBytes, List.of(), maxIdle);
+    }
+
+    /**
+     * @param keyBytes Raw primary AES key, used for all new values
+     * @param previousKeys Raw keys that may still protect stored values
+     * @param maxIdle Largest number of idle ciphers kept per mode
+     */
+    public CryptoEngine(byte[] keyBytes, List<byte[]> previousKeys, int maxIdle) {
+        this.key = new SecretKeySpec(keyBytes, "AES");
+        this.keyId = keyIdOf(keyBytes);
+        this.prefix = VERSION_PREFIX + keyId + ".";
+        keyRing.put(keyId, key);
+        for (byte[] previous : previousKeys) {
+            keyRing.putIfAbsent(keyIdOf(previous), new SecretKeySpec(previous, "AES"));
+        }
+        for (SecretKeySpec ringKey : keyRing.values()) {
+            blindIndexKeys.add(new SecretKeySpec(hmac(ringKey.getEncoded(), BLIND_INDEX_CONTEXT), HMAC_ALGORITHM));
+        }
+        this.gcmPool = new SlotPool(GCM_TRANSFORMATION, maxIdle);
+        this.legacyPool = new SlotPool(LEGACY_TRANSFORMATION, maxIdle);
+    }
+
+    /**
+     * @return Short fingerprint of the primary key, stored with every ciphertext
+     */
+    public String keyId() {
+        return keyId;
+    }
+
+    /**
+     * @return Prefix shared by every value encrypted with the primary key
+     */
+    public String currentPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @return true if the value is already encrypted with the primary key
+     */
+    public boolean isCurrent(String stored) {
+        return stored == null || stored.startsWith(prefix);
+    }
+
+    /**
+     * @param plaintext Value to encrypt, may be null
+     * @return Versioned ciphertext, or null for null input
+     */
+    public String encrypt(String plaintext) {
+        if (plaintext == null) {
+            return null;
+        }
+        Slot slot = gcmPool.borrow();
+        try {
+            return encrypt(slot, plaintext);
+        } finally {
+            gcmPool.release(slot);
+        }
+    }
+
+    /**
+     * @param stored Versioned or legacy ciphertext, may be null
+     * @return Plaintext, or null for null input
+     * @throws IllegalStateException if the value was encrypted with another key or was tampered with
+     */
+    public String decrypt(String stored) {
+        if (stored == null) {
+            return null;
+        }
+        boolean legacy = isLegacy(stored);
+        SlotPool pool = legacy ? legacyPool : gcmPool;
+        Slot slot = pool.borrow();
+        try {
+            return legacy ? decryptLegacy(slot, stored) : decrypt(slot, stored);
+        } finally {
+            pool.release(slot);
+        }
+    }
+
+    /**
+     * Encrypt many values with one borrowed cipher
+     * @param plaintexts Values to encrypt; null elements stay null
+     * @return Ciphertexts in the same order
+     */
+    public List<String> encryptAll(List<String> plaintexts) {
+        List<String> result = new ArrayList<>(plaintexts.size());
+        Slot slot = gcmPool.borrow();
+        try {
+            for (String plaintext : plaintexts) {
+                result.add(plaintext != null ? encrypt(slot, plaintext) : null);
+            }
+        } finally {
+            gcmPool.release(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Decrypt many values, borrowing at most one cipher per format
+     * @param stored Ciphertexts; null elements stay null
+     * @return Plaintexts in the same order
+     */
+    public List<String> decryptAll(List<String> stored) {
+        List<String> result = new ArrayList<>(stored.size());
+        Slot gcm = null;
+        Slot legacy = null;
+        try {
+            for (String value : stored) {
+                if (value == null) {
+                    result.add(null);
+                } else if (isLegacy(value)) {
+                    legacy = legacy != null ? legacy : legacyPool.borrow();
+                    result.add(decryptLegacy(legacy, value));
+                } else {
+                    gcm = gcm != null ? gcm : gcmPool.borrow();
+                    result.add(decrypt(gcm, value));
+                }
+            }
+        } finally {
+            if (gcm != null) {
+                gcmPool.release(gcm);
+            }
+            if (legacy != null) {
+                legacyPool.release(legacy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param value Value to index, already normalized by the caller; may be null
+     * @return Blind index under the primary key, or null for null input
+     */
+    public String blindIndex(String value) {
+        return value != null ? blindIndex(blindIndexKeys.get(0), value) : null;
+    }
+
+    /**
+     * Blind indexes of a value under every key in the ring, for lookups that must
+     * also find rows not yet re-indexed after a key rotation
+     * @param value Value to index, already normalized by the caller
+     * @return Distinct blind indexes, primary key first
+     */
+    public List<String> blindIndexes(String value) {
+        return blindIndexKeys.stream().map(indexKey -> blindIndex(indexKey, value)).toList();
+    }
+
+    /**
+     * @return true if the value predates the versioned format
+     */
+    public static boolean isLegacy(String stored) {
+        return !stored.startsWith(VERSION_PREFIX);
+    }
+
+    private String encrypt(Slot slot, String plaintext) {
+        byte[] iv = new byte[IV_LENGTH];
+        slot.random().nextBytes(iv);
+        try {
+            Cipher cipher = slot.cipher();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] input = plaintext.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer output = ByteBuffer.allocate(IV_LENGTH + cipher.getOutputSize(input.length));
+            output.put(iv);
+            cipher.doFinal(ByteBuffer.wrap(input), output);
+            return prefix + Base64.getEncoder().encodeToString(output.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error encrypting", e);
+        }
+    }
+
+    private String decrypt(Slot slot, String stored) {
+        int keyIdEnd = stored.indexOf('.', VERSION_PREFIX.length());
+        SecretKeySpec valueKey = keyIdEnd < 0 ? null : keyRing.get(stored.substring(VERSION_PREFIX.length(), keyIdEnd));
+        if (valueKey == null) {
+            throw new IllegalStateException("Value was encrypted with an unknown key");
+        }
+        try {
+            byte[] data = Base64.getDecoder().decode(stored.substring(keyIdEnd + 1));
+            Cipher cipher = slot.cipher();
+            cipher.init(Cipher.DECRYPT_MODE, valueKey, new GCMParameterSpec(TAG_BITS, data, 0, IV_LENGTH));
+            return new String(cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Error decrypting", e);
+        }
+    }
+
+    /**
+     * Legacy values carry no key id, so every key in the ring is tried in order.
+     * ECB has no integrity check; a wrong key is detected by invalid padding or
+     * invalid UTF-8, which makes a false match very unlikely but not impossible.
+     */
+    private String decryptLegacy(Slot slot, String stored) {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(stored);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Error decrypting", e);
+        }
+        GeneralSecurityException failure = null;
+        for (SecretKeySpec candidate : keyRing.values()) {
+            try {
+                Cipher cipher = slot.cipher();
+                cipher.init(Cipher.DECRYPT_MODE, candidate);
+                return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(cipher.doFinal(data)))
+                    .toString();
+            } catch (GeneralSecurityException e) {
+                failure = e;
+            } catch (CharacterCodingException e) {
+                failure = new GeneralSecurityException("Not valid UTF-8 under this key", e);
+            }
+        }
+        throw new IllegalStateException("Error decrypting", failure);
+    }
+
+    private static String blindIndex(SecretKeySpec indexKey, String value) {
+        byte[] digest = hmac(indexKey.getEncoded(), value.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static byte[] hmac(byte[] keyBytes, byte[] data) {
+        try {
+            // Mac instances are cheap next to a cipher and not shared, so none are pooled
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(keyBytes, HMAC_ALGORITHM));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " unavailable", e);
+        }
+    }
+
+    private static String keyIdOf(byte[] keyBytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * Lock-free pool of cipher slots. Borrowing from an empty pool creates a new slot;
+     * releasing into a full pool drops it.
+     */
+    private static final class SlotPool {
+
+        private final String transformation;
+        private final int maxIdle;
+        private final Queue<Slot> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+
+        SlotPool(String transformation, int maxIdle) {
+            this.transformation = transformation;
+            this.maxIdle = maxIdle;
+            // Fail at startup rather than on the first request if the JCE lacks the transformation
+            release(newSlot());
+        }
+
+        Slot borrow() {
+            Slot slot = idle.poll();
+            if (slot == null) {
+                return newSlot();
+            }
+            idleCount.decrementAndGet();
+            return slot;
+        }
+
+        void release(Slot slot) {
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                idle.offer(slot);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+
+        private Slot newSlot() {
+            try {
+                return new Slot(Cipher.getInstance(transformation), new SecureRandom());
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cipher " + transformation + " unavailable", e);
+            }
+        }
+    }
+}
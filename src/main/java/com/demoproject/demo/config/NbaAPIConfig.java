@@ -57,6 +57,7 @@ public class NbaAPIConfig {
      * - Connect: 30s
      * - Read: 30s 
      * - Write: 30s
+     * - Each NbaAPIService call is further capped by nba.api.call-timeout (NbaUpstreamGuard)
      * 
      * EDGE CASES:
      * - Handles slow networks via timeouts
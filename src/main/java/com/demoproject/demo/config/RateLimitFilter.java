@@ -0,0 +1,62 @@
+package com.demoproject.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies RateLimiter decisions inside the security filter chain.
+ * Runs after the security context is loaded, so session users are limited by
+ * name, and before the login filter, so blocked clients never reach the password check.
+ * Not a bean on purpose: a Filter bean would also be registered outside the
+ * security chain and count every request twice.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Decision decision = isLoginAttempt(request)
+            ? rateLimiter.checkLogin(request)
+            : rateLimiter.tryConsume(request, SecurityContextHolder.getContext().getAuthentication());
+
+        if (decision == null || decision.allowed()) {
+            if (decision != null && decision.group() != RateLimiter.Group.LOGIN) {
+                response.setHeader("X-RateLimit-Remaining", Long.toString(decision.remaining()));
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        logger.warn("Rate limit exceeded: group={}, path={}, client={}",
+            decision.group(), request.getServletPath(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\": \"RATE_LIMITED\", \"message\": \"Too many requests, retry in "
+            + decision.retryAfterSeconds() + " seconds\"}");
+    }
+
+    private static boolean isLoginAttempt(HttpServletRequest request) {
+        return HttpMethod.POST.matches(request.getMethod()) && "/login".equals(request.getServletPath());
+    }
+}
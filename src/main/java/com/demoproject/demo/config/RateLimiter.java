@@ -0,0 +1,277 @@
+/* ==========================================================================
+ * Rate Limiter Module
+ *
+ * PURPOSE: Token-bucket rate limits per user, role and endpoint group
+ * DEPENDENCIES: Bucket4j, Caffeine, Micrometer, Spring Security
+ * SCOPE: Request throttling and login brute-force protection
+ * ========================================================================== */
+
+package com.demoproject.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/* --------------------------------------------------------------------------
+ * Request Rate Limiter
+ *
+ * FUNCTIONALITY:
+ * - One token bucket per caller and endpoint group; callers are users when
+ *   authenticated and client addresses otherwise
+ * - Heavy endpoints (range queries, charts, exports, searches, NBA batch
+ *   fetches) get a much smaller budget than the rest, so they cannot pin
+ *   the connection pool
+ * - Administrators get a configurable multiple of every budget
+ * - Failed logins draw from separate, stricter buckets per client and
+ *   username and per client address; every attempt reserves a token up
+ *   front and a successful one gives it back, so parallel guesses cannot
+ *   all pass before the first failure is counted
+ *
+ * IMPORTANT NOTES:
+ * - Buckets are local to this instance
+ * - Client addresses come from request.getRemoteAddr(); behind a proxy this
+ *   is only the client if server.forward-headers-strategy is set (prod
+ *   enables it), otherwise every anonymous caller shares the proxy's bucket
+ * - Bucket state lives in bounded Caffeine maps; an idle bucket expires once
+ *   it would have refilled anyway, so expiry never grants extra tokens
+ * - Throttled requests are counted in rate.limit.throttled, tagged by group
+ *
+ * PERFORMANCE IMPACT:
+ * - One map lookup and one lock-free bucket update per request
+ * -------------------------------------------------------------------------- */
+@Component
+public class RateLimiter {
+
+    private static final Duration REQUEST_PERIOD = Duration.ofMinutes(1);
+    private static final int MAX_USERNAME_KEY_LENGTH = 64;
+
+    /**
+     * Endpoint groups with their own budgets
+     */
+    public enum Group {
+        HEAVY,
+        STANDARD,
+        LOGIN
+    }
+
+    /**
+     * Outcome of a rate-limit check
+     *
+     * @param allowed Whether the request may proceed
+     * @param group Group the request was counted against
+     * @param remaining Tokens left in the bucket
+     * @param retryAfterSeconds Seconds until a token is available; 0 when allowed
+     */
+    public record Decision(boolean allowed, Group group, long remaining, long retryAfterSeconds) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final boolean enabled;
+    private final List<String> excludedPaths;
+    private final List<String> heavyPaths;
+    private final long heavyPerMinute;
+    private final long standardPerMinute;
+    private final long adminMultiplier;
+    private final long maxLoginFailures;
+    private final long maxLoginFailuresPerAddress;
+    private final Duration loginFailureWindow;
+
+    private final Cache<String, Bucket> requestBuckets;
+    private final Cache<String, Bucket> loginFailureBuckets;
+    private final Map<Group, Counter> throttledCounters = new EnumMap<>(Group.class);
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.excluded-paths:/css/**,/js/**,/images/**,/*.png,/*.ico}") List<String> excludedPaths,
+                       @Value("${rate-limit.heavy-paths:/wellca-management/range,/wellca-management/*-chart-stats/**,"
+                           + "/wellca-management/export,/wellca-management/import,/wellca-management/dashboard,"
+                           + "/wellca-management/weekly-stats/**,/wellca-management/monthly-delivery/**,"
+                           + "/wellca-management/patients/services/search,/api/audit/search,/api/audit/download,"
+                           + "/api/nba/player-statistics/batch}")
+                       List<String> heavyPaths,
+                       @Value("${rate-limit.heavy.per-minute:30}") long heavyPerMinute,
+                       @Value("${rate-limit.standard.per-minute:300}") long standardPerMinute,
+                       @Value("${rate-limit.admin-multiplier:2}") long adminMultiplier,
+                       @Value("${rate-limit.login.max-failures:5}") long maxLoginFailures,
+                       @Value("${rate-limit.login.max-failures-per-address:50}") long maxLoginFailuresPerAddress,
+                       @Value("${rate-limit.login.failure-window:PT15M}") Duration loginFailureWindow,
+                       @Value("${rate-limit.max-tracked-keys:10000}") long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.excludedPaths = excludedPaths;
+        this.heavyPaths = heavyPaths;
+        this.heavyPerMinute = heavyPerMinute;
+        this.standardPerMinute = standardPerMinute;
+        this.adminMultiplier = adminMultiplier;
+        this.maxLoginFailures = maxLoginFailures;
+        this.maxLoginFailuresPerAddress = maxLoginFailuresPerAddress;
+        this.loginFailureWindow = loginFailureWindow;
+        this.requestBuckets = Caffeine.newBuilder()
+            .maximumSize(maxTrackedKeys)
+            .expireAfterAccess(REQUEST_PERIOD)
+            .build();
+        this.loginFailureBuckets = Caffeine.newBuilder()
+            .maximumSize(maxTrackedKeys)
+            .expireAfterAccess(loginFailureWindow)
+            .build();
+        for (Group group : Group.values()) {
+            throttledCounters.put(group, meterRegistry.counter("rate.limit.throttled",
+                "group", group.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    /* .... Request Limits .... */
+
+    /**
+     * Takes one token for a request
+     *
+     * @param request Incoming request
+     * @param authentication Current authentication, or null for anonymous callers
+     * @returns Decision, or null if the request is not rate limited
+     */
+    public Decision tryConsume(HttpServletRequest request, Authentication authentication) {
+        String path = request.getServletPath();
+        if (!enabled || matchesAny(excludedPaths, path)) {
+            return null;
+        }
+        Group group = matchesAny(heavyPaths, path) ? Group.HEAVY : Group.STANDARD;
+        long perMinute = group == Group.HEAVY ? heavyPerMinute : standardPerMinute;
+
+        String key;
+        if (authentication != null && authentication.isAuthenticated()) {
+            String role = role(authentication);
+            if ("ADMIN".equals(role)) {
+                perMinute *= adminMultiplier;
+            }
+            key = group + "|" + role + "|" + authentication.getName();
+        } else {
+            key = group + "|anonymous|" + request.getRemoteAddr();
+        }
+
+        long capacity = perMinute;
+        Bucket bucket = requestBuckets.get(key, k -> newBucket(capacity, REQUEST_PERIOD));
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            return new Decision(true, group, probe.getRemainingTokens(), 0);
+        }
+        throttledCounters.get(group).increment();
+        return new Decision(false, group, 0, toSeconds(probe.getNanosToWaitForRefill()));
+    }
+
+    /* .... Login Failure Limits .... */
+
+    /**
+     * Reserves a failure token from the client's buckets for a login attempt.
+     * The token stays taken if the attempt fails; releaseLoginAttempt gives it
+     * back on success, so users who type their password correctly are never
+     * slowed down.
+     *
+     * @param request Login form submission
+     * @returns Decision for the attempt
+     */
+    public Decision checkLogin(HttpServletRequest request) {
+        if (!enabled) {
+            return new Decision(true, Group.LOGIN, maxLoginFailures, 0);
+        }
+        Bucket userBucket = userLoginBucket(request);
+        ConsumptionProbe probe = userBucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            ConsumptionProbe addressProbe = addressLoginBucket(request).tryConsumeAndReturnRemaining(1);
+            if (addressProbe.isConsumed()) {
+                return new Decision(true, Group.LOGIN, Math.min(probe.getRemainingTokens(),
+                    addressProbe.getRemainingTokens()), 0);
+            }
+            userBucket.addTokens(1);
+            probe = addressProbe;
+        }
+        throttledCounters.get(Group.LOGIN).increment();
+        return new Decision(false, Group.LOGIN, 0, toSeconds(probe.getNanosToWaitForRefill()));
+    }
+
+    /**
+     * Returns the token checkLogin reserved, once the attempt has succeeded
+     *
+     * @param request Successful login form submission
+     */
+    public void releaseLoginAttempt(HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        userLoginBucket(request).addTokens(1);
+        addressLoginBucket(request).addTokens(1);
+    }
+
+    /* .... Helpers .... */
+
+    private static Bucket newBucket(long capacity, Duration period) {
+        return Bucket.builder()
+            .addLimit(Bandwidth.classic(capacity, Refill.greedy(capacity, period)))
+            .build();
+    }
+
+    private Bucket userLoginBucket(HttpServletRequest request) {
+        return loginFailureBuckets.get(userLoginKey(request), k -> newBucket(maxLoginFailures, loginFailureWindow));
+    }
+
+    private Bucket addressLoginBucket(HttpServletRequest request) {
+        return loginFailureBuckets.get(addressLoginKey(request),
+            k -> newBucket(maxLoginFailuresPerAddress, loginFailureWindow));
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String role(Authentication authentication) {
+        String role = "USER";
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if ("ROLE_ADMIN".equals(name)) {
+                return "ADMIN";
+            }
+            if (name != null && name.startsWith("ROLE_")) {
+                role = name.substring("ROLE_".length());
+            }
+        }
+        return role;
+    }
+
+    private static String userLoginKey(HttpServletRequest request) {
+        String username = request.getParameter("username");
+        username = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        if (username.length() > MAX_USERNAME_KEY_LENGTH) {
+            username = username.substring(0, MAX_USERNAME_KEY_LENGTH);
+        }
+        return request.getRemoteAddr() + "|" + username;
+    }
+
+    private static String addressLoginKey(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
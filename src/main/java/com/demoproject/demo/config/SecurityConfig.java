@@ -2,16 +2,19 @@
  * Security Configuration Module
  * 
  * PURPOSE: Centralizes Spring Security configuration and authentication logic
- * DEPENDENCIES: Spring Security, BCrypt, UserRepository, SLF4J
+ * DEPENDENCIES: Spring Security, BCrypt, UserRepository, CacheManager, RateLimiter, SLF4J
  * SCOPE: Application-wide security settings
  * ========================================================================== */
 
 package com.demoproject.demo.config;
 
 import com.demoproject.demo.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -23,11 +26,14 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +49,8 @@ import java.util.Arrays;
  * - HTTPS channel security
  * - Custom login/logout handling
  * - Session management
+ * - Cached login principals, evicted when the account changes
+ * - Per-user and per-endpoint rate limits, stricter for failed logins
  * 
  * SECURITY CONSIDERATIONS:
  * - All passwords hashed with BCrypt
@@ -57,13 +65,17 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final RateLimiter rateLimiter;
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Autowired
     private Environment environment;
 
-    public SecurityConfig(UserRepository userRepository) {
+    public SecurityConfig(UserRepository userRepository, CacheManager cacheManager, RateLimiter rateLimiter) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.rateLimiter = rateLimiter;
     }
 
     /* .... Core Security Beans .... */
@@ -73,16 +85,22 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Loads login principals through the userPrincipals cache, so a burst of logins
+     * costs one query per user and TTL rather than one per attempt.
+     * Concurrent misses for the same user share a single query.
+     *
+     * @note Unknown usernames are not cached
+     * @note Callers get a copy, since authentication erases the password of the
+     *       principal it returns and would otherwise blank the cached entry
+     */
     @Bean
     public UserDetailsService userDetailsService() {
+        Cache principals = cacheManager.getCache(CacheConfig.USER_PRINCIPALS_CACHE);
         return username -> {
             try {
-                return userRepository.findByUsername(username)
-                    .map(user -> User.withUsername(user.getUsername())
-                                   .password(user.getPassword())
-                                   .roles(user.getRole().name())
-                                   .build())
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+                UserDetails principal = principals.get(username, () -> loadPrincipal(username));
+                return User.withUserDetails(principal).build();
             } catch (Exception e) {
                 logger.error("Error during user authentication for username: {}", username, e);
                 throw new UsernameNotFoundException("Authentication error", e);
@@ -90,6 +108,15 @@ public class SecurityConfig {
         };
     }
 
+    private UserDetails loadPrincipal(String username) {
+        return userRepository.findByUsername(username)
+            .map(user -> User.withUsername(user.getUsername())
+                           .password(user.getPassword())
+                           .roles(user.getRole().name())
+                           .build())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
     /* .... HTTP Security Configuration .... */
     
     @Bean
@@ -103,8 +130,15 @@ public class SecurityConfig {
                 .anyRequest().requiresSecure());
         }
 
+        SimpleUrlAuthenticationSuccessHandler loginSuccessHandler = new SimpleUrlAuthenticationSuccessHandler("/home");
+        loginSuccessHandler.setAlwaysUseDefaultTargetUrl(true);
+
         http
+            .addFilterBefore(new RateLimitFilter(rateLimiter), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(authz -> authz
+                // Streams (SSE, exports) re-dispatch the already authorized request when they finish
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // Static resources and public pages
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/*.png", "/*.ico", "/h2-console/**").permitAll()
                 .requestMatchers("/", "/login").permitAll()
@@ -128,8 +162,12 @@ public class SecurityConfig {
             
             .formLogin(form -> form
                 .loginPage("/login")
-                .defaultSuccessUrl("/home", true)
+                .successHandler((request, response, authentication) -> {
+                    rateLimiter.releaseLoginAttempt(request);
+                    loginSuccessHandler.onAuthenticationSuccess(request, response, authentication);
+                })
                 .failureHandler((request, response, exception) -> {
+                    // The attempt's rate-limit token was taken before the password check
                     logger.warn("Failed login attempt: {}", exception.getMessage());
                     response.sendRedirect("/login?error");
                 })
@@ -175,9 +213,7 @@ public class SecurityConfig {
         auth.userDetailsService(userDetailsService()).passwordEncoder(passwordEncoder());
     }
 
-    /* @todo [SECURITY] Add rate limiting for login attempts
-     * @todo [AUDIT] Implement security event logging
-     * @todo [PERF] Consider caching authenticated user details
+    /* @todo [AUDIT] Implement security event logging
      * @todo [RESILIENCE] Add circuit breaker for auth failures
      */
 }
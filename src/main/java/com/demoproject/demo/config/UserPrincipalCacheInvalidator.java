@@ -0,0 +1,38 @@
+package com.demoproject.demo.config;
+
+import com.demoproject.demo.event.UserAccountChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts a cached login principal as soon as the account changes, so a new password,
+ * a role change or a deletion takes effect on the next login instead of after the TTL.
+ */
+@Component
+public class UserPrincipalCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCacheInvalidator.class);
+
+    private final CacheManager cacheManager;
+
+    public UserPrincipalCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evict after the writing transaction commits; a login that loads the old row
+     * before the commit is evicted here too, so the stale principal never outlives it
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(UserAccountChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_PRINCIPALS_CACHE);
+        if (cache != null) {
+            cache.evict(event.username());
+            logger.debug("Evicted cached principal for user: {}", event.username());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.demoproject.demo.config;
+
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Evicts only the Wellca cache entries whose date range overlaps a write.
+ * Every Wellca cache is keyed by WellcaCacheKey, so an entry for a quarter two
+ * years ago survives a submission for today.
+ *
+ * Eviction runs after the write commits, so every read that starts after the
+ * commit sees the new data. A read that started before the commit and finishes
+ * after the eviction can still put its stale result back, but under a key stamped
+ * with the data version it started at (see WellcaDataVersions.current), which no
+ * lookup uses once the write's version is bumped; it only takes space until it
+ * expires or the next overlapping write evicts it.
+ */
+@Component
+public class WellcaCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WellcaCacheInvalidator.class);
+
+    /**
+     * Caches whose keys are WellcaCacheKey instances
+     */
+    static final List<String> WELLCA_CACHES = List.of(
+        "wellcaData",
+        "wellcaRangeData",
+        "serviceDetails",
+        "weeklyChartData",
+        "monthlyChartData",
+        "quarterlyChartData"
+    );
+
+    private final CacheManager cacheManager;
+    private final WellcaDataVersions dataVersions;
+
+    public WellcaCacheInvalidator(CacheManager cacheManager, WellcaDataVersions dataVersions) {
+        this.cacheManager = cacheManager;
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Evict after the writing transaction commits, then bump the data versions.
+     * Eviction frees the replaced values; correctness comes from the bump, since
+     * cache keys and ETags both carry the version, and a value cached at the
+     * bumped version was loaded after the commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(WellcaEntryChangedEvent event) {
+        if (event.hasDeltas()) {
+            event.affectedDates().forEach(date -> {
+                evict(date, date);
+                dataVersions.bump(date, date);
+            });
+        } else {
+            evict(event.startDate(), event.endDate());
+            dataVersions.bump(event.startDate(), event.endDate());
+        }
+    }
+
+    /**
+     * Evict every cached value that depends on a date within [from, to]
+     * @param from First changed date
+     * @param to Last changed date
+     */
+    public void evict(LocalDate from, LocalDate to) {
+        for (String cacheName : WELLCA_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            // Keys that do not carry a date range cannot be scoped and are always evicted
+            boolean evicted = caffeineCache.getNativeCache().asMap().keySet().removeIf(key ->
+                !(key instanceof WellcaCacheKey wellcaKey) || wellcaKey.overlaps(from, to));
+            if (evicted) {
+                logger.debug("Evicted entries overlapping {} to {} from cache: {}", from, to, cacheName);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.demoproject.demo.config;
+
+import java.time.LocalDate;
+
+/**
+ * Cache key for Wellca caches that records which dates the cached value was built from.
+ * WellcaCacheInvalidator uses the range to evict only the entries a write can affect.
+ * WellcaDataVersions stamps each key with the data version of its range, so a value
+ * loaded before a write can never be served once the write's version is current.
+ *
+ * @param scope Distinguishes the cached query and its non-date parameters
+ * @param startDate First date the value depends on
+ * @param endDate Last date the value depends on
+ * @param version Data version of the range when the value was loaded
+ */
+public record WellcaCacheKey(String scope, LocalDate startDate, LocalDate endDate, long version) {
+
+    public static WellcaCacheKey of(String scope, LocalDate startDate, LocalDate endDate) {
+        return new WellcaCacheKey(scope, startDate, endDate, 0);
+    }
+
+    /**
+     * Key covering the whole month containing a date
+     */
+    public static WellcaCacheKey ofMonth(String scope, LocalDate dayInMonth) {
+        LocalDate start = dayInMonth.withDayOfMonth(1);
+        return of(scope, start, start.withDayOfMonth(start.lengthOfMonth()));
+    }
+
+    /**
+     * Key covering a calendar quarter
+     * @throws IllegalArgumentException if the quarter is not between 1 and 4
+     */
+    public static WellcaCacheKey ofQuarter(String scope, int year, int quarter) {
+        if (quarter < 1 || quarter > 4) {
+            throw new IllegalArgumentException("Quarter must be between 1 and 4");
+        }
+        LocalDate start = LocalDate.of(year, (quarter - 1) * 3 + 1, 1);
+        return of(scope, start, start.plusMonths(3).minusDays(1));
+    }
+
+    /**
+     * Same key at another data version
+     */
+    public WellcaCacheKey at(long version) {
+        return new WellcaCacheKey(scope, startDate, endDate, version);
+    }
+
+    /**
+     * @return true if any date in [from, to] falls inside this key's range
+     */
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return !startDate.isAfter(to) && !endDate.isBefore(from);
+    }
+}
@@ -0,0 +1,87 @@
+package com.demoproject.demo.config;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a data version per calendar month of Wellca entries, for conditional GETs.
+ * Every committed write stamps the months it touched with the next value of a global
+ * sequence, so the version of any date range is the highest stamp among its months.
+ * Versions live in memory; the boot epoch in every ETag invalidates tags issued
+ * before a restart.
+ */
+@Component
+public class WellcaDataVersions {
+
+    /**
+     * Version of the data behind a response
+     * @param etag Strong entity tag, quoted
+     * @param lastModified Last change to the covered months, in epoch millis
+     */
+    public record Version(String etag, long lastModified) {
+    }
+
+    private record Stamp(long sequence, Instant modified) {
+    }
+
+    // HTTP dates have second precision, so keep comparisons consistent with what clients echo back
+    private final Instant bootTime = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final String epoch = Long.toString(bootTime.toEpochMilli(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<YearMonth, Stamp> stamps = new ConcurrentHashMap<>();
+
+    /**
+     * Mark every month overlapping [from, to] as changed
+     * @param from First changed date
+     * @param to Last changed date
+     */
+    public void bump(LocalDate from, LocalDate to) {
+        Stamp stamp = new Stamp(sequence.incrementAndGet(), Instant.now());
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            stamps.put(month, stamp);
+        }
+    }
+
+    /**
+     * Current version of the data between two dates
+     * @param from First date the response depends on
+     * @param to Last date the response depends on
+     * @return ETag and Last-Modified for the range
+     */
+    public Version versionOf(LocalDate from, LocalDate to) {
+        Stamp stamp = latest(from, to);
+        return new Version("\"" + epoch + "-" + stamp.sequence() + "\"", stamp.modified().toEpochMilli());
+    }
+
+    /**
+     * Stamp a cache key with the current version of its range. Used in the key
+     * expressions of the Wellca caches: the version is read before the value is
+     * loaded, so a value cached under a version never predates that version's
+     * writes, and a slow load that finishes after a write lands under a key that
+     * is no longer looked up. An ETag read before the body is therefore never
+     * newer than the body.
+     * @param key Key without a version
+     * @return The key at the current version of its range
+     */
+    public WellcaCacheKey current(WellcaCacheKey key) {
+        return key.at(latest(key.startDate(), key.endDate()).sequence());
+    }
+
+    private Stamp latest(LocalDate from, LocalDate to) {
+        Stamp latest = new Stamp(0, bootTime);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            Stamp stamp = stamps.get(month);
+            if (stamp != null && stamp.sequence() > latest.sequence()) {
+                latest = stamp;
+            }
+        }
+        return latest;
+    }
+}
@@ -83,6 +83,7 @@ public class DatabaseConfig {
         /* Performance Optimizations */
         config.addDataSourceProperty("useServerPrepStmts", "true");
         config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true"); // PostgreSQL multi-row INSERT for JDBC batches
         config.addDataSourceProperty("maintainTimeStats", "false");
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "true");
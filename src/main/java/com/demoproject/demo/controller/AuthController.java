@@ -20,12 +20,25 @@ import org.springframework.ui.Model;
 import org.springframework.security.core.Authentication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.demoproject.demo.dto.AuditSearchHit;
+import com.demoproject.demo.dto.CursorPage;
+import com.demoproject.demo.entity.AuditLog;
+import com.demoproject.demo.services.AuditLogArchiveWriter;
+import com.demoproject.demo.services.AuditLogSearchService;
 import com.demoproject.demo.services.AuditLogService;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /* --------------------------------------------------------------------------
  * Authentication Controller Implementation
@@ -46,10 +59,19 @@ import org.springframework.http.ResponseEntity;
 public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private static final DateTimeFormatter DOWNLOAD_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final AuditLogService auditLogService;
+    private final AuditLogSearchService auditLogSearchService;
+    private final AuditLogArchiveWriter auditLogArchiveWriter;
 
-    public AuthController(AuditLogService auditLogService) {
+    public AuthController(AuditLogService auditLogService, AuditLogSearchService auditLogSearchService,
+                          AuditLogArchiveWriter auditLogArchiveWriter) {
         this.auditLogService = auditLogService;
+        this.auditLogSearchService = auditLogSearchService;
+        this.auditLogArchiveWriter = auditLogArchiveWriter;
     }
 
     /* .... Login Page Handler .... */
@@ -91,19 +113,31 @@ public class AuthController {
      * Renders the audit log view for administrators.
      *
      * @param model Spring MVC model for view attributes
-     * @param pageable Pagination parameters
+     * @param cursor Keyset cursor of the page to show, absent for the newest entries
+     * @param size Page size
      * @returns String View name for template resolution
      * 
      * @security Requires ADMIN role
-     * @note Includes pagination support
+     * @note Keyset pagination keeps deep pages as cheap as the first
      * @audit Logs audit page access
      */
     @GetMapping("/audit")
     @PreAuthorize("hasRole('ADMIN')")
     public String viewAuditLogs(Model model, 
-                              @PageableDefault(size = 20, sort = "timestamp", direction = Sort.Direction.DESC) 
-                              Pageable pageable) {
-        model.addAttribute("auditLogs", auditLogService.getAll(pageable));
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<AuditLog> page;
+        try {
+            page = auditLogService.getPage(cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring invalid audit log cursor: {}", cursor);
+            page = auditLogService.getPage(null, pageSize);
+            cursor = null;
+        }
+        model.addAttribute("auditLogs", page);
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
         
         auditLogService.logEvent(
             "AUDIT_VIEW",
@@ -140,8 +174,115 @@ public class AuthController {
         }
     }
 
-    /* @todo [SECURITY] Add rate limiting for failed attempts
-     * @todo [FEATURE] Add 2FA support
+    /**
+     * Full-text search over audit logs
+     * 
+     * @param q Search terms; supports "quoted phrases", or and -exclusions
+     * @param from Earliest timestamp to include (optional)
+     * @param to Timestamp to stop before (optional)
+     * @param order relevance (default) or newest
+     * @param cursor Cursor from the previous page (optional)
+     * @param size Page size, capped at 100
+     * @returns ResponseEntity with a page of matches, or 400 for invalid input
+     * @security Requires ADMIN role
+     * @audit Logs the search terms
+     * @example GET /api/audit/search?q=login failed&from=2024-01-01T00:00:00
+     */
+    @GetMapping("/api/audit/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchAuditLogs(
+            @RequestParam String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "relevance") String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (q.length() > MAX_SEARCH_QUERY_LENGTH) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters"));
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+        }
+        AuditLogSearchService.Order sortOrder;
+        try {
+            sortOrder = AuditLogSearchService.Order.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "order must be relevance or newest"));
+        }
+        int pageSize = Math.max(1, Math.min(size, 100));
+        try {
+            CursorPage<AuditSearchHit> page = auditLogSearchService.search(q, from, to, sortOrder, cursor, pageSize);
+            auditLogService.logEvent(
+                "AUDIT_SEARCH",
+                "AUDIT",
+                "Administrator searched audit logs for: " + q
+            );
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams a gzip-compressed export of audit logs
+     * 
+     * @param from Earliest timestamp to include (optional)
+     * @param to Timestamp to stop before (optional)
+     * @param user Username to restrict to (optional)
+     * @param category Category to restrict to (optional)
+     * @param format csv (default) or ndjson
+     * @returns ResponseEntity streaming a .csv.gz or .ndjson.gz attachment
+     * @throws IllegalArgumentException for an unknown format or an empty window (400)
+     * @security Requires ADMIN role
+     * @audit Logs the export filters
+     * @performance Rows are read through a cursor and written as they arrive,
+     *              so memory use does not grow with the export
+     * @note Bounded by spring.mvc.async.request-timeout
+     * @example GET /api/audit/download?from=2024-01-01T00:00:00&format=ndjson
+     */
+    @GetMapping("/api/audit/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadAuditLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "csv") String format) {
+        AuditLogArchiveWriter.Format exportFormat;
+        try {
+            exportFormat = AuditLogArchiveWriter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be csv or ndjson");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        String username = user == null || user.isBlank() ? null : user;
+        String categoryName = category == null || category.isBlank() ? null : category;
+
+        auditLogService.logEvent(
+            "AUDIT_DOWNLOAD",
+            "AUDIT",
+            String.format("Administrator exported audit logs: from=%s, to=%s, user=%s, category=%s, format=%s",
+                from, to, username, categoryName, exportFormat.getExtension())
+        );
+
+        StreamingResponseBody body = outputStream -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(outputStream, 8192);
+            long rows = auditLogArchiveWriter.write(exportFormat, from, to, username, categoryName, gzip);
+            gzip.finish();
+            logger.info("Exported {} audit log entries as {}", rows, exportFormat);
+        };
+        String filename = "audit-logs-" + LocalDateTime.now().format(DOWNLOAD_STAMP)
+            + "." + exportFormat.getExtension() + ".gz";
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
+    /* @todo [FEATURE] Add 2FA support
      * @todo [AUDIT] Add IP address logging
      * @todo [PERF] Consider caching login page
      */
@@ -0,0 +1,219 @@
+/* ==========================================================================
+ * NBA Data Controller Module
+ *
+ * PURPOSE: Exposes NBA game, team and player data to the NBA pages
+ * DEPENDENCIES: Spring MVC, Spring Security, NbaStatsStore, NbaAPIService, NbaBatchFetcher,
+ *               NbaLiveGameService
+ * SCOPE: Read-only JSON and event stream endpoints
+ * ========================================================================== */
+
+package com.demoproject.demo.controller;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.demoproject.demo.dto.NbaTeam;
+import com.demoproject.demo.services.NbaAPIService;
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import com.demoproject.demo.services.NbaBatchFetcher;
+import com.demoproject.demo.services.NbaLiveGameService;
+import com.demoproject.demo.services.NbaStatsStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/* --------------------------------------------------------------------------
+ * NBA Data Controller
+ *
+ * FUNCTIONALITY:
+ * - Games by date and by id
+ * - Player box scores by game, for one game or streamed for many
+ * - Live game updates over server-sent events
+ * - Game logs by player
+ * - Teams
+ *
+ * IMPORTANT NOTES:
+ * - Reads come from the local store kept current by NbaSyncService, so the
+ *   pages keep working while the upstream is slow or down
+ * - Dates and games the sync has not reached yet fall back to NbaAPIService's
+ *   cache; upstream failures with nothing cached map to 502 Bad Gateway
+ * - Teams and game logs only exist locally
+ * - Live viewers share one upstream poller per game; when too many games
+ *   are followed already, a new one is refused with 503
+ * -------------------------------------------------------------------------- */
+@Controller
+@RequestMapping("/api/nba")
+public class NbaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaController.class);
+
+    private static final int MAX_GAME_LOG = 100;
+
+    private final NbaStatsStore store;
+    private final NbaAPIService nbaAPIService;
+    private final NbaBatchFetcher nbaBatchFetcher;
+    private final NbaLiveGameService nbaLiveGameService;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchGames;
+
+    public NbaController(NbaStatsStore store, NbaAPIService nbaAPIService, NbaBatchFetcher nbaBatchFetcher,
+                         NbaLiveGameService nbaLiveGameService, ObjectMapper objectMapper,
+                         @Value("${nba.batch.max-games:500}") int maxBatchGames) {
+        this.store = store;
+        this.nbaAPIService = nbaAPIService;
+        this.nbaBatchFetcher = nbaBatchFetcher;
+        this.nbaLiveGameService = nbaLiveGameService;
+        this.objectMapper = objectMapper;
+        this.maxBatchGames = maxBatchGames;
+    }
+
+    /**
+     * Lists the games on a date
+     *
+     * @param date Game date (UTC); defaults to today
+     * @returns Games with status and score
+     */
+    @GetMapping("/games")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<NbaGame>> getGames(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate day = date != null ? date : LocalDate.now(ZoneOffset.UTC);
+        return ResponseEntity.ok(store.isDateSynced(day) ? store.findGames(day) : nbaAPIService.getGames(day));
+    }
+
+    /**
+     * Retrieves one game
+     *
+     * @param gameId API game id
+     * @returns The game, or 404 if unknown
+     */
+    @GetMapping("/games/{gameId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<NbaGame> getGame(@PathVariable int gameId) {
+        NbaGame game = store.findGame(gameId);
+        if (game == null) {
+            game = nbaAPIService.getGame(gameId);
+        }
+        return game != null ? ResponseEntity.ok(game) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Streams live updates of a game: the full state on connect, then changed
+     * game data and changed box score lines as they happen
+     *
+     * @param gameId API game id
+     * @returns Event stream, 404 if the game is unknown, or 503 if too many games are followed
+     */
+    @GetMapping(value = "/games/{gameId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> streamLiveGame(@PathVariable int gameId) {
+        if (store.findGame(gameId) == null && nbaAPIService.getGame(gameId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = nbaLiveGameService.subscribe(gameId);
+        if (emitter == null) {
+            logger.warn("Refused live stream of NBA game {}: {} games already followed", gameId,
+                nbaLiveGameService.getGameCount());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Retrieves the player box scores of a game
+     *
+     * @param gameId API game id
+     * @returns One line per player
+     */
+    @GetMapping("/games/{gameId}/player-statistics")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<NbaPlayerStatistics>> getPlayerStatistics(@PathVariable int gameId) {
+        List<NbaPlayerStatistics> statistics = store.findPlayerStatistics(gameId);
+        return ResponseEntity.ok(statistics != null ? statistics : nbaAPIService.getPlayerStatistics(gameId));
+    }
+
+    /**
+     * Streams the player box scores of many games as NDJSON, one line per game
+     * in completion order. Games that fail carry an error instead of statistics.
+     *
+     * @param gameIds API game ids
+     * @returns NDJSON stream
+     * @throws IllegalArgumentException if the list is empty or too long (400)
+     */
+    @PostMapping("/player-statistics/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> getPlayerStatisticsBatch(@RequestBody List<Integer> gameIds) {
+        if (gameIds == null || gameIds.isEmpty() || gameIds.size() > maxBatchGames) {
+            throw new IllegalArgumentException("Between 1 and " + maxBatchGames + " game ids are required");
+        }
+        StreamingResponseBody body = output -> nbaBatchFetcher.fetchPlayerStatistics(gameIds, result -> {
+            try {
+                output.write(objectMapper.writeValueAsBytes(result));
+                output.write('\n');
+                output.flush();
+            } catch (IOException e) {
+                // Client went away; stops the remaining fetches
+                throw new UncheckedIOException(e);
+            }
+        });
+        logger.info("Streaming NBA box scores of {} games", gameIds.size());
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
+    /**
+     * Retrieves a player's most recent box scores
+     *
+     * @param playerId API player id
+     * @param limit Maximum number of games, capped at 100
+     * @returns One line per game, most recent first
+     */
+    @GetMapping("/players/{playerId}/games")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<NbaPlayerStatistics>> getPlayerGameLog(@PathVariable int playerId,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(store.findPlayerGameLog(playerId, Math.max(1, Math.min(limit, MAX_GAME_LOG))));
+    }
+
+    /**
+     * Lists the teams seen by the sync
+     *
+     * @returns Teams by name
+     */
+    @GetMapping("/teams")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<NbaTeam>> getTeams() {
+        return ResponseEntity.ok(store.findTeams());
+    }
+
+    @ExceptionHandler(NbaApiException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamFailure(NbaApiException e) {
+        logger.warn("NBA data unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+            .body(Map.of("error", "NBA data is temporarily unavailable"));
+    }
+}
@@ -1,23 +1,45 @@
 package com.demoproject.demo.controller;
 
+import com.demoproject.demo.config.WellcaDataVersions;
+import com.demoproject.demo.dto.CursorPage;
 import com.demoproject.demo.dto.WellcaDTO;
+import com.demoproject.demo.dto.WellcaImportResult;
+import com.demoproject.demo.dto.WellcaKeyRotationStatus;
+import com.demoproject.demo.dto.WellcaPatientServiceQuery;
 import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.services.WellcaChartRange;
+import com.demoproject.demo.services.WellcaDashboardService;
+import com.demoproject.demo.services.WellcaExportService;
+import com.demoproject.demo.services.WellcaImportService;
+import com.demoproject.demo.services.WellcaKeyRotationService;
 import com.demoproject.demo.services.WellcaService;
+import com.demoproject.demo.services.WellcaUpdateStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.dao.DataAccessException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.math.BigDecimal;
 
@@ -26,10 +48,30 @@ import java.math.BigDecimal;
 public class WellcaController {
     
     private static final Logger logger = LoggerFactory.getLogger(WellcaController.class);
+    private static final int MAX_PAGE_SIZE = 500;
+    // Browsers keep the body but must revalidate it with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
     private final WellcaService wellcaService;
-
-    public WellcaController(WellcaService wellcaService) {
+    private final WellcaImportService wellcaImportService;
+    private final WellcaExportService wellcaExportService;
+    private final WellcaDashboardService wellcaDashboardService;
+    private final WellcaUpdateStream wellcaUpdateStream;
+    private final WellcaDataVersions dataVersions;
+    private final WellcaKeyRotationService keyRotationService;
+
+    public WellcaController(WellcaService wellcaService, WellcaImportService wellcaImportService,
+                            WellcaExportService wellcaExportService,
+                            WellcaDashboardService wellcaDashboardService,
+                            WellcaUpdateStream wellcaUpdateStream,
+                            WellcaDataVersions dataVersions,
+                            WellcaKeyRotationService keyRotationService) {
         this.wellcaService = wellcaService;
+        this.wellcaImportService = wellcaImportService;
+        this.wellcaExportService = wellcaExportService;
+        this.wellcaDashboardService = wellcaDashboardService;
+        this.wellcaUpdateStream = wellcaUpdateStream;
+        this.dataVersions = dataVersions;
+        this.keyRotationService = keyRotationService;
     }
 
     /**
@@ -92,6 +134,58 @@ public class WellcaController {
         }
     }
 
+    /**
+     * Bulk import entries from a CSV (with header row) or NDJSON upload.
+     * The body is streamed, so large back-loads never sit in memory.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importEntries(HttpServletRequest request) {
+        try {
+            MediaType contentType = MediaType.parseMediaType(request.getContentType());
+            logger.info("Starting Wellca bulk import ({})", contentType);
+            WellcaImportResult result = wellcaImportService.importEntries(request.getInputStream(), contentType);
+            if (result.getImported() == 0 && result.getRejected() > 0) {
+                return ResponseEntity.unprocessableEntity().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.error("Rejected Wellca import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            logger.error("Error reading Wellca import upload: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Could not read upload"));
+        } catch (Exception e) {
+            logger.error("Error importing Wellca entries: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to import entries"));
+        }
+    }
+
+    /**
+     * Progress of re-encrypting patient data under the current encryption key
+     */
+    @GetMapping("/encryption/rotation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<WellcaKeyRotationStatus> getKeyRotationStatus() {
+        return ResponseEntity.ok(keyRotationService.getStatus());
+    }
+
+    /**
+     * Start re-encrypting patient data under the current encryption key.
+     * Completed chunks are skipped, so this also resumes an interrupted run.
+     */
+    @PostMapping("/encryption/rotation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<WellcaKeyRotationStatus> startKeyRotation() {
+        if (!keyRotationService.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(keyRotationService.getStatus());
+        }
+        logger.info("Wellca key rotation started by administrator");
+        return ResponseEntity.accepted().body(keyRotationService.getStatus());
+    }
+
     /**
      * Get entry by date
      */
@@ -105,14 +199,19 @@ public class WellcaController {
     }
 
     /**
-     * Get entries within date range
+     * Get entries within date range.
+     * With a limit the response is a keyset page (items, nextCursor, hasNext);
+     * without one the whole range is returned as an array.
+     * Not transactional, so a 304 never checks out a database connection.
      */
     @GetMapping("/range")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<WellcaDTO>> getEntriesInRange(
+    public ResponseEntity<?> getEntriesInRange(
             @RequestParam(required = true) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = true) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = true) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
         
         logger.info("Fetching entries between {} and {}", startDate, endDate);
         
@@ -127,7 +226,25 @@ public class WellcaController {
             return ResponseEntity.badRequest().build();
         }
         
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            logger.error("Invalid page size: {}", limit);
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        
+        if (isNotModified(webRequest, startDate, endDate)) {
+            return null;
+        }
+        
         try {
+            if (limit != null) {
+                CursorPage<WellcaDTO> page = wellcaService
+                    .getEntriesPage(startDate, endDate, cursor, limit)
+                    .map(this::convertToDTO);
+                logger.debug("Found {} entries in page, hasNext={}", page.items().size(), page.hasNext());
+                return ResponseEntity.ok().cacheControl(REVALIDATE).body(page);
+            }
+            
             List<Wellca> entries = wellcaService.getEntriesInRange(startDate, endDate);
             logger.debug("Found {} entries in date range", entries.size());
             
@@ -135,7 +252,10 @@ public class WellcaController {
                 .map(this::convertToDTO)
                 .toList();
                 
-            return ResponseEntity.ok(dtos);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(dtos);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid range request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (DataAccessException e) {
             logger.error("Database error while fetching entries: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -148,6 +268,70 @@ public class WellcaController {
         }
     }
 
+    /**
+     * Export entries within a date range as CSV or NDJSON.
+     * Rows are streamed from a database cursor, so memory use is constant for any range.
+     * Invalid parameters throw IllegalArgumentException, which maps to 400.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportEntries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (endDate.isBefore(startDate)) {
+            logger.error("End date {} is before start date {}", endDate, startDate);
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+
+        WellcaExportService.Format exportFormat;
+        try {
+            exportFormat = WellcaExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+
+        String filename = "wellca-" + startDate + "_" + endDate + "." + exportFormat.getExtension()
+            + (gzip ? ".gz" : "");
+        StreamingResponseBody body = output ->
+            wellcaExportService.export(startDate, endDate, exportFormat, gzip, output);
+
+        logger.info("Exporting entries between {} and {} as {}", startDate, endDate, exportFormat);
+        return ResponseEntity.ok()
+            .contentType(gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
+    /**
+     * Get every dashboard part for the week, month and quarter of a date in one round trip.
+     * Parts that fail or time out come back as null and are listed under "errors".
+     */
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate referenceDate = date != null ? date : LocalDate.now();
+        logger.debug("Fetching dashboard for {}", referenceDate);
+        return ResponseEntity.ok(wellcaDashboardService.getDashboard(referenceDate));
+    }
+
+    /**
+     * Live stream of committed changes for open dashboards.
+     * Sends "wellca-update" per changed date, "wellca-range-changed" after bulk writes
+     * and "resync" when the client fell behind and should reload.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamUpdates() {
+        return wellcaUpdateStream.subscribe();
+    }
+
     /**
      * Get weekly statistics
      */
@@ -183,6 +367,20 @@ public class WellcaController {
         }
     }
 
+    /**
+     * Check a conditional GET against the data version of a date range.
+     * Sets ETag and Last-Modified on the response; when the client's copy is still
+     * current the status becomes 304 and the caller returns without computing a body.
+     * @param webRequest Current request
+     * @param from First date the response depends on
+     * @param to Last date the response depends on
+     * @return true if the response has been completed as 304 Not Modified
+     */
+    private boolean isNotModified(WebRequest webRequest, LocalDate from, LocalDate to) {
+        WellcaDataVersions.Version version = dataVersions.versionOf(from, to);
+        return webRequest.checkNotModified(version.etag(), version.lastModified());
+    }
+
     /**
      * Convert DTO to Entity
      */
@@ -292,6 +490,20 @@ public class WellcaController {
         return ResponseEntity.ok(details);
     }
 
+    /**
+     * Get a patient's professional service history, optionally by type and date range
+     */
+    @PostMapping("/patients/services/search")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<WellcaDTO>> searchPatientServices(@RequestBody WellcaPatientServiceQuery query) {
+        List<WellcaDTO> entries = wellcaService.getPatientServiceHistory(
+                query.patientName(), query.serviceType(), query.startDate(), query.endDate())
+            .stream()
+            .map(this::convertToDTO)
+            .toList();
+        return ResponseEntity.ok(entries);
+    }
+
     @GetMapping("/services/monthly-stats")
     public ResponseEntity<Map<String, Object>> getMonthlyServiceStats(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate yearMonth) {
@@ -308,7 +520,7 @@ public class WellcaController {
     @GetMapping("/monthly-chart-stats/{yearMonth}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<Map<String, Object>> getMonthlyChartStats(
-            @PathVariable String yearMonth) {
+            @PathVariable String yearMonth, WebRequest webRequest) {
         try {
             logger.debug("Fetching monthly chart stats for: {}", yearMonth);
             
@@ -327,8 +539,12 @@ public class WellcaController {
             LocalDate endDate = startDate.withDayOfMonth(
                 startDate.lengthOfMonth());
             
+            if (isNotModified(webRequest, startDate, endDate)) {
+                return null;
+            }
+            
             Map<String, Object> chartData = wellcaService.getMonthlyChartStats(startDate, endDate);
-            return ResponseEntity.ok(chartData);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(chartData);
             
         } catch (Exception e) {
             logger.error("Error fetching monthly chart stats: {}", e.getMessage(), e);
@@ -344,11 +560,16 @@ public class WellcaController {
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<Map<String, Object>> getQuarterlyChartStats(
             @PathVariable int year,
-            @PathVariable int quarter) {
+            @PathVariable int quarter,
+            WebRequest webRequest) {
         try {
             logger.debug("Fetching quarterly chart stats for Q{} {}", quarter, year);
+            WellcaChartRange range = WellcaChartRange.quarter(year, quarter);
+            if (isNotModified(webRequest, range.start(), range.lastDate())) {
+                return null;
+            }
             Map<String, Object> chartData = wellcaService.getQuarterlyChartStats(year, quarter);
-            return ResponseEntity.ok(chartData);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(chartData);
         } catch (IllegalArgumentException e) {
             logger.error("Invalid quarter value: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -366,7 +587,8 @@ public class WellcaController {
     public ResponseEntity<Map<String, Object>> getWeeklyChartStats(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "1") int page) {
+            @RequestParam(defaultValue = "1") int page,
+            WebRequest webRequest) {
         try {
             logger.debug("Fetching weekly chart stats for period {} to {}, page {}", 
                 startDate, endDate, page);
@@ -384,10 +606,14 @@ public class WellcaController {
                     .body(Map.of("error", "Invalid page number", "totalPages", totalPages));
             }
 
+            if (isNotModified(webRequest, startDate, endDate)) {
+                return null;
+            }
+
             Map<String, Object> chartData = wellcaService.getWeeklyChartStats(
                 startDate, endDate, page);
 
-            return ResponseEntity.ok(chartData);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(chartData);
 
         } catch (Exception e) {
             logger.error("Error fetching weekly chart stats: {}", e.getMessage(), e);
@@ -0,0 +1,24 @@
+package com.demoproject.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audit entry matched by a full-text search.
+ *
+ * @param id Entry id
+ * @param timestamp When the action happened
+ * @param performedBy Username of the performer
+ * @param category Action category
+ * @param action Description of the action
+ * @param details Additional context, may be null
+ * @param rank Relevance to the query; higher is better
+ */
+public record AuditSearchHit(
+        long id,
+        LocalDateTime timestamp,
+        String performedBy,
+        String category,
+        String action,
+        String details,
+        float rank) {
+}
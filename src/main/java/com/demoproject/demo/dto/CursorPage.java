@@ -0,0 +1,39 @@
+package com.demoproject.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Unlike Spring's Page there is no total
+ * count: the next page is requested with nextCursor, and every page costs the same
+ * regardless of how deep it is.
+ *
+ * @param items Rows on this page
+ * @param nextCursor Opaque cursor for the following page, or null on the last page
+ * @param hasNext Whether another page exists
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasNext) {
+
+    /**
+     * Build a page from a query that fetched up to limit + 1 rows.
+     * The extra row only signals that a next page exists and is dropped.
+     * @param fetched Rows returned by the keyset query
+     * @param limit Requested page size
+     * @param cursorOf Builds the cursor for a row
+     * @return The page
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, KeysetCursor> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null, false);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode(), true);
+    }
+
+    /**
+     * Convert the rows while keeping the paging state
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,75 @@
+package com.demoproject.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * NBA game with its status and score, as returned by the API's games endpoint
+ *
+ * @param id API game id
+ * @param season Season start year
+ * @param date Scheduled start and, once played, end of the game
+ * @param status Clock and progress
+ * @param periods Current and total periods
+ * @param teams Home and visiting teams
+ * @param scores Home and visiting scores
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NbaGame(int id, int season, Schedule date, Status status, Periods periods,
+                      Matchup<NbaTeam> teams, Matchup<Score> scores) {
+
+    /**
+     * @param start Scheduled start
+     * @param end End of the game, or null while not finished
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Schedule(Instant start, Instant end) {
+    }
+
+    /**
+     * @param clock Game clock, or null outside play
+     * @param halftime Whether the game is at halftime
+     * @param code 1 scheduled, 2 in play, 3 finished
+     * @param description Human-readable status, e.g. "Finished"
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Status(String clock, boolean halftime,
+                         @JsonProperty("short") int code,
+                         @JsonProperty("long") String description) {
+
+        /**
+         * @return true once the game is over and its data no longer changes
+         */
+        public boolean isFinished() {
+            return code == 3;
+        }
+    }
+
+    /**
+     * @param current Period being played
+     * @param total Periods played or scheduled
+     * @param endOfPeriod Whether the current period has ended
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Periods(int current, int total, boolean endOfPeriod) {
+    }
+
+    /**
+     * @param points Total points
+     * @param linescore Points per period
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Score(Integer points, List<String> linescore) {
+    }
+
+    /**
+     * @param home Home side
+     * @param visitors Visiting side
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Matchup<T>(T home, T visitors) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.demoproject.demo.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of fetching one game's box score in a batch
+ *
+ * @param gameId API game id
+ * @param statistics Box score lines, or null if the fetch failed
+ * @param error Reason the fetch failed, or null on success
+ */
+public record NbaGameStatisticsResult(int gameId, List<NbaPlayerStatistics> statistics, String error) {
+
+    public static NbaGameStatisticsResult success(int gameId, List<NbaPlayerStatistics> statistics) {
+        return new NbaGameStatisticsResult(gameId, statistics, null);
+    }
+
+    public static NbaGameStatisticsResult failure(int gameId, String error) {
+        return new NbaGameStatisticsResult(gameId, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package com.demoproject.demo.dto;
+
+import java.util.List;
+
+/**
+ * Full state of a live game, sent to a client when it joins the game's stream
+ *
+ * @param game The game with its status and score
+ * @param statistics Box score line of every player seen so far
+ */
+public record NbaLiveSnapshot(NbaGame game, List<NbaPlayerStatistics> statistics) {
+}
@@ -0,0 +1,59 @@
+package com.demoproject.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One player's box score line for a game, as returned by the API's player statistics endpoint.
+ * Field names follow the API; percentages and minutes arrive as strings.
+ *
+ * @param player The player
+ * @param team The player's team
+ * @param game The game
+ * @param points Points scored
+ * @param pos Position played
+ * @param min Minutes played
+ * @param fgm Field goals made
+ * @param fga Field goals attempted
+ * @param fgp Field goal percentage
+ * @param ftm Free throws made
+ * @param fta Free throws attempted
+ * @param ftp Free throw percentage
+ * @param tpm Three-pointers made
+ * @param tpa Three-pointers attempted
+ * @param tpp Three-point percentage
+ * @param offReb Offensive rebounds
+ * @param defReb Defensive rebounds
+ * @param totReb Total rebounds
+ * @param assists Assists
+ * @param pFouls Personal fouls
+ * @param steals Steals
+ * @param turnovers Turnovers
+ * @param blocks Blocks
+ * @param plusMinus Plus-minus, signed
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NbaPlayerStatistics(Player player, NbaTeam team, GameRef game,
+                                  Integer points, String pos, String min,
+                                  Integer fgm, Integer fga, String fgp,
+                                  Integer ftm, Integer fta, String ftp,
+                                  Integer tpm, Integer tpa, String tpp,
+                                  Integer offReb, Integer defReb, Integer totReb,
+                                  Integer assists, Integer pFouls, Integer steals,
+                                  Integer turnovers, Integer blocks, String plusMinus) {
+
+    /**
+     * @param id API player id
+     * @param firstname First name
+     * @param lastname Last name
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Player(int id, String firstname, String lastname) {
+    }
+
+    /**
+     * @param id API game id
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record GameRef(int id) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.demoproject.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * NBA team as referenced by games and player statistics
+ *
+ * @param id API team id
+ * @param name Full name, e.g. "Boston Celtics"
+ * @param nickname Short name, e.g. "Celtics"
+ * @param code Three-letter code
+ * @param logo Logo URL
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NbaTeam(int id, String name, String nickname, String code, String logo) {
+}
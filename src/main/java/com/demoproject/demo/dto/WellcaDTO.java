@@ -65,6 +65,8 @@ public class WellcaDTO {
     @Digits(integer = 8, fraction = 2, message = "Invalid currency format")
     private BigDecimal serviceCost;
 
+    // Keeps the AES-GCM ciphertext of any UTF-8 name within the 255-character column
+    @Size(max = 50, message = "Patient name must be at most 50 characters")
     private String patientName;
     private LocalDate patientDob;
     private String pharmacistName;
@@ -0,0 +1,37 @@
+package com.demoproject.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of the Wellca entries sharing a date and service type.
+ * Loaded without entities to seed and refresh the in-memory metric index.
+ *
+ * @param date Entry date
+ * @param serviceType Service type of the grouped entries, null for entries without a service
+ * @param entryCount Number of entries in the group
+ * @param costedCount Entries in the group that have a service cost
+ * @param serviceRevenue Sum of the group's service costs
+ */
+public record WellcaDailyMetrics(
+        LocalDate date,
+        String serviceType,
+        long purolator,
+        long fedex,
+        long oneCourier,
+        long goBolt,
+        long newRx,
+        long refill,
+        long reAuth,
+        long hold,
+        long profilesEntered,
+        long entryCount,
+        long costedCount,
+        BigDecimal serviceRevenue) {
+
+    public WellcaDailyMetrics {
+        if (serviceRevenue == null) {
+            serviceRevenue = BigDecimal.ZERO;
+        }
+    }
+}
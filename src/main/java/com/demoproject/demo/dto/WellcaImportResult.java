@@ -0,0 +1,77 @@
+package com.demoproject.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk Wellca import: how many rows were stored, which were already
+ * present, and why the others were rejected
+ */
+@Data
+@NoArgsConstructor
+public class WellcaImportResult {
+
+    /**
+     * Upper bound on reported row errors so a badly formatted file cannot exhaust memory
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long imported;
+    private long rejected;
+    private long skipped;
+    private LocalDate earliestDate;
+    private LocalDate latestDate;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+    private List<Long> skippedIds = new ArrayList<>();
+
+    /**
+     * Record a rejected row
+     * @param line 1-based line number in the uploaded file
+     * @param messages Validation or parse failures for the row
+     */
+    public void reject(long line, List<String> messages) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, messages));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    /**
+     * Record a row left out because an entry with its id already exists
+     * @param id Id column of the row
+     */
+    public void skip(long id) {
+        skipped++;
+        if (skippedIds.size() < MAX_REPORTED_ERRORS) {
+            skippedIds.add(id);
+        }
+    }
+
+    /**
+     * Widen the imported date range to include a date
+     */
+    public void includeDate(LocalDate date) {
+        if (earliestDate == null || date.isBefore(earliestDate)) {
+            earliestDate = date;
+        }
+        if (latestDate == null || date.isAfter(latestDate)) {
+            latestDate = date;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private List<String> messages;
+    }
+}
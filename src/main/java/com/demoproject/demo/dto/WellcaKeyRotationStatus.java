@@ -0,0 +1,26 @@
+package com.demoproject.demo.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of re-encrypting Wellca patient data under the primary key.
+ *
+ * @param keyId Fingerprint of the primary key rows are moved to
+ * @param running Whether this instance is currently working on the rotation
+ * @param totalChunks Id-range chunks planned for this key
+ * @param completedChunks Chunks already re-encrypted and checkpointed
+ * @param rowsReencrypted Rows rewritten across all runs for this key
+ * @param rowsFailed Rows set aside in wellca_key_rotation_failures because they could not be decrypted or rewritten
+ * @param startedAt When this instance last started a run, or null
+ * @param finishedAt When that run finished, or null while running or never run
+ */
+public record WellcaKeyRotationStatus(
+        String keyId,
+        boolean running,
+        long totalChunks,
+        long completedChunks,
+        long rowsReencrypted,
+        long rowsFailed,
+        Instant startedAt,
+        Instant finishedAt) {
+}
@@ -0,0 +1,16 @@
+package com.demoproject.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Lookup of a patient's professional service history.
+ * Sent as a request body so the patient name never appears in URLs or access logs.
+ *
+ * @param patientName Patient name to match; case and spacing are ignored
+ * @param serviceType Service type to match, or null for all
+ * @param startDate Start of the date range, or null
+ * @param endDate End of the date range, or null
+ */
+public record WellcaPatientServiceQuery(String patientName, String serviceType,
+                                        LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,42 @@
+package com.demoproject.demo.dto;
+
+import com.demoproject.demo.entity.WellcaRollup;
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Headline totals of one rollup bucket, as pushed to live dashboards.
+ *
+ * @param granularity Bucket size
+ * @param periodStart First day of the bucket
+ * @param totalDeliveries Deliveries across all couriers
+ * @param totalRx New, refill and re-authorized prescriptions
+ * @param profilesEntered Profiles entered
+ * @param serviceCount Entries with a professional service
+ * @param serviceRevenue Sum of service costs
+ * @param entryCount Number of entries
+ */
+public record WellcaPeriodTotals(
+        Granularity granularity,
+        LocalDate periodStart,
+        long totalDeliveries,
+        long totalRx,
+        long profilesEntered,
+        long serviceCount,
+        BigDecimal serviceRevenue,
+        long entryCount) {
+
+    public static WellcaPeriodTotals of(WellcaRollup rollup) {
+        return new WellcaPeriodTotals(
+            rollup.getGranularity(),
+            rollup.getPeriodStart(),
+            rollup.getTotalDeliveries(),
+            rollup.getTotalRx(),
+            rollup.getProfilesEntered(),
+            rollup.getServiceCount(),
+            rollup.getServiceRevenue(),
+            rollup.getEntryCount());
+    }
+}
@@ -0,0 +1,86 @@
+package com.demoproject.demo.dto;
+
+import com.demoproject.demo.entity.Wellca;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Contribution of one or more wellca_entries rows to the rollup totals of a single date.
+ * Saving an entry adds its delta, deleting it adds the negated delta.
+ */
+public record WellcaRollupDelta(
+        LocalDate date,
+        long purolator,
+        long fedex,
+        long oneCourier,
+        long goBolt,
+        long newRx,
+        long refill,
+        long reAuth,
+        long hold,
+        long profilesEntered,
+        long serviceCount,
+        BigDecimal serviceRevenue,
+        long entryCount) {
+
+    /**
+     * Snapshot the metrics of an entry
+     * @param entry The entry to snapshot
+     * @return Delta representing the entry's contribution
+     */
+    public static WellcaRollupDelta of(Wellca entry) {
+        boolean hasService = entry.getServiceType() != null;
+        return new WellcaRollupDelta(
+            entry.getDate(),
+            valueOf(entry.getPurolator()),
+            valueOf(entry.getFedex()),
+            valueOf(entry.getOneCourier()),
+            valueOf(entry.getGoBolt()),
+            valueOf(entry.getNewRx()),
+            valueOf(entry.getRefill()),
+            valueOf(entry.getReAuth()),
+            valueOf(entry.getHold()),
+            valueOf(entry.getProfilesEntered()),
+            hasService ? 1 : 0,
+            hasService && entry.getServiceCost() != null ? entry.getServiceCost() : BigDecimal.ZERO,
+            1);
+    }
+
+    /**
+     * @return Delta that removes this contribution
+     */
+    public WellcaRollupDelta negate() {
+        return new WellcaRollupDelta(date, -purolator, -fedex, -oneCourier, -goBolt,
+            -newRx, -refill, -reAuth, -hold, -profilesEntered,
+            -serviceCount, serviceRevenue.negate(), -entryCount);
+    }
+
+    /**
+     * Combine two deltas for the same date
+     * @param other Delta to add
+     * @return Sum of both deltas
+     */
+    public WellcaRollupDelta plus(WellcaRollupDelta other) {
+        if (!date.equals(other.date)) {
+            throw new IllegalArgumentException("Cannot combine deltas for different dates");
+        }
+        return new WellcaRollupDelta(date,
+            purolator + other.purolator,
+            fedex + other.fedex,
+            oneCourier + other.oneCourier,
+            goBolt + other.goBolt,
+            newRx + other.newRx,
+            refill + other.refill,
+            reAuth + other.reAuth,
+            hold + other.hold,
+            profilesEntered + other.profilesEntered,
+            serviceCount + other.serviceCount,
+            serviceRevenue.add(other.serviceRevenue),
+            entryCount + other.entryCount);
+    }
+
+    private static long valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.demoproject.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-service-type totals for a period, projected without loading Wellca entities
+ *
+ * @param serviceType Service type name
+ * @param count Number of services of this type
+ * @param revenue Sum of their service costs
+ */
+public record WellcaServiceMetrics(String serviceType, long count, BigDecimal revenue) {
+}
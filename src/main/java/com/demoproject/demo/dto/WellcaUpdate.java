@@ -0,0 +1,14 @@
+package com.demoproject.demo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compact change notice pushed to live dashboards after a write commits.
+ *
+ * @param date The date that changed
+ * @param delta Net change applied to the date's totals
+ * @param periods Recomputed day, week and month totals containing the date
+ */
+public record WellcaUpdate(LocalDate date, WellcaRollupDelta delta, List<WellcaPeriodTotals> periods) {
+}
@@ -0,0 +1,12 @@
+package com.demoproject.demo.dto;
+
+/**
+ * Aggregate-only projection of Wellca entries for the weekly statistics view.
+ * Computed in the database, so no entity or patient data is loaded.
+ *
+ * @param entriesCount Number of entries in the period
+ * @param averageProfilesEntered Mean profiles entered per entry, null when there are no entries
+ * @param totalRxFilled New, refill and re-authorized prescriptions, null when there are no entries
+ */
+public record WellcaWeeklyMetrics(long entriesCount, Double averageProfilesEntered, Long totalRxFilled) {
+}
@@ -20,6 +20,8 @@ import java.time.temporal.ChronoUnit;
  * - Timestamps truncated to seconds
  * - Immutable after creation
  * - Requires admin access for viewing
+ * - Table is partitioned by month; AuditLogPartitionManager owns its DDL,
+ *   including the index and foreign key Hibernate cannot see on it
  * -------------------------------------------------------------------------- */
 @Entity
 @Table(name = "audit_logs")
@@ -77,7 +79,7 @@ public class AuditLog {
      * @note Uses lazy fetching for performance
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
 
     /* .... Lifecycle Hooks .... */
@@ -108,8 +110,6 @@ public class AuditLog {
     }
 
     /* @todo [FEATURE] Add action type enumeration
-     * @todo [PERF] Add indexes for frequent queries
-     * @todo [CLEANUP] Implement log rotation/archiving
      * @todo [SECURITY] Add encryption for sensitive details
      */
 }
@@ -2,22 +2,35 @@ package com.demoproject.demo.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import com.demoproject.demo.config.AttributeEncryptor;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Entity representing daily pharmacy operations and metrics tracking.
  * Stores delivery counts, prescription statistics, and professional services data.
  *
  * @Entity Maps this class to the wellca_entries database table
- * @Table Specifies the table name as "wellca_entries"
+ * @Table Specifies the table name as "wellca_entries", the (date, id) keyset index
+ *        and the patient lookup index
+ * @EntityListeners WellcaPatientNameListener encrypts and decrypts the patient name
  * @Data Lombok annotation for getters, setters, equals, hashCode and toString
  */
 @Entity
-@Table(name = "wellca_entries")
+@Table(name = "wellca_entries", indexes = {
+    @Index(name = "idx_wellca_entries_date_id", columnList = "date, id"),
+    @Index(name = "idx_wellca_entries_patient_bidx_date", columnList = "patient_name_bidx, date")
+})
+@EntityListeners(WellcaPatientNameListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -202,10 +215,76 @@ public class Wellca {
         this.serviceCost = serviceCost;
     }
 
+    /**
+     * Encrypted patient name as stored in the database.
+     * Aggregate views never touch it, so they never pay for decryption.
+     */
     @Column(name = "patient_name")
-    @Convert(converter = AttributeEncryptor.class)  // For encryption
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String patientNameCipher;
+
+    /**
+     * Blind index of the patient name, so a patient's entries can be found
+     * without decrypting every row. Kept in sync with the name by WellcaPatientNameListener.
+     */
+    @Column(name = "patient_name_bidx", length = 64)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String patientNameIndex;
+
+    /**
+     * Patient name set on this instance, before it is encrypted or on entries
+     * not loaded through JPA
+     */
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String patientName;
 
+    /**
+     * A plain-text name together with the ciphertext it belongs to
+     */
+    private record DecryptedPatientName(String cipher, String name) {
+    }
+
+    /**
+     * Last decrypted or encrypted name. Cached entries are read by many threads at
+     * once, so the pair is replaced as a whole through a volatile field and a reader
+     * never sees a name that does not belong to the ciphertext.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile DecryptedPatientName decryptedPatientName;
+
+    /**
+     * Set by WellcaPatientNameListener when the entry is loaded
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private UnaryOperator<String> patientNameDecryptor;
+
+    /**
+     * Whether setPatientName was called since the name was last encrypted
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean patientNamePending;
+
     @Column(name = "patient_dob")
     private LocalDate patientDob;
 
@@ -213,12 +292,64 @@ public class Wellca {
     private String pharmacistName;
 
     // Add getters and setters
+    /**
+     * Decrypts the stored patient name the first time it is requested, and again
+     * whenever the stored ciphertext has changed since
+     * @return Plain-text patient name, or null if none is stored or the entry was
+     *         not loaded through JPA
+     */
     public String getPatientName() {
-        return patientName;
+        if (patientNamePending) {
+            return patientName;
+        }
+        String cipher = patientNameCipher;
+        DecryptedPatientName decrypted = decryptedPatientName;
+        if (decrypted != null && Objects.equals(decrypted.cipher(), cipher)) {
+            return decrypted.name();
+        }
+        if (patientNameDecryptor == null) {
+            return patientName;
+        }
+        // Concurrent first reads may both decrypt; they store equal pairs
+        decrypted = new DecryptedPatientName(cipher, cipher != null ? patientNameDecryptor.apply(cipher) : null);
+        decryptedPatientName = decrypted;
+        return decrypted.name();
     }
 
+    /**
+     * Sets the patient name. The encrypted and indexed columns are updated when the
+     * entry is saved, by WellcaPatientNameListener.
+     */
     public void setPatientName(String patientName) {
         this.patientName = patientName;
+        this.patientNamePending = true;
+    }
+
+    /**
+     * @return true if the patient name was set and not yet encrypted
+     */
+    public boolean isPatientNamePending() {
+        return patientNamePending;
+    }
+
+    /**
+     * Stores the encrypted form and blind index of the current patient name
+     * @param cipher Ciphertext of getPatientName()
+     * @param index Blind index of getPatientName()
+     */
+    public void storeEncryptedPatientName(String cipher, String index) {
+        this.patientNameCipher = cipher;
+        this.patientNameIndex = index;
+        this.decryptedPatientName = new DecryptedPatientName(cipher, patientName);
+        this.patientNamePending = false;
+    }
+
+    /**
+     * Lets getPatientName decrypt the stored name on first access
+     * @param decryptor Turns the stored ciphertext into the plain-text name
+     */
+    public void decryptPatientNameWith(UnaryOperator<String> decryptor) {
+        this.patientNameDecryptor = decryptor;
     }
 
     public LocalDate getPatientDob() {
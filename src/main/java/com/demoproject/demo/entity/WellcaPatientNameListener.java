@@ -0,0 +1,46 @@
+package com.demoproject.demo.entity;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encrypts and indexes a Wellca entry's patient name when it is saved, and lets a
+ * loaded entry decrypt its name on first access, so views that never show the
+ * name never pay for decryption.
+ * Hibernate obtains this listener from the Spring context, so the encryptor is injected.
+ */
+@Component
+public class WellcaPatientNameListener {
+
+    private final AttributeEncryptor encryptor;
+
+    public WellcaPatientNameListener(AttributeEncryptor encryptor) {
+        this.encryptor = encryptor;
+    }
+
+    @PostLoad
+    public void attachDecryptor(Wellca entry) {
+        entry.decryptPatientNameWith(encryptor::convertToEntityAttribute);
+    }
+
+    /**
+     * Encrypt and index a name set since the last save. Runs before persist and update,
+     * and must be called directly before merging a detached entry, because merge only
+     * copies persistent columns.
+     * @param entry Entry to update
+     */
+    @PrePersist
+    @PreUpdate
+    public void encryptPatientName(Wellca entry) {
+        if (!entry.isPatientNamePending()) {
+            return;
+        }
+        String patientName = entry.getPatientName();
+        entry.storeEncryptedPatientName(
+            patientName != null ? encryptor.convertToDatabaseColumn(patientName) : null,
+            encryptor.blindIndex(patientName));
+    }
+}
@@ -0,0 +1,142 @@
+package com.demoproject.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Pre-aggregated Wellca totals for a single day, ISO week or month.
+ * Maintained incrementally by WellcaRollupService whenever an entry is
+ * saved or deleted, so chart queries never have to scan wellca_entries.
+ *
+ * @Entity Maps this class to the wellca_rollups database table
+ * @Table One row per (granularity, period_start) bucket
+ */
+@Entity
+@Table(name = "wellca_rollups",
+       uniqueConstraints = @UniqueConstraint(
+           name = "uk_wellca_rollups_bucket",
+           columnNames = {"granularity", "period_start"}))
+@Data
+@NoArgsConstructor
+public class WellcaRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Size of the bucket this row summarizes
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    /**
+     * First day of the bucket (the day itself, the ISO week's Monday or the 1st of the month)
+     */
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    /* ========== Delivery Totals ========== */
+
+    private long purolator;
+
+    private long fedex;
+
+    private long oneCourier;
+
+    private long goBolt;
+
+    /* ========== RX Totals ========== */
+
+    private long newRx;
+
+    private long refill;
+
+    private long reAuth;
+
+    private long hold;
+
+    private long profilesEntered;
+
+    /* ========== Service Totals ========== */
+
+    /**
+     * Number of entries carrying a professional service
+     */
+    private long serviceCount;
+
+    /**
+     * Sum of service costs for the bucket
+     */
+    @Column(name = "service_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal serviceRevenue = BigDecimal.ZERO;
+
+    /**
+     * Number of wellca_entries rows folded into this bucket
+     */
+    private long entryCount;
+
+    /* ========== Calculated Fields ========== */
+
+    @Transient
+    public long getTotalDeliveries() {
+        return purolator + fedex + oneCourier + goBolt;
+    }
+
+    @Transient
+    public long getTotalRx() {
+        return newRx + refill + reAuth;
+    }
+
+    /**
+     * Supported bucket sizes
+     */
+    public enum Granularity {
+        DAY("day"),
+        WEEK("week"),
+        MONTH("month");
+
+        private final String truncUnit;
+
+        Granularity(String truncUnit) {
+            this.truncUnit = truncUnit;
+        }
+
+        /**
+         * @return The PostgreSQL date_trunc unit matching this bucket size
+         */
+        public String getTruncUnit() {
+            return truncUnit;
+        }
+
+        /**
+         * @param date Any date
+         * @return First day of the bucket containing the date
+         */
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * @param bucketStart First day of a bucket
+         * @return First day of the following bucket
+         */
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+}
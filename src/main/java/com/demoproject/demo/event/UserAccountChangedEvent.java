@@ -0,0 +1,10 @@
+package com.demoproject.demo.event;
+
+/**
+ * Published whenever a user's password, role or existence changes.
+ * Listeners bound to the commit phase see only changes that actually reached the database.
+ *
+ * @param username Account that changed
+ */
+public record UserAccountChangedEvent(String username) {
+}
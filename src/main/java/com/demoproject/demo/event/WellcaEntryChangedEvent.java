@@ -0,0 +1,59 @@
+package com.demoproject.demo.event;
+
+import com.demoproject.demo.dto.WellcaRollupDelta;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Published whenever Wellca entries are written or deleted.
+ * Listeners bound to the commit phase see only changes that actually reached the database.
+ *
+ * @param startDate First affected date
+ * @param endDate Last affected date
+ * @param deltas Per-date changes in totals; empty when only the range is known (bulk writes)
+ */
+public record WellcaEntryChangedEvent(LocalDate startDate, LocalDate endDate, List<WellcaRollupDelta> deltas) {
+
+    /**
+     * Event for individual writes with known deltas
+     * @param deltas Non-empty list of applied deltas
+     * @return Event covering the dates of the deltas
+     */
+    public static WellcaEntryChangedEvent of(List<WellcaRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            throw new IllegalArgumentException("At least one delta is required");
+        }
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        deltas.forEach(delta -> dates.add(delta.date()));
+        return new WellcaEntryChangedEvent(dates.first(), dates.last(), List.copyOf(deltas));
+    }
+
+    /**
+     * Event for bulk writes where only the affected range is known
+     * @param startDate First affected date
+     * @param endDate Last affected date
+     * @return Event covering the range
+     */
+    public static WellcaEntryChangedEvent ofRange(LocalDate startDate, LocalDate endDate) {
+        return new WellcaEntryChangedEvent(startDate, endDate, List.of());
+    }
+
+    /**
+     * @return true when the change is described by per-date deltas
+     */
+    public boolean hasDeltas() {
+        return !deltas.isEmpty();
+    }
+
+    /**
+     * @return The individual dates touched, or empty for range-only events
+     */
+    public Set<LocalDate> affectedDates() {
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        deltas.forEach(delta -> dates.add(delta.date()));
+        return dates;
+    }
+}
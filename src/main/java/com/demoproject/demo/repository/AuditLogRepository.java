@@ -4,6 +4,7 @@ import com.demoproject.demo.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +28,33 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     @Query("SELECT a FROM AuditLog a ORDER BY a.timestamp DESC")
     Page<AuditLog> getAll(Pageable pageable);
 
+    /**
+     * Retrieves the newest audit logs for the first keyset page
+     * 
+     * @param limit Maximum number of records
+     * @returns List<AuditLog> - Newest first, ties broken by id
+     */
+    @Query("SELECT a FROM AuditLog a ORDER BY a.timestamp DESC, a.id DESC LIMIT :limit")
+    List<AuditLog> findFirstPage(@Param("limit") int limit);
+
+    /**
+     * Retrieves the audit logs that sort after a keyset position
+     * 
+     * @param timestamp Timestamp of the last row already shown
+     * @param id Id of the last row already shown
+     * @param limit Maximum number of records
+     * @returns List<AuditLog> - Older entries, newest first
+     * @note Seeks on idx_audit_logs_timestamp_id, so cost is independent of page depth
+     */
+    @Query("SELECT a FROM AuditLog a " +
+           "WHERE a.timestamp <= :timestamp AND (a.timestamp < :timestamp OR a.id < :id) " +
+           "ORDER BY a.timestamp DESC, a.id DESC LIMIT :limit")
+    List<AuditLog> findPageAfter(
+        @Param("timestamp") LocalDateTime timestamp,
+        @Param("id") long id,
+        @Param("limit") int limit
+    );
+
     /**
      * Finds audit logs for specific user
      * 
@@ -74,15 +102,22 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         @Param("limit") int limit
     );
 
+    /**
+     * Removes every audit log entry
+     * 
+     * @note TRUNCATE empties all partitions without scanning rows
+     */
+    @Modifying
+    @Query(value = "TRUNCATE TABLE audit_logs", nativeQuery = true)
+    void truncate();
+
     /* -----------------------------------------------------------------------------
      * Future Enhancements
      * -------------------------------------------------------------------------- */
 
     /* @todo Implementation needs:
-     * - Add full-text search capabilities
-     * - Implement audit log archiving
      * - Add aggregation queries for reporting
      * - Consider adding custom projections
-     * - Add support for audit log rotation
+     * @note Full-text search lives in AuditLogSearchService
      */
 }
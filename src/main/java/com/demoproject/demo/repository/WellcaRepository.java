@@ -1,19 +1,38 @@
 package com.demoproject.demo.repository;
 
+import com.demoproject.demo.dto.WellcaDailyMetrics;
+import com.demoproject.demo.dto.WellcaServiceMetrics;
+import com.demoproject.demo.dto.WellcaWeeklyMetrics;
 import com.demoproject.demo.entity.Wellca;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WellcaRepository extends JpaRepository<Wellca, Long> {
     
+    /**
+     * Find an entry and lock its row until the transaction ends (SELECT ... FOR UPDATE),
+     * so concurrent writers of the same entry see each other's result instead of the
+     * same previous state
+     * @param id Entry ID
+     * @return Optional containing the locked entry if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wellca w WHERE w.id = :id")
+    Optional<Wellca> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Find entry by date
      * @param date The date to search for
@@ -30,13 +49,99 @@ public interface WellcaRepository extends JpaRepository<Wellca, Long> {
     List<Wellca> findByDateBetweenOrderByDateAsc(LocalDate startDate, LocalDate endDate);
 
     /**
-     * Get weekly aggregated data
+     * Find one keyset page of entries within a date range.
+     * Rows after (afterDate, afterId) are returned, so passing the range start
+     * and id 0 yields the first page.
+     * @param startDate Start of the date range
+     * @param endDate End of the date range
+     * @param afterDate Date of the last row already returned
+     * @param afterId Id of the last row already returned
+     * @param limit Maximum number of rows
+     * @return Entries ordered by date and id
+     */
+    @Query("SELECT w FROM Wellca w " +
+           "WHERE w.date >= :afterDate AND w.date <= :endDate AND w.date >= :startDate " +
+           "AND (w.date > :afterDate OR w.id > :afterId) " +
+           "ORDER BY w.date, w.id LIMIT :limit")
+    List<Wellca> findPageAfter(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Stream entries within a date range through a forward-only cursor.
+     * Must be consumed inside a transaction; callers should detach each row
+     * so the persistence context does not grow with the range.
+     * @param startDate Start of the date range
+     * @param endDate End of the date range
+     * @return Entries ordered by date and id
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT w FROM Wellca w WHERE w.date >= :startDate AND w.date <= :endDate ORDER BY w.date, w.id")
+    Stream<Wellca> streamByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get weekly aggregated metrics without loading entities
      * @param startDate Beginning of the week
      * @param endDate End of the week
-     * @return List of entries for the week
+     * @return Entry count, average profiles entered and total RX filled
      */
-    @Query("SELECT w FROM Wellca w WHERE w.date >= :startDate AND w.date <= :endDate ORDER BY w.date")
-    List<Wellca> findWeeklyData(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT NEW com.demoproject.demo.dto.WellcaWeeklyMetrics(COUNT(w), " +
+           "AVG(COALESCE(w.profilesEntered, 0)), " +
+           "SUM(COALESCE(w.newRx, 0) + COALESCE(w.refill, 0) + COALESCE(w.reAuth, 0))) " +
+           "FROM Wellca w WHERE w.date >= :startDate AND w.date <= :endDate")
+    WellcaWeeklyMetrics getWeeklyMetrics(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get per-service-type counts and revenue without loading entities
+     * @param startDate Beginning of period
+     * @param endDate End of period
+     * @return One row per service type that has a cost
+     */
+    @Query("SELECT NEW com.demoproject.demo.dto.WellcaServiceMetrics(w.serviceType, COUNT(w), SUM(w.serviceCost)) " +
+           "FROM Wellca w " +
+           "WHERE w.date BETWEEN :startDate AND :endDate " +
+           "AND w.serviceType IS NOT NULL AND w.serviceCost IS NOT NULL " +
+           "GROUP BY w.serviceType")
+    List<WellcaServiceMetrics> getServiceMetrics(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Get per-date, per-service-type totals within a date range
+     * @param startDate Start of the date range
+     * @param endDate End of the date range
+     * @return One row per date and service type
+     */
+    @Query("SELECT NEW com.demoproject.demo.dto.WellcaDailyMetrics(w.date, w.serviceType, " +
+           "SUM(COALESCE(w.purolator, 0)), SUM(COALESCE(w.fedex, 0)), " +
+           "SUM(COALESCE(w.oneCourier, 0)), SUM(COALESCE(w.goBolt, 0)), " +
+           "SUM(COALESCE(w.newRx, 0)), SUM(COALESCE(w.refill, 0)), " +
+           "SUM(COALESCE(w.reAuth, 0)), SUM(COALESCE(w.hold, 0)), " +
+           "SUM(COALESCE(w.profilesEntered, 0)), COUNT(w), COUNT(w.serviceCost), SUM(w.serviceCost)) " +
+           "FROM Wellca w " +
+           "WHERE w.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY w.date, w.serviceType")
+    List<WellcaDailyMetrics> getDailyMetrics(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Count entries within a date range
+     * @param startDate Start of the date range
+     * @param endDate End of the date range
+     * @return Number of entries
+     */
+    long countByDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
      * Calculate monthly delivery counts
@@ -95,66 +200,38 @@ public interface WellcaRepository extends JpaRepository<Wellca, Long> {
     );
 
     /**
-     * Get comprehensive monthly statistics for charts
-     * @param startDate Start of the month
-     * @param endDate End of the month
-     * @return Monthly aggregated data for charts
-     */
-    @Query(value = "SELECT /*+ INDEX(w date_idx) */ " +
-           "w.date as date, " +
-           "SUM(w.purolator + w.fedex + w.oneCourier + w.goBolt) as totalDeliveries, " +
-           "SUM(w.newRx + w.refill + w.reAuth) as totalRx, " +
-           "COUNT(CASE WHEN w.serviceType IS NOT NULL THEN 1 END) as totalServices " +
-           "FROM wellca_entries w " +
-           "WHERE w.date BETWEEN :startDate AND :endDate " +
-           "GROUP BY w.date " +
-           "ORDER BY w.date",
-           nativeQuery = true)
-    List<Map<String, Object>> getMonthlyChartStats(
-        @Param("startDate") LocalDate startDate, 
+     * Find a patient's professional service entries through the blind index
+     * @param patientIndexes Blind indexes of the patient name under every known key
+     * @param serviceType Service type to match, or null for all
+     * @param startDate Start of the date range, or null for no lower bound
+     * @param endDate End of the date range, or null for no upper bound
+     * @return Matching entries, newest first
+     */
+    @Query("SELECT w FROM Wellca w " +
+           "WHERE w.patientNameIndex IN :patientIndexes AND w.serviceType IS NOT NULL " +
+           // Casts give the driver a type for the optional parameters
+           "AND (CAST(:serviceType AS String) IS NULL OR w.serviceType = :serviceType) " +
+           "AND (CAST(:startDate AS LocalDate) IS NULL OR w.date >= :startDate) " +
+           "AND (CAST(:endDate AS LocalDate) IS NULL OR w.date <= :endDate) " +
+           "ORDER BY w.date DESC, w.id DESC")
+    List<Wellca> findPatientServices(
+        @Param("patientIndexes") List<String> patientIndexes,
+        @Param("serviceType") String serviceType,
+        @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
 
     /**
-     * Get quarterly statistics for charts
-     * @param year The year
-     * @param quarter The quarter (1-4)
-     * @return Quarterly aggregated data for charts
-     */
-    @Query(value = "SELECT /*+ INDEX(w date_idx) */ " +
-           "MONTH(w.date) as month, " +
-           "SUM(w.purolator + w.fedex + w.oneCourier + w.goBolt) as totalDeliveries, " +
-           "SUM(w.newRx + w.refill + w.reAuth) as totalRx, " +
-           "COUNT(CASE WHEN w.serviceType IS NOT NULL THEN 1 END) as totalServices " +
-           "FROM wellca_entries w " +
-           "WHERE YEAR(w.date) = :year " +
-           "AND QUARTER(w.date) = :quarter " +
-           "GROUP BY MONTH(w.date) " +
-           "ORDER BY month",
-           nativeQuery = true)
-    List<Map<String, Object>> getQuarterlyChartStats(
-        @Param("year") int year,
-        @Param("quarter") int quarter
-    );
+     * Get the earliest entry date
+     * @return Optional containing the first date with data
+     */
+    @Query("SELECT MIN(w.date) FROM Wellca w")
+    Optional<LocalDate> findEarliestDate();
 
     /**
-     * Get weekly statistics for charts with progressive loading
-     * @param startDate Start of the week
-     * @param endDate End of the week
-     * @return Weekly aggregated data for charts
-     */
-    @Query(value = "SELECT /*+ INDEX(w date_idx) */ " +
-           "MAX(w.date) as weekEndDate, " +
-           "SUM(w.purolator + w.fedex + w.oneCourier + w.goBolt) as totalDeliveries, " +
-           "SUM(w.newRx + w.refill + w.reAuth) as totalRx, " +
-           "COUNT(CASE WHEN w.serviceType IS NOT NULL THEN 1 END) as totalServices " +
-           "FROM wellca_entries w " +
-           "WHERE w.date BETWEEN :startDate AND :endDate " +
-           "GROUP BY YEARWEEK(w.date) " +
-           "ORDER BY weekEndDate",
-           nativeQuery = true)
-    List<Map<String, Object>> getWeeklyChartStats(
-        @Param("startDate") LocalDate startDate, 
-        @Param("endDate") LocalDate endDate
-    );
+     * Get the latest entry date
+     * @return Optional containing the last date with data
+     */
+    @Query("SELECT MAX(w.date) FROM Wellca w")
+    Optional<LocalDate> findLatestDate();
 }
@@ -0,0 +1,128 @@
+package com.demoproject.demo.repository;
+
+import com.demoproject.demo.dto.WellcaRollupDelta;
+import com.demoproject.demo.entity.WellcaRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WellcaRollupRepository extends JpaRepository<WellcaRollup, Long> {
+
+    /**
+     * Get one row per bucket in a half-open range, including buckets with no entries.
+     * generate_series produces the bucket starts and empty buckets come back as zeros.
+     * Columns: period_start, purolator, fedex, one_courier, go_bolt, new_rx, refill,
+     * re_auth, hold, profiles_entered, service_count, service_revenue, entry_count.
+     * @param granularity Bucket size name
+     * @param truncUnit date_trunc unit matching the granularity, used as the series step
+     * @param startDate First bucket start (inclusive, aligned)
+     * @param endDate Range end (exclusive, aligned)
+     * @return One row per bucket ordered by period start
+     */
+    @Query(value = "SELECT CAST(b.bucket AS date) AS period_start, " +
+           "COALESCE(r.purolator, 0), COALESCE(r.fedex, 0), COALESCE(r.one_courier, 0), COALESCE(r.go_bolt, 0), " +
+           "COALESCE(r.new_rx, 0), COALESCE(r.refill, 0), COALESCE(r.re_auth, 0), COALESCE(r.hold, 0), " +
+           "COALESCE(r.profiles_entered, 0), COALESCE(r.service_count, 0), " +
+           "COALESCE(r.service_revenue, 0), COALESCE(r.entry_count, 0) " +
+           "FROM generate_series(CAST(:startDate AS timestamp), " +
+           "CAST(:endDate AS timestamp) - CAST('1 day' AS interval), " +
+           "CAST(CONCAT('1 ', :truncUnit) AS interval)) AS b(bucket) " +
+           "LEFT JOIN wellca_rollups r " +
+           "ON r.granularity = :granularity AND r.period_start = CAST(b.bucket AS date) " +
+           "ORDER BY b.bucket",
+           nativeQuery = true)
+    List<Object[]> findFilledSeries(
+        @Param("granularity") String granularity,
+        @Param("truncUnit") String truncUnit,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Add a delta to a bucket, creating the bucket if it does not exist yet.
+     * Runs as a single atomic upsert so concurrent writers never lose updates.
+     * @param granularity Bucket size name
+     * @param periodStart First day of the bucket
+     * @param delta Totals to add (negative to subtract)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wellca_rollups (granularity, period_start, purolator, fedex, one_courier, go_bolt, " +
+           "new_rx, refill, re_auth, hold, profiles_entered, service_count, service_revenue, entry_count) " +
+           "VALUES (:granularity, :periodStart, :#{#delta.purolator()}, :#{#delta.fedex()}, " +
+           ":#{#delta.oneCourier()}, :#{#delta.goBolt()}, :#{#delta.newRx()}, :#{#delta.refill()}, " +
+           ":#{#delta.reAuth()}, :#{#delta.hold()}, :#{#delta.profilesEntered()}, " +
+           ":#{#delta.serviceCount()}, :#{#delta.serviceRevenue()}, :#{#delta.entryCount()}) " +
+           "ON CONFLICT (granularity, period_start) DO UPDATE SET " +
+           "purolator = wellca_rollups.purolator + EXCLUDED.purolator, " +
+           "fedex = wellca_rollups.fedex + EXCLUDED.fedex, " +
+           "one_courier = wellca_rollups.one_courier + EXCLUDED.one_courier, " +
+           "go_bolt = wellca_rollups.go_bolt + EXCLUDED.go_bolt, " +
+           "new_rx = wellca_rollups.new_rx + EXCLUDED.new_rx, " +
+           "refill = wellca_rollups.refill + EXCLUDED.refill, " +
+           "re_auth = wellca_rollups.re_auth + EXCLUDED.re_auth, " +
+           "hold = wellca_rollups.hold + EXCLUDED.hold, " +
+           "profiles_entered = wellca_rollups.profiles_entered + EXCLUDED.profiles_entered, " +
+           "service_count = wellca_rollups.service_count + EXCLUDED.service_count, " +
+           "service_revenue = wellca_rollups.service_revenue + EXCLUDED.service_revenue, " +
+           "entry_count = wellca_rollups.entry_count + EXCLUDED.entry_count",
+           nativeQuery = true)
+    void addDelta(
+        @Param("granularity") String granularity,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("delta") WellcaRollupDelta delta
+    );
+
+    /**
+     * Remove all buckets of one granularity within a half-open range
+     * @param granularity Bucket size name
+     * @param startDate First bucket start to remove (inclusive)
+     * @param endDate Bucket start to stop at (exclusive)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM wellca_rollups " +
+           "WHERE granularity = :granularity " +
+           "AND period_start >= :startDate AND period_start < :endDate",
+           nativeQuery = true)
+    int deleteBuckets(
+        @Param("granularity") String granularity,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Recompute buckets of one granularity from the raw entries in a half-open range.
+     * The range must be aligned to bucket boundaries and cleared first.
+     * @param granularity Bucket size name
+     * @param truncUnit date_trunc unit matching the granularity
+     * @param startDate Range start (inclusive)
+     * @param endDate Range end (exclusive)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wellca_rollups (granularity, period_start, purolator, fedex, one_courier, go_bolt, " +
+           "new_rx, refill, re_auth, hold, profiles_entered, service_count, service_revenue, entry_count) " +
+           "SELECT :granularity, CAST(date_trunc(:truncUnit, w.date) AS date), " +
+           "COALESCE(SUM(w.purolator), 0), COALESCE(SUM(w.fedex), 0), " +
+           "COALESCE(SUM(w.one_courier), 0), COALESCE(SUM(w.go_bolt), 0), " +
+           "COALESCE(SUM(w.new_rx), 0), COALESCE(SUM(w.refill), 0), " +
+           "COALESCE(SUM(w.re_auth), 0), COALESCE(SUM(w.hold), 0), " +
+           "COALESCE(SUM(w.profiles_entered), 0), " +
+           "COUNT(w.service_type), " +
+           "COALESCE(SUM(w.service_cost) FILTER (WHERE w.service_type IS NOT NULL), 0), " +
+           "COUNT(*) " +
+           "FROM wellca_entries w " +
+           "WHERE w.date >= :startDate AND w.date < :endDate " +
+           "GROUP BY 2",
+           nativeQuery = true)
+    int rebuildBuckets(
+        @Param("granularity") String granularity,
+        @Param("truncUnit") String truncUnit,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+}
@@ -0,0 +1,217 @@
+/* ==========================================================================
+ * Audit Log Archive Module
+ *
+ * PURPOSE: Streams audit log rows out of the database as CSV or NDJSON
+ * DEPENDENCIES: JdbcTemplate, Jackson
+ * SCOPE: Partition archival and bulk audit exports
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.util.CsvFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* --------------------------------------------------------------------------
+ * Audit Export Writer
+ *
+ * FUNCTIONALITY:
+ * - Writes the audit entries matching a time window, user and category
+ *   as CSV or NDJSON, oldest first
+ * - Reads through a server-side cursor, so memory use is flat for any range
+ *
+ * IMPORTANT NOTES:
+ * - The time window is half-open: [from, to)
+ * - Range predicates on timestamp prune to the matching partitions
+ * - The caller owns the stream and any compression around it
+ * -------------------------------------------------------------------------- */
+@Component
+public class AuditLogArchiveWriter {
+
+    /**
+     * Output format of an export
+     */
+    public enum Format {
+        /** RFC 4180 CSV with a header row */
+        CSV("csv"),
+        /** One JSON object per line */
+        NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @returns File extension without the leading dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Column order of the CSV output
+     */
+    public static final List<String> COLUMNS =
+        List.of("id", "timestamp", "performed_by", "category", "action", "details");
+
+    private static final String SELECT_SQL =
+        "SELECT id, timestamp, performed_by, category, action, details FROM audit_logs WHERE TRUE";
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogArchiveWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper) {
+        // Own template so the fetch size does not leak into other JDBC users
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes all entries with from <= timestamp < to as CSV
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param out Destination; flushed but not closed
+     * @returns Number of rows written
+     * @throws IOException if writing to the stream fails
+     */
+    public long writeCsv(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        return write(Format.CSV, from, to, null, null, out);
+    }
+
+    /**
+     * Writes the entries matching every given filter
+     *
+     * @param format Output format
+     * @param from Start of the range (inclusive), or null
+     * @param to End of the range (exclusive), or null
+     * @param performedBy Username to restrict to, or null
+     * @param category Category to restrict to, or null
+     * @param out Destination; flushed but not closed
+     * @returns Number of rows written
+     * @throws IOException if writing to the stream fails
+     * @note PostgreSQL only streams with a cursor inside a transaction
+     */
+    public long write(Format format, LocalDateTime from, LocalDateTime to, String performedBy, String category,
+                      OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (performedBy != null) {
+            sql.append(" AND performed_by = ?");
+            args.add(performedBy);
+        }
+        if (category != null) {
+            sql.append(" AND category = ?");
+            args.add(category);
+        }
+        sql.append(" ORDER BY timestamp, id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+        long[] rows = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                    try {
+                        rowWriter.write(rs);
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+        return rows[0];
+    }
+
+    /* .... Formats .... */
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CsvFormat.formatLine(COLUMNS));
+        writer.write(CsvFormat.LINE_TERMINATOR);
+        return rs -> {
+            writer.write(CsvFormat.formatLine(Arrays.asList(
+                rs.getLong("id"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getString("performed_by"),
+                rs.getString("category"),
+                rs.getString("action"),
+                rs.getString("details"))));
+            writer.write(CsvFormat.LINE_TERMINATOR);
+        };
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // Lines are terminated explicitly; the default separator would indent every line after the first
+        generator.setRootValueSeparator(null);
+        return new RowWriter() {
+            @Override
+            public void write(ResultSet rs) throws SQLException, IOException {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                generator.writeStringField("performedBy", rs.getString("performed_by"));
+                generator.writeStringField("category", rs.getString("category"));
+                generator.writeStringField("action", rs.getString("action"));
+                generator.writeStringField("details", rs.getString("details"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                // Flush the generator's buffer without closing the caller's stream
+                generator.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,332 @@
+/* ==========================================================================
+ * Audit Log Partition Module
+ *
+ * PURPOSE: Keeps audit_logs range-partitioned by month with bounded retention
+ * DEPENDENCIES: JdbcTemplate, PostgreSQL declarative partitioning, SLF4J
+ * SCOPE: Audit storage lifecycle
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/* --------------------------------------------------------------------------
+ * Monthly Partition Manager
+ *
+ * FUNCTIONALITY:
+ * - Converts a plain audit_logs table into a table partitioned by month
+ *   on timestamp, copying existing rows (one-time, on first start)
+ * - Creates partitions months-ahead months in advance, on start and daily
+ * - Archives partitions older than the retention period to gzip CSV files,
+ *   then detaches and drops them
+ * - Maintains the generated search_vector column and its GIN index
+ *
+ * IMPORTANT NOTES:
+ * - Partitions are named audit_logs_pYYYYMM and cover [month start, next month)
+ * - A partition is only dropped after its archive file is complete
+ * - Starts before AuditLogWriter, so no entry is written mid-migration
+ * - Maintenance holds a transaction-level advisory lock, so concurrent
+ *   instances never race on DDL
+ *
+ * PERFORMANCE IMPACT:
+ * - Retention is a metadata operation instead of row-by-row deletes
+ * - Timestamp predicates prune to the partitions they touch
+ * -------------------------------------------------------------------------- */
+@Component
+public class AuditLogPartitionManager implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogPartitionManager.class);
+
+    private static final String TABLE = "audit_logs";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long ADVISORY_LOCK_KEY = 0x617564697431L;
+
+    /**
+     * Weighted document searched by AuditLogSearchService: action ranks
+     * above category and performer, which rank above details
+     */
+    static final String SEARCH_DOCUMENT =
+        "setweight(to_tsvector('english', action), 'A') || " +
+        "setweight(to_tsvector('english', category || ' ' || performed_by), 'B') || " +
+        "setweight(to_tsvector('english', coalesce(details, '')), 'C')";
+
+    /* .... Dependencies and Settings .... */
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogArchiveWriter archiveWriter;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    private volatile boolean running;
+    private volatile boolean enabled;
+
+    public AuditLogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    AuditLogArchiveWriter archiveWriter,
+                                    @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${audit.retention.months:12}") int retentionMonths,
+                                    @Value("${audit.archive.dir:audit-archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveWriter = archiveWriter;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Path.of(archiveDir);
+    }
+
+    /* .... Scheduled Maintenance .... */
+
+    /**
+     * Creates upcoming partitions and archives expired ones
+     *
+     * @note Runs daily; missing a run only delays retention, since partitions
+     *       are created months-ahead months in advance
+     */
+    @Scheduled(cron = "${audit.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            ensurePartitions(YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+        });
+        archiveExpired();
+    }
+
+    /**
+     * Creates any missing partition between two months
+     *
+     * @param from First month that must have a partition
+     * @param to Last month that must have a partition
+     * @note Must run inside a transaction
+     */
+    private void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), TABLE, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+        }
+    }
+
+    /**
+     * Archives and drops every partition that ended before the retention cutoff
+     */
+    private void archiveExpired() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        for (YearMonth month : listPartitions()) {
+            if (month.isBefore(cutoff)) {
+                try {
+                    archiveAndDrop(month);
+                } catch (IOException | RuntimeException e) {
+                    // The partition stays in place and is retried on the next run
+                    logger.error("Failed to archive audit partition {}", partitionName(month), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one month to a gzip CSV file, then removes the partition
+     *
+     * @param month Month to archive
+     * @throws IOException if the archive file cannot be written
+     * @note The file is written under a temporary name and moved into place,
+     *       so a crash never leaves a truncated archive behind a dropped partition
+     */
+    private void archiveAndDrop(YearMonth month) throws IOException {
+        String partition = partitionName(month);
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        Path temp = archiveDir.resolve(partition + ".csv.gz.tmp");
+
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            rows = archiveWriter.writeCsv(month.atDay(1).atStartOfDay(),
+                month.plusMonths(1).atDay(1).atStartOfDay(), out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        logger.info("Archived {} audit entries from {} to {} and dropped the partition", rows, partition, target);
+    }
+
+    /* .... One-Time Migration .... */
+
+    /**
+     * Replaces a plain audit_logs table with a partitioned one holding the same rows
+     *
+     * @note Keeps the id sequence, so ids continue where they left off
+     * @note The primary key becomes (id, timestamp); PostgreSQL requires the
+     *       partition key in every unique constraint
+     */
+    private void migrateToPartitioned() {
+        logger.info("Converting {} to a monthly partitioned table", TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_legacy");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_audit_logs_timestamp_id RENAME TO idx_audit_logs_legacy_timestamp_id");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS audit_logs_pkey RENAME TO audit_logs_legacy_pkey");
+        // Detach the sequence so dropping the legacy table keeps it
+        jdbcTemplate.execute("ALTER SEQUENCE audit_logs_id_seq OWNED BY NONE");
+
+        createPartitionedTable("DEFAULT nextval('audit_logs_id_seq')");
+        jdbcTemplate.execute("ALTER SEQUENCE audit_logs_id_seq OWNED BY " + TABLE + ".id");
+
+        // Existing rows may fall outside the usual window in either direction
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + TABLE + "_legacy", Timestamp.class);
+        Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(timestamp) FROM " + TABLE + "_legacy", Timestamp.class);
+        YearMonth horizon = YearMonth.now().plusMonths(monthsAhead);
+        ensurePartitions(
+            oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now(),
+            newest != null && YearMonth.from(newest.toLocalDateTime()).isAfter(horizon)
+                ? YearMonth.from(newest.toLocalDateTime()) : horizon);
+
+        int copied = jdbcTemplate.update(
+            "INSERT INTO " + TABLE + " (id, action, category, details, performed_by, timestamp, user_id) " +
+            "SELECT id, action, category, details, performed_by, timestamp, user_id FROM " + TABLE + "_legacy");
+        jdbcTemplate.execute("DROP TABLE " + TABLE + "_legacy");
+        logger.info("Moved {} audit entries into the partitioned table", copied);
+    }
+
+    /**
+     * Creates the partitioned parent table with the entity's columns
+     *
+     * @param idDefault Column definition suffix for id
+     */
+    private void createPartitionedTable(String idDefault) {
+        jdbcTemplate.execute(
+            "CREATE TABLE " + TABLE + " (" +
+            "id BIGINT NOT NULL " + idDefault + ", " +
+            "action VARCHAR(255) NOT NULL, " +
+            "category VARCHAR(255) NOT NULL, " +
+            "details VARCHAR(1000), " +
+            "performed_by VARCHAR(255) NOT NULL, " +
+            "timestamp TIMESTAMP(6) NOT NULL, " +
+            "user_id BIGINT CONSTRAINT fk_audit_logs_user REFERENCES users (id), " +
+            "PRIMARY KEY (id, timestamp)" +
+            ") PARTITION BY RANGE (timestamp)");
+        jdbcTemplate.execute("CREATE INDEX idx_audit_logs_timestamp_id ON " + TABLE + " (timestamp, id)");
+    }
+
+    /* .... Full-Text Search .... */
+
+    /**
+     * Adds the search_vector column and its GIN index if missing
+     *
+     * @note A stored generated column is computed on insert, so the index
+     *       never lags behind the audit writer
+     * @note Adding the column rewrites existing partitions once
+     */
+    private void ensureSearchColumn() {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+            "GENERATED ALWAYS AS (" + SEARCH_DOCUMENT + ") STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_logs_search ON " + TABLE + " USING gin (search_vector)");
+    }
+
+    /* .... Helpers .... */
+
+    private void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+    }
+
+    /**
+     * @returns 'p' for a partitioned table, 'r' for a plain one, null if missing
+     */
+    private String tableKind() {
+        List<String> kinds = jdbcTemplate.queryForList(
+            "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private List<YearMonth> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, TABLE)
+            .stream()
+            .map(PARTITION_NAME::matcher)
+            .filter(Matcher::matches)
+            .map(m -> YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))))
+            .toList();
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /* .... Lifecycle .... */
+
+    /**
+     * Migrates and pre-creates partitions before any audit entry is written
+     */
+    @Override
+    public void start() {
+        running = true;
+        if (!isPostgres()) {
+            logger.warn("Audit log partitioning requires PostgreSQL; leaving {} as is", TABLE);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            String kind = tableKind();
+            if (kind == null) {
+                createPartitionedTable("GENERATED BY DEFAULT AS IDENTITY");
+            } else if ("r".equals(kind)) {
+                migrateToPartitioned();
+            }
+            ensureSearchColumn();
+            ensurePartitions(YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+        });
+        enabled = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @returns Phase before AuditLogWriter's, so partitions exist before it starts
+     */
+    @Override
+    public int getPhase() {
+        return -100;
+    }
+}
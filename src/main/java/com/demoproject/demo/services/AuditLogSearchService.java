@@ -0,0 +1,157 @@
+/* ==========================================================================
+ * Audit Log Search Module
+ *
+ * PURPOSE: Full-text search over audit entries
+ * DEPENDENCIES: JdbcTemplate, PostgreSQL full-text search, SLF4J
+ * SCOPE: Administrative audit investigation
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.AuditSearchHit;
+import com.demoproject.demo.dto.CursorPage;
+import com.demoproject.demo.dto.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/* --------------------------------------------------------------------------
+ * Audit Search Service
+ *
+ * FUNCTIONALITY:
+ * - Matches web-search style queries ("quoted phrases", or, -exclusions)
+ *   against action, category, performer and details
+ * - Orders by relevance or by time, with an optional time window
+ * - Pages with keyset cursors, like the audit log listing
+ *
+ * IMPORTANT NOTES:
+ * - Relies on the search_vector column maintained by AuditLogPartitionManager
+ * - The time window is half-open: [from, to)
+ * - Cursors are only valid for the order they were issued with
+ *
+ * PERFORMANCE IMPACT:
+ * - Matches come from the GIN index instead of a LIKE '%...%' scan
+ * - A time window prunes the search to the partitions it overlaps
+ * -------------------------------------------------------------------------- */
+@Service
+public class AuditLogSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogSearchService.class);
+
+    /**
+     * Result order of a search
+     */
+    public enum Order {
+        /** Best matches first, ties broken by newest id */
+        RELEVANCE,
+        /** Newest entries first */
+        NEWEST
+    }
+
+    private static final String MATCH_SQL =
+        "SELECT id, timestamp, performed_by, category, action, details, ts_rank(search_vector, query) AS rank " +
+        "FROM audit_logs, websearch_to_tsquery('english', ?) query " +
+        "WHERE search_vector @@ query";
+
+    private static final RowMapper<AuditSearchHit> HIT_MAPPER = (rs, rowNum) -> new AuditSearchHit(
+        rs.getLong("id"),
+        rs.getTimestamp("timestamp").toLocalDateTime(),
+        rs.getString("performed_by"),
+        rs.getString("category"),
+        rs.getString("action"),
+        rs.getString("details"),
+        rs.getFloat("rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Searches audit entries
+     *
+     * @param query Search terms in web-search syntax
+     * @param from Earliest timestamp to include, or null
+     * @param to Timestamp to stop before, or null
+     * @param order Result order
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @returns Page of matches with the cursor for the next page
+     * @throws IllegalArgumentException if the query is blank or the cursor is malformed
+     * @performance Fetches limit + 1 rows instead of running a count query
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AuditSearchHit> search(String query, LocalDateTime from, LocalDateTime to,
+                                             Order order, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        logger.debug("Searching audit logs: query={}, from={}, to={}, order={}", query, from, to, order);
+
+        StringBuilder sql = new StringBuilder(MATCH_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        if (order == Order.RELEVANCE) {
+            if (position != null) {
+                // Rank is computed, so seek on the derived column
+                float rank = parseRank(position.key());
+                sql.insert(0, "SELECT * FROM (").append(") hits WHERE rank <= ? AND (rank < ? OR id < ?)");
+                args.add(rank);
+                args.add(rank);
+                args.add(position.id());
+            }
+            sql.append(" ORDER BY rank DESC, id DESC");
+        } else {
+            if (position != null) {
+                Timestamp timestamp = Timestamp.valueOf(parseTimestamp(position.key()));
+                sql.append(" AND timestamp <= ? AND (timestamp < ? OR id < ?)");
+                args.add(timestamp);
+                args.add(timestamp);
+                args.add(position.id());
+            }
+            sql.append(" ORDER BY timestamp DESC, id DESC");
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<AuditSearchHit> fetched = jdbcTemplate.query(sql.toString(), HIT_MAPPER, args.toArray());
+        return CursorPage.of(fetched, limit, hit -> new KeysetCursor(
+            order == Order.RELEVANCE ? Float.toString(hit.rank()) : hit.timestamp().toString(), hit.id()));
+    }
+
+    private static float parseRank(String value) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.demoproject.demo.services;
 
+import com.demoproject.demo.dto.CursorPage;
+import com.demoproject.demo.dto.KeysetCursor;
 import com.demoproject.demo.entity.AuditLog;
 import com.demoproject.demo.repository.AuditLogRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Service
@@ -21,9 +28,11 @@ public class AuditLogService {
      * -------------------------------------------------------------------------- */
     private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
-    public AuditLogService(AuditLogRepository auditLogRepository) {
+    public AuditLogService(AuditLogRepository auditLogRepository, AuditLogWriter auditLogWriter) {
         this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
     }
 
     /* --------------------------------------------------------------------------
@@ -31,28 +40,32 @@ public class AuditLogService {
      * -------------------------------------------------------------------------- */
 
     /**
-     * Creates new audit log entry
+     * Records an audit log entry without waiting for the database
      * 
      * @param action Description of the action
      * @param category Action category
      * @param details Additional context
-     * @security Automatically captures current user
-     * @performance Single transaction scope
+     * @security Captures the current user and time on the calling thread
+     * @performance Only queues the entry; AuditLogWriter inserts it in a batch
+     * @note Inside a transaction the entry is queued after commit, so rolled
+     *       back actions are never audited
      */
-    @Transactional
     public void logEvent(String action, String category, String details) {
-        logger.debug("Creating audit log entry: action={}, category={}", action, category);
-        try {
-            String currentUser = SecurityContextHolder.getContext().getAuthentication().getName();
-            
-            AuditLog auditLog = new AuditLog(action, currentUser, category, details);
-            auditLogRepository.save(auditLog);
-            
-            logger.info("Audit log created successfully: action={}, user={}, category={}", 
-                       action, currentUser, category);
-        } catch (Exception e) {
-            logger.error("Failed to create audit log: action={}, category={}", action, category, e);
-            throw new RuntimeException("Failed to create audit log", e);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String currentUser = authentication != null ? authentication.getName() : "system";
+        AuditLogWriter.Entry entry = new AuditLogWriter.Entry(action, currentUser,
+            LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), category, details);
+        logger.debug("Queueing audit log entry: action={}, user={}, category={}", action, currentUser, category);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.enqueue(entry);
+                }
+            });
+        } else {
+            auditLogWriter.enqueue(entry);
         }
     }
 
@@ -60,14 +73,14 @@ public class AuditLogService {
      * Clears all audit log entries
      * 
      * @security Requires ADMIN role
-     * @performance Single transaction scope
+     * @performance TRUNCATE instead of loading and deleting every row
      * @audit Self-logging is handled at controller level
      */
     @Transactional
     public void clearAllLogs() {
         try {
             logger.info("Initiating complete audit log clearance");
-            auditLogRepository.deleteAll();
+            auditLogRepository.truncate();
             logger.info("Audit logs cleared successfully");
         } catch (Exception e) {
             logger.error("Failed to clear audit logs", e);
@@ -93,6 +106,37 @@ public class AuditLogService {
         return auditLogRepository.getAll(pageable);
     }
 
+    /**
+     * Retrieves one keyset page of audit logs, newest first
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @returns Page of audit entries with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @performance Fetches limit + 1 rows instead of running a count query
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> getPage(String cursor, int limit) {
+        logger.debug("Retrieving audit logs after cursor: {}, limit: {}", cursor, limit);
+        List<AuditLog> fetched;
+        if (cursor == null || cursor.isBlank()) {
+            fetched = auditLogRepository.findFirstPage(limit + 1);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            fetched = auditLogRepository.findPageAfter(parseTimestamp(position.key()), position.id(), limit + 1);
+        }
+        return CursorPage.of(fetched, limit,
+            log -> new KeysetCursor(log.getTimestamp().toString(), log.getId()));
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
     /**
      * Retrieves audit logs for specific user
      * 
@@ -146,10 +190,6 @@ public class AuditLogService {
      * -------------------------------------------------------------------------- */
 
     /* @todo Implementation needs:
-     * - Add support for bulk audit operations
-     * - Implement audit log archiving
-     * - Add audit log search capabilities
      * - Add support for custom audit fields
-     * - Add audit log retention policy
      */
 }
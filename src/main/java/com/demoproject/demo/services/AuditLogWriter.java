@@ -0,0 +1,359 @@
+/* ==========================================================================
+ * Audit Log Writer Module
+ *
+ * PURPOSE: Persists audit entries behind the request path in JDBC batches
+ * DEPENDENCIES: JdbcTemplate, Jackson, Micrometer, SLF4J
+ * SCOPE: Write side of the audit pipeline
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/* --------------------------------------------------------------------------
+ * Write-Behind Audit Writer
+ *
+ * FUNCTIONALITY:
+ * - Buffers audit entries in a bounded in-memory queue
+ * - Single writer thread inserts them in JDBC batches of batch-size rows,
+ *   or whatever has arrived after flush-interval-ms
+ * - Spills to a local NDJSON file when the queue stays full or the
+ *   database rejects a batch; the file is replayed on the next start
+ * - A replay that did not finish resumes after the last batch it wrote;
+ *   newer spills are queued behind it and unreadable lines are skipped
+ * - Drains and flushes the queue on shutdown
+ *
+ * IMPORTANT NOTES:
+ * - Stops after the web server, so audits of in-flight requests are kept
+ * - Entries are unordered across a spill; the timestamp is authoritative
+ *
+ * PERFORMANCE IMPACT:
+ * - Request threads only pay for a queue offer
+ * - One multi-row INSERT per batch instead of one round trip per entry
+ * -------------------------------------------------------------------------- */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (action, performed_by, timestamp, category, details) VALUES (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES =
+        {Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR};
+
+    /**
+     * Audit entry captured on the request thread
+     *
+     * @param action Description of the action
+     * @param performedBy Username of the performer
+     * @param timestamp When the action happened, truncated to seconds
+     * @param category Action category
+     * @param details Additional context
+     */
+    public record Entry(String action, String performedBy, LocalDateTime timestamp, String category, String details) {
+    }
+
+    /* .... Dependencies and Settings .... */
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final Path spillFile;
+    private final Counter spilledCounter;
+    private final Counter writtenCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMillis,
+                          @Value("${audit.writer.offer-timeout-ms:50}") long offerTimeoutMillis,
+                          @Value("${audit.writer.spill-file:audit-spill.ndjson}") String spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The pool hands out connections with auto-commit off, so each batch needs its own transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.spillFile = Path.of(spillFile);
+        this.spilledCounter = meterRegistry.counter("audit.writer.spilled");
+        this.writtenCounter = meterRegistry.counter("audit.writer.written");
+        Gauge.builder("audit.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /* .... Request Side .... */
+
+    /**
+     * Queues an entry for the writer
+     *
+     * @param entry Entry to persist
+     * @note Waits at most offer-timeout-ms for space, then spills to file
+     * @note After shutdown entries go straight to the spill file
+     */
+    public void enqueue(Entry entry) {
+        try {
+            if (running && queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.warn("Audit queue unavailable, spilling entry: action={}", entry.action());
+        spill(List.of(entry));
+    }
+
+    /* .... Writer Thread .... */
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Collect until the batch is full or the flush interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected audit writer failure", e);
+                spill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts one batch, spilling it to file if the database rejects it
+     */
+    private void write(List<Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, toRows(batch), INSERT_TYPES));
+            writtenCounter.increment(batch.size());
+            logger.debug("Wrote {} audit entries", batch.size());
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Failed to write {} audit entries, spilling to {}", batch.size(), spillFile, e);
+            spill(batch);
+        }
+    }
+
+    private static List<Object[]> toRows(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            rows.add(new Object[] {
+                entry.action(), entry.performedBy(), Timestamp.valueOf(entry.timestamp()),
+                entry.category(), entry.details()
+            });
+        }
+        return rows;
+    }
+
+    /* .... Spill File .... */
+
+    private synchronized void spill(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Entry entry : entries) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+            spilledCounter.increment(entries.size());
+        } catch (IOException e) {
+            // Last resort: the log line is the only remaining record of the action
+            entries.forEach(entry -> logger.error("Lost audit entry: {}", entry));
+            logger.error("Failed to spill audit entries to {}", spillFile, e);
+        }
+    }
+
+    /**
+     * Re-inserts entries spilled by previous runs
+     *
+     * @note The file is renamed first, so entries spilled during replay are kept
+     * @note The number of lines handled is checkpointed after every batch, so a
+     *       replay cut short resumes without inserting its rows twice
+     */
+    private synchronized void replaySpillFile() {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        Path progress = spillFile.resolveSibling(spillFile.getFileName() + ".replay.progress");
+        try {
+            if (Files.exists(spillFile)) {
+                if (Files.exists(replaying)) {
+                    // An earlier replay did not finish; queue this spill behind it
+                    append(spillFile, replaying);
+                    Files.delete(spillFile);
+                } else {
+                    Files.move(spillFile, replaying);
+                }
+            }
+            if (!Files.exists(replaying)) {
+                return;
+            }
+            long done = Files.exists(progress) ? Long.parseLong(Files.readString(progress).trim()) : 0;
+            List<Entry> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            int replayed = 0;
+            int skipped = 0;
+            try (BufferedReader reader = Files.newBufferedReader(replaying)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (++lineNumber <= done || line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        batch.add(objectMapper.readValue(line, Entry.class));
+                    } catch (JsonProcessingException e) {
+                        // Typically the last line of a spill cut short by a dying process
+                        skipped++;
+                        logger.error("Skipping unreadable spilled audit entry at line {} of {}: {}",
+                            lineNumber, replaying, line);
+                        continue;
+                    }
+                    if (batch.size() == batchSize) {
+                        write(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                        saveProgress(progress, lineNumber);
+                    }
+                }
+            }
+            write(batch);
+            replayed += batch.size();
+            Files.delete(replaying);
+            Files.deleteIfExists(progress);
+            logger.info("Replayed {} spilled audit entries, skipped {} unreadable lines", replayed, skipped);
+        } catch (IOException | NumberFormatException e) {
+            logger.error("Failed to replay spilled audit entries from {}", replaying, e);
+        }
+    }
+
+    /**
+     * Appends a spill file to the end of another, starting on a new line
+     */
+    private static void append(Path source, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer last = ByteBuffer.allocate(1);
+            if (size > 0 && channel.read(last, size - 1) == 1 && last.get(0) != '\n') {
+                // The target ends in a truncated line; keep it from swallowing the first appended entry
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.APPEND)) {
+            Files.copy(source, out);
+        }
+    }
+
+    /**
+     * Records how many lines of the replay file are handled, replacing the old count atomically
+     */
+    private static void saveProgress(Path progress, long lines) throws IOException {
+        Path pending = progress.resolveSibling(progress.getFileName() + ".tmp");
+        Files.writeString(pending, Long.toString(lines));
+        Files.move(pending, progress, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* .... Lifecycle .... */
+
+    @Override
+    public void start() {
+        replaySpillFile();
+        running = true;
+        writerThread = Thread.ofPlatform().name("audit-writer").daemon().start(this::drainLoop);
+        logger.info("Audit writer started: batchSize={}, flushIntervalMs={}", batchSize, flushIntervalMillis);
+    }
+
+    /**
+     * Stops accepting entries and flushes the queue
+     *
+     * @note Anything the writer could not flush in time is spilled to file
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Entry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        spill(remaining);
+        logger.info("Audit writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @returns Phase 0, so the writer starts before and stops after the web server
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.demoproject.demo.services;
+
+/**
+ * Fenwick (binary indexed) tree over a fixed number of long slots.
+ * Point updates and prefix sums both run in O(log n) without allocation.
+ */
+final class LongFenwickTree {
+
+    private final long[] tree;
+
+    /**
+     * Build a tree from point values in O(n)
+     * @param values Initial value of each slot; the tree has values.length slots
+     */
+    LongFenwickTree(long[] values) {
+        tree = new long[values.length + 1];
+        System.arraycopy(values, 0, tree, 1, values.length);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * @return Number of slots
+     */
+    int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Add a delta to one slot
+     * @param index Zero-based slot
+     * @param delta Amount to add
+     */
+    void add(int index, long delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @param index Zero-based slot, or -1 for an empty prefix
+     * @return Sum of slots 0 through index
+     */
+    long prefixSum(int index) {
+        long sum = 0;
+        for (int i = Math.min(index + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return Sum of slots from through to, both inclusive
+     */
+    long rangeSum(int from, int to) {
+        if (to < from) {
+            return 0;
+        }
+        return prefixSum(to) - prefixSum(from - 1);
+    }
+}
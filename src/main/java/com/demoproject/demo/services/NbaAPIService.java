@@ -4,94 +4,402 @@
  * PURPOSE: Provides integration with the RapidAPI NBA statistics API
  * DEPENDENCIES:
  * - OkHttp client for HTTP requests
+ * - Jackson for parsing responses into typed records
+ * - Caffeine for caching responses
+ * - Bucket4j for the request quota
+ * - NbaUpstreamGuard for circuit breaking, bulkheading and call deadlines
  * - RapidAPI credentials (key and host)
  * - Spring Framework
  *
- * @version 1.0
+ * @version 2.0
  * @security API credentials must be properly secured
- * @performance Consider implementing caching for frequently accessed data
+ * @performance Responses are cached per endpoint and refreshed in the background;
+ *              an unavailable upstream is answered from the last good response
  */
 package com.demoproject.demo.services;
 
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class NbaAPIService {
-    
+
     /* -----------------------------------------------------------------------------
      * Service Configuration
      * -------------------------------------------------------------------------- */
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaAPIService.class);
+    private static final int MAX_CACHED_KEYS = 500;
+    private static final int MAX_LAST_GOOD_KEYS = 2_000;
+    private static final Duration LAST_GOOD_RETENTION = Duration.ofDays(1);
+
+    /**
+     * Thrown when the upstream API cannot be reached or returns an unusable response
+     */
+    public static class NbaApiException extends RuntimeException {
+        private final boolean retryable;
+
+        public NbaApiException(String message) {
+            this(message, false);
+        }
+
+        public NbaApiException(String message, boolean retryable) {
+            super(message);
+            this.retryable = retryable;
+        }
+
+        /**
+         * I/O failures are treated as transient
+         */
+        public NbaApiException(String message, Throwable cause) {
+            super(message, cause);
+            this.retryable = true;
+        }
+
+        /**
+         * @return true if the same request may succeed when repeated later
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    /**
+     * Thrown when a call is not attempted because the upstream is considered unavailable
+     */
+    public static class NbaApiUnavailableException extends NbaApiException {
+        public NbaApiUnavailableException(String message, boolean retryable) {
+            super(message, retryable);
+        }
+    }
+
+    /**
+     * Envelope shared by every API response
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record Envelope<T>(int results, List<T> response) {
+    }
+
     private final OkHttpClient client;
+    private final ObjectMapper objectMapper;
     private final String apiKey;
     private final String apiHost;
-    private static final Logger logger = LoggerFactory.getLogger(NbaAPIService.class);
-    
+    private final HttpUrl baseUrl;
+    private final Bucket quota;
+    private final Duration quotaMaxWait;
+    private final Duration interactiveQuotaMaxWait;
+    private final NbaUpstreamGuard guard;
+
+    private final LoadingCache<Integer, List<NbaPlayerStatistics>> playerStatisticsCache;
+    private final LoadingCache<LocalDate, List<NbaGame>> gamesByDateCache;
+    private final LoadingCache<Integer, List<NbaGame>> gameCache;
+    // Every successful response by request, kept well beyond maxStale for when the upstream is unavailable
+    private final Cache<String, List<?>> lastGood;
+
     /**
      * Constructs NBA API service with required dependencies
-     * 
+     *
      * @param client HTTP client for making API requests
+     * @param objectMapper Parses responses into records
      * @param apiKey RapidAPI authentication key
      * @param apiHost RapidAPI host endpoint
+     * @param baseUrl Base URL of the API, overridable for tests and proxies
+     * @param playerStatisticsTtl Age after which cached player statistics are refreshed
+     * @param gamesTtl Age after which cached games are refreshed
+     * @param maxStale Age after which a cached value is dropped even if refreshes keep failing
+     * @param requestsPerMinute Upstream request quota shared by every caller
+     * @param quotaMaxWait Longest a direct fetch (sync, batch, live polls) waits for quota before failing
+     * @param interactiveQuotaMaxWait Longest a cache load waits for quota before answering
+     *                                with the last good response
+     * @param refreshExecutor Runs background refreshes
+     * @param guard Circuit breaker, bulkhead and deadline for upstream calls
      * @note Credentials should be injected via secure configuration
      */
-    public NbaAPIService(OkHttpClient client, String apiKey, String apiHost) {
+    @Autowired
+    public NbaAPIService(OkHttpClient client, ObjectMapper objectMapper,
+                         @Qualifier("apiKey") String apiKey,
+                         @Qualifier("apiHost") String apiHost,
+                         @Value("${nba.api.base-url:https://api-nba-v1.p.rapidapi.com}") String baseUrl,
+                         @Value("${nba.cache.player-statistics-ttl:PT1M}") Duration playerStatisticsTtl,
+                         @Value("${nba.cache.games-ttl:PT30S}") Duration gamesTtl,
+                         @Value("${nba.cache.max-stale:PT1H}") Duration maxStale,
+                         @Value("${nba.api.requests-per-minute:60}") long requestsPerMinute,
+                         @Value("${nba.api.quota-max-wait:PT10S}") Duration quotaMaxWait,
+                         @Value("${nba.api.interactive-quota-max-wait:PT0.25S}") Duration interactiveQuotaMaxWait,
+                         @Qualifier("nbaRefreshExecutor") Executor refreshExecutor,
+                         NbaUpstreamGuard guard) {
+        this(client, objectMapper, apiKey, apiHost, baseUrl, playerStatisticsTtl, gamesTtl, maxStale,
+            requestsPerMinute, quotaMaxWait, interactiveQuotaMaxWait, refreshExecutor, guard, Ticker.systemTicker());
+    }
+
+    NbaAPIService(OkHttpClient client, ObjectMapper objectMapper, String apiKey, String apiHost, String baseUrl,
+                  Duration playerStatisticsTtl, Duration gamesTtl, Duration maxStale,
+                  long requestsPerMinute, Duration quotaMaxWait, Duration interactiveQuotaMaxWait,
+                  Executor refreshExecutor, NbaUpstreamGuard guard, Ticker ticker) {
         this.client = client;
+        this.objectMapper = objectMapper;
         this.apiKey = apiKey;
         this.apiHost = apiHost;
+        this.baseUrl = HttpUrl.get(baseUrl);
+        this.quota = Bucket.builder()
+            .addLimit(Bandwidth.classic(requestsPerMinute, Refill.greedy(requestsPerMinute, Duration.ofMinutes(1))))
+            .build();
+        this.quotaMaxWait = quotaMaxWait;
+        this.interactiveQuotaMaxWait = interactiveQuotaMaxWait;
+        this.guard = guard;
+        this.lastGood = Caffeine.newBuilder()
+            .maximumSize(MAX_LAST_GOOD_KEYS)
+            .expireAfterWrite(LAST_GOOD_RETENTION)
+            .ticker(ticker)
+            .build();
+        this.playerStatisticsCache = newCache(playerStatisticsTtl, maxStale, refreshExecutor, ticker,
+            gameId -> load("players/statistics", "game", gameId.toString(), NbaPlayerStatistics.class));
+        this.gamesByDateCache = newCache(gamesTtl, maxStale, refreshExecutor, ticker,
+            date -> load("games", "date", date.toString(), NbaGame.class));
+        this.gameCache = newCache(gamesTtl, maxStale, refreshExecutor, ticker,
+            gameId -> load("games", "id", gameId.toString(), NbaGame.class));
     }
-    
+
     /* -----------------------------------------------------------------------------
      * API Operations
      * -------------------------------------------------------------------------- */
-    
+
     /**
      * Retrieves player statistics for a specific game
-     * 
+     *
+     * @param gameId Unique identifier for NBA game
+     * @returns Box score line of every player in the game
+     * @throws NbaApiException if nothing is cached and the API request fails
+     * @performance Served from cache; concurrent misses share one upstream call,
+     *              and stale entries are returned while a background refresh runs.
+     *              While the upstream is unavailable or the quota is exhausted, misses
+     *              get the last good response instead of waiting.
+     */
+    public List<NbaPlayerStatistics> getPlayerStatistics(int gameId) {
+        return playerStatisticsCache.get(gameId);
+    }
+
+    /**
+     * Looks up cached player statistics without loading them
+     *
+     * @param gameId Unique identifier for NBA game
+     * @returns Cached box score, possibly stale, or null if none is cached
+     * @note Callers on virtual threads use this with fetchPlayerStatistics instead of
+     *       getPlayerStatistics: a cache load runs inside a synchronized map bin, and
+     *       blocking on HTTP there pins the virtual thread's carrier
+     */
+    public List<NbaPlayerStatistics> getCachedPlayerStatistics(int gameId) {
+        return playerStatisticsCache.getIfPresent(gameId);
+    }
+
+    /**
+     * Retrieves the games scheduled on a date
+     *
+     * @param date Game date (UTC)
+     * @returns Games with their status and score
+     * @throws NbaApiException if nothing is cached and the API request fails
+     */
+    public List<NbaGame> getGames(LocalDate date) {
+        return gamesByDateCache.get(date);
+    }
+
+    /**
+     * Retrieves a single game
+     *
+     * @param gameId Unique identifier for NBA game
+     * @returns The game, or null if the API does not know it
+     * @throws NbaApiException if nothing is cached and the API request fails
+     */
+    public NbaGame getGame(int gameId) {
+        List<NbaGame> games = gameCache.get(gameId);
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    /**
+     * Fetches the games on a date from the API, bypassing the cache, and caches the result
+     *
+     * @param date Game date (UTC)
+     * @returns Current games with their status and score
+     * @throws NbaApiException if the API request fails
+     * @note For the background sync, which must not persist a stale cached value,
+     *       so there is no last good fallback here
+     */
+    public List<NbaGame> fetchGames(LocalDate date) {
+        List<NbaGame> games = fetch("games", "date", date.toString(), NbaGame.class);
+        gamesByDateCache.put(date, games);
+        return games;
+    }
+
+    /**
+     * Fetches a single game from the API, bypassing the cache, and caches the result
+     *
      * @param gameId Unique identifier for NBA game
-     * @returns Response containing player statistics data
-     * @throws IOException if API request fails
-     * @note Response needs to be properly closed after use
-     * @todo Add response parsing and data mapping
-     * @todo Implement error handling for API-specific errors
+     * @returns The current game, or null if the API does not know it
+     * @throws NbaApiException if the API request fails
      */
-    public Response getPlayerStatistics(String gameId) throws IOException {
+    public NbaGame fetchGame(int gameId) {
+        List<NbaGame> games = fetch("games", "id", Integer.toString(gameId), NbaGame.class);
+        gameCache.put(gameId, games);
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    /**
+     * Fetches the player statistics of a game from the API, bypassing the cache, and caches the result
+     *
+     * @param gameId Unique identifier for NBA game
+     * @returns Current box score line of every player in the game
+     * @throws NbaApiException if the API request fails
+     */
+    public List<NbaPlayerStatistics> fetchPlayerStatistics(int gameId) {
+        List<NbaPlayerStatistics> statistics = fetch("players/statistics", "game", Integer.toString(gameId),
+            NbaPlayerStatistics.class);
+        playerStatisticsCache.put(gameId, statistics);
+        return statistics;
+    }
+
+    /* -----------------------------------------------------------------------------
+     * Upstream Access
+     * -------------------------------------------------------------------------- */
+
+    private <K, V> LoadingCache<K, V> newCache(Duration ttl, Duration maxStale, Executor executor, Ticker ticker,
+                                               CacheLoader<K, V> loader) {
+        // refreshAfterWrite serves the old value during a reload; a failed reload keeps it until maxStale
+        return Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_KEYS)
+            .refreshAfterWrite(ttl)
+            .expireAfterWrite(maxStale)
+            .executor(executor)
+            .ticker(ticker)
+            .recordStats()
+            .build(loader);
+    }
+
+    /**
+     * Cache loader: fetches, or answers with the last good response if the call was not attempted.
+     * Loads run on request threads, so they only wait interactiveQuotaMaxWait for quota.
+     */
+    private <T> List<T> load(String path, String parameter, String value, Class<T> type) {
+        try {
+            return fetch(path, parameter, value, type, interactiveQuotaMaxWait);
+        } catch (NbaApiUnavailableException e) {
+            @SuppressWarnings("unchecked")
+            List<T> previous = (List<T>) lastGood.getIfPresent(requestKey(path, parameter, value));
+            if (previous == null) {
+                throw e;
+            }
+            guard.recordFallback();
+            logger.debug("Serving last good NBA API {}?{}={}: {}", path, parameter, value, e.getMessage());
+            return previous;
+        }
+    }
+
+    /**
+     * Calls one API endpoint through the guard and remembers the response as the last good one.
+     * Every call, including retries and background refreshes, takes a quota token first;
+     * quota waits happen outside the guard, so they never count as slow upstream calls.
+     */
+    private <T> List<T> fetch(String path, String parameter, String value, Class<T> type) {
+        return fetch(path, parameter, value, type, quotaMaxWait);
+    }
+
+    private <T> List<T> fetch(String path, String parameter, String value, Class<T> type, Duration maxWait) {
+        acquireQuota(path, maxWait);
+        List<T> result = guard.execute(path, () -> call(path, parameter, value, type));
+        lastGood.put(requestKey(path, parameter, value), result);
+        return result;
+    }
+
+    /**
+     * Performs the HTTP exchange and parses the response list.
+     * The deadline covers the whole exchange; the body is read while the response is still open.
+     */
+    private <T> List<T> call(String path, String parameter, String value, Class<T> type) {
+        HttpUrl url = baseUrl.newBuilder()
+            .addPathSegments(path)
+            .addQueryParameter(parameter, value)
+            .build();
         Request request = new Request.Builder()
-                .url("https://api-nba-v1.p.rapidapi.com/players/statistics?game=" + gameId)
-                .get()
-                .addHeader("x-rapidapi-key", apiKey)
-                .addHeader("x-rapidapi-host", apiHost)
-                .build();
-                
-        try (Response response = client.newCall(request).execute()) {
-            // Process response
-            return response;
+            .url(url)
+            .get()
+            .addHeader("x-rapidapi-key", apiKey)
+            .addHeader("x-rapidapi-host", apiHost)
+            .build();
+
+        logger.debug("Fetching NBA API {}?{}={}", path, parameter, value);
+        Call call = client.newCall(request);
+        call.timeout().timeout(guard.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                int code = response.code();
+                throw new NbaApiException("NBA API " + path + " returned HTTP " + code, code == 429 || code >= 500);
+            }
+            JavaType envelopeType = objectMapper.getTypeFactory().constructParametricType(Envelope.class, type);
+            Envelope<T> envelope = objectMapper.readValue(body.byteStream(), envelopeType);
+            return envelope.response() != null ? List.copyOf(envelope.response()) : List.of();
         } catch (IOException e) {
-            logger.error("Failed to get player statistics", e);
-            throw new IOException("Failed to get player statistics", e);
+            logger.error("Failed to fetch NBA API {}", path, e);
+            throw new NbaApiException("Failed to fetch NBA API " + path, e);
         }
     }
-    
+
+    private static String requestKey(String path, String parameter, String value) {
+        return path + "?" + parameter + "=" + value;
+    }
+
+    /**
+     * @throws NbaApiUnavailableException if no token frees up within maxWait, so the call is not attempted
+     */
+    private void acquireQuota(String path, Duration maxWait) {
+        try {
+            // Bucket4j rejects a zero wait for the blocking variant
+            boolean acquired = maxWait.isPositive() ? quota.asBlocking().tryConsume(1, maxWait) : quota.tryConsume(1);
+            if (!acquired) {
+                throw new NbaApiUnavailableException("NBA API quota exhausted; skipped " + path, false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NbaApiException("Interrupted waiting for NBA API quota");
+        }
+    }
+
     /* -----------------------------------------------------------------------------
      * Future Enhancements
      * -------------------------------------------------------------------------- */
-    
+
     /**
      * @todo Implement additional endpoints:
      * - Team statistics
      * - Player profiles
-     * - Game schedules
-     * - Live game data
-     * 
-     * @todo Add response caching
-     * @todo Implement rate limiting
-     * @todo Add request retry logic
      */
 }
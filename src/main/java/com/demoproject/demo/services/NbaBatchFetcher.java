@@ -0,0 +1,159 @@
+/* ==========================================================================
+ * NBA Batch Fetch Module
+ *
+ * PURPOSE: Fetches the box scores of many games concurrently
+ * DEPENDENCIES: NbaAPIService, NbaStatsStore, Spring Retry
+ * SCOPE: Season-level NBA views
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGameStatisticsResult;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+import org.springframework.retry.policy.ExceptionClassifierRetryPolicy;
+import org.springframework.retry.policy.NeverRetryPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/* --------------------------------------------------------------------------
+ * Batch Box Score Fetcher
+ *
+ * FUNCTIONALITY:
+ * - Fetches many games' box scores at once on virtual threads, at most
+ *   nba.batch.concurrency in flight
+ * - Hands each result to the caller as soon as it completes, so responses
+ *   can stream instead of waiting for the slowest game
+ * - Retries transient failures (I/O errors, 429 and 5xx) with jittered
+ *   exponential backoff; other failures are reported for that game only
+ *
+ * IMPORTANT NOTES:
+ * - Finished games with a current box score in the local store are served
+ *   from it and cost no quota
+ * - Upstream calls go through NbaAPIService, so they share its response
+ *   cache and its per-minute quota; every retry takes a quota token too
+ * - Misses are fetched outside the cache's loader, so a virtual thread never
+ *   blocks on HTTP inside the cache's lock and pins its carrier thread
+ * - Results arrive in completion order, not request order
+ * -------------------------------------------------------------------------- */
+@Service
+public class NbaBatchFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaBatchFetcher.class);
+    private static final double BACKOFF_MULTIPLIER = 2.0;
+
+    private final NbaAPIService nbaAPIService;
+    private final NbaStatsStore store;
+    private final int concurrency;
+    private final RetryTemplate retryTemplate;
+
+    @Autowired
+    public NbaBatchFetcher(NbaAPIService nbaAPIService, NbaStatsStore store,
+                           @Value("${nba.batch.concurrency:8}") int concurrency,
+                           @Value("${nba.batch.max-attempts:4}") int maxAttempts,
+                           @Value("${nba.batch.initial-backoff:PT0.5S}") Duration initialBackoff,
+                           @Value("${nba.batch.max-backoff:PT8S}") Duration maxBackoff) {
+        this(nbaAPIService, store, concurrency, maxAttempts, initialBackoff, maxBackoff, new ThreadWaitSleeper());
+    }
+
+    NbaBatchFetcher(NbaAPIService nbaAPIService, NbaStatsStore store, int concurrency, int maxAttempts,
+                    Duration initialBackoff, Duration maxBackoff, Sleeper sleeper) {
+        this.nbaAPIService = nbaAPIService;
+        this.store = store;
+        this.concurrency = concurrency;
+        this.retryTemplate = retryTemplate(maxAttempts, initialBackoff, maxBackoff, sleeper);
+    }
+
+    /**
+     * Fetches the box scores of several games and hands over each one as it completes
+     *
+     * @param gameIds API game ids; duplicates are fetched once and nulls are skipped
+     * @param onResult Receives every result on the calling thread, one at a time
+     * @note Blocks until all games are done. If onResult throws, games still
+     *       in flight are cancelled and the exception propagates.
+     */
+    public void fetchPlayerStatistics(Collection<Integer> gameIds, Consumer<NbaGameStatisticsResult> onResult) {
+        List<Integer> ids = gameIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, ids.size()),
+            Thread.ofVirtual().name("NbaBatch-", 0).factory());
+        try {
+            CompletionService<NbaGameStatisticsResult> completed = new ExecutorCompletionService<>(pool);
+            for (int id : ids) {
+                completed.submit(() -> fetchOne(id));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                onResult.accept(completed.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // fetchOne reports failures as results
+            throw new IllegalStateException("Unexpected batch fetch failure", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private NbaGameStatisticsResult fetchOne(int gameId) {
+        try {
+            List<NbaPlayerStatistics> stored = store.findFinalPlayerStatistics(gameId);
+            if (stored != null) {
+                return NbaGameStatisticsResult.success(gameId, stored);
+            }
+            List<NbaPlayerStatistics> cached = nbaAPIService.getCachedPlayerStatistics(gameId);
+            if (cached != null) {
+                return NbaGameStatisticsResult.success(gameId, cached);
+            }
+            return NbaGameStatisticsResult.success(gameId,
+                retryTemplate.execute(context -> nbaAPIService.fetchPlayerStatistics(gameId)));
+        } catch (NbaApiException | DataAccessException e) {
+            logger.warn("Batch fetch of NBA game {} failed: {}", gameId, e.getMessage());
+            return NbaGameStatisticsResult.failure(gameId, e.getMessage());
+        }
+    }
+
+    private static RetryTemplate retryTemplate(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                                               Sleeper sleeper) {
+        SimpleRetryPolicy transientFailures = new SimpleRetryPolicy(maxAttempts, Map.of(NbaApiException.class, true));
+        NeverRetryPolicy permanentFailures = new NeverRetryPolicy();
+        ExceptionClassifierRetryPolicy retryPolicy = new ExceptionClassifierRetryPolicy();
+        retryPolicy.setExceptionClassifier(e -> e instanceof NbaApiException apiException && apiException.isRetryable()
+            ? transientFailures : permanentFailures);
+
+        // Each wait is a random value between the exponential interval and multiplier times it
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialBackoff.toMillis());
+        backOffPolicy.setMultiplier(BACKOFF_MULTIPLIER);
+        backOffPolicy.setMaxInterval(maxBackoff.toMillis());
+        backOffPolicy.setSleeper(sleeper);
+
+        RetryTemplate template = new RetryTemplate();
+        template.setRetryPolicy(retryPolicy);
+        template.setBackOffPolicy(backOffPolicy);
+        return template;
+    }
+}
@@ -0,0 +1,341 @@
+/* ==========================================================================
+ * NBA Live Game Module
+ *
+ * PURPOSE: Pushes live game data to any number of viewers from one poller
+ * DEPENDENCIES: NbaAPIService, SseBroadcaster, Micrometer
+ * SCOPE: Live game views
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaLiveSnapshot;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* --------------------------------------------------------------------------
+ * Live Game Fan-Out
+ *
+ * FUNCTIONALITY:
+ * - One poller per game that has viewers, however many viewers there are
+ * - Adaptive polling: poll-interval while the clock runs, break-interval at
+ *   halftime, between periods and after failures, up to idle-interval
+ *   before tip-off; polling stops once the game is final
+ * - Each poll is diffed against the previous one; only a changed game and
+ *   the changed box score lines are broadcast
+ * - A viewer joining a running game first gets the full current state
+ *
+ * IMPORTANT NOTES:
+ * - Events: nba-live-snapshot (NbaLiveSnapshot, on join), nba-live-game
+ *   (NbaGame) and nba-live-stat-lines (changed NbaPlayerStatistics lines);
+ *   on SseBroadcaster's resync event a client reconnects for a new snapshot
+ * - Box scores are only fetched when the game itself changed, so a break
+ *   costs one call per break-interval
+ * - A game's poller stops and its stream closes once its last viewer has
+ *   left; at most max-games games are followed at once
+ * - Polls go through NbaAPIService's direct fetches, so they share its quota
+ *   and guard, refresh its cache, and never block inside a cache load
+ *
+ * PERFORMANCE IMPACT:
+ * - Upstream load is at most two calls per poll-interval per followed game,
+ *   independent of the number of viewers
+ * -------------------------------------------------------------------------- */
+@Service
+public class NbaLiveGameService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaLiveGameService.class);
+
+    static final String SNAPSHOT_EVENT = "nba-live-snapshot";
+    static final String GAME_EVENT = "nba-live-game";
+    static final String STAT_LINES_EVENT = "nba-live-stat-lines";
+
+    private final NbaAPIService nbaAPIService;
+    private final ObjectMapper objectMapper;
+    private final Duration pollInterval;
+    private final Duration breakInterval;
+    private final Duration idleInterval;
+    private final int maxGames;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    private final Map<Integer, LiveGame> games = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollers;
+
+    public NbaLiveGameService(NbaAPIService nbaAPIService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${nba.live.poll-interval:PT10S}") Duration pollInterval,
+                              @Value("${nba.live.break-interval:PT1M}") Duration breakInterval,
+                              @Value("${nba.live.idle-interval:PT5M}") Duration idleInterval,
+                              @Value("${nba.live.max-games:4}") int maxGames,
+                              @Value("${nba.live.buffer-size:64}") int bufferSize,
+                              @Value("${nba.live.timeout:30m}") Duration timeout) {
+        this.nbaAPIService = nbaAPIService;
+        this.objectMapper = objectMapper;
+        this.pollInterval = pollInterval;
+        this.breakInterval = breakInterval;
+        this.idleInterval = idleInterval;
+        this.maxGames = maxGames;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        // The scheduler only hands due polls to virtual threads, which do the blocking HTTP calls
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+            .name("NbaLiveScheduler").daemon().factory());
+        this.pollers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("NbaLivePoll-", 0).factory());
+        meterRegistry.gaugeMapSize("nba.live.games", List.of(), games);
+    }
+
+    /**
+     * Registers a viewer of a game and starts following the game if nobody was
+     *
+     * @param gameId API game id
+     * @returns Emitter to return from the controller, or null if max-games other
+     *          games are already followed
+     */
+    public SseEmitter subscribe(int gameId) {
+        while (true) {
+            LiveGame game = games.computeIfAbsent(gameId,
+                id -> games.size() < maxGames ? new LiveGame(id) : null);
+            if (game == null) {
+                return null;
+            }
+            SseEmitter emitter = game.subscribe();
+            if (emitter != null) {
+                game.start();
+                return emitter;
+            }
+            // Lost a race with the game's retirement; follow it afresh
+        }
+    }
+
+    /**
+     * @returns Number of games currently followed
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Keeps idle streams open and retires games whose viewers have all left,
+     * including final games that no longer poll
+     */
+    @Scheduled(fixedRateString = "${nba.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        games.values().forEach(LiveGame::heartbeat);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        pollers.shutdownNow();
+        games.values().forEach(game -> game.broadcaster.close());
+        games.clear();
+    }
+
+    /**
+     * Time until the next poll of a game
+     *
+     * @param game The game as last polled
+     * @param now Current time
+     * @returns Delay, or null once the game is final and polling stops
+     */
+    Duration nextDelay(NbaGame game, Instant now) {
+        NbaGame.Status status = game.status();
+        if (status == null) {
+            return breakInterval;
+        }
+        switch (status.code()) {
+            case 1 -> {
+                Instant start = game.date() != null ? game.date().start() : null;
+                if (start == null) {
+                    return idleInterval;
+                }
+                Duration untilStart = Duration.between(now, start);
+                return untilStart.compareTo(pollInterval) < 0 ? pollInterval
+                    : untilStart.compareTo(idleInterval) > 0 ? idleInterval : untilStart;
+            }
+            case 2 -> {
+                boolean onBreak = status.halftime() || (game.periods() != null && game.periods().endOfPeriod());
+                return onBreak ? breakInterval : pollInterval;
+            }
+            case 3 -> {
+                return null;
+            }
+            default -> {
+                return breakInterval;
+            }
+        }
+    }
+
+    /**
+     * Lines of the current box score that are new or differ from the previous one
+     *
+     * @param previous Previous lines by player id
+     * @param current Current box score
+     * @returns Changed lines in box score order
+     */
+    static List<NbaPlayerStatistics> changedLines(Map<Integer, NbaPlayerStatistics> previous,
+                                                  List<NbaPlayerStatistics> current) {
+        List<NbaPlayerStatistics> changed = new ArrayList<>();
+        for (NbaPlayerStatistics line : current) {
+            if (line.player() != null && !line.equals(previous.get(line.player().id()))) {
+                changed.add(line);
+            }
+        }
+        return changed;
+    }
+
+    /* .... Followed Game .... */
+
+    private final class LiveGame {
+
+        private final int gameId;
+        private final SseBroadcaster broadcaster;
+        private final AtomicBoolean started = new AtomicBoolean();
+        // Guards the snapshot, so a joining viewer sees exactly the state the next delta builds on
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, NbaPlayerStatistics> lines = new LinkedHashMap<>();
+        private NbaGame game;
+        private boolean finished;
+        private boolean closed;
+
+        LiveGame(int gameId) {
+            this.gameId = gameId;
+            this.broadcaster = new SseBroadcaster("nba-game-" + gameId, bufferSize, timeout, objectMapper);
+        }
+
+        SseEmitter subscribe() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return null;
+                }
+                return game == null ? broadcaster.subscribe()
+                    : broadcaster.subscribe(SNAPSHOT_EVENT, new NbaLiveSnapshot(game, List.copyOf(lines.values())));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void start() {
+            if (started.compareAndSet(false, true)) {
+                logger.info("Following live NBA game {}", gameId);
+                schedule(Duration.ZERO);
+            }
+        }
+
+        void heartbeat() {
+            broadcaster.heartbeat();
+            lock.lock();
+            try {
+                if (!finished) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            retireIfUnwatched();
+        }
+
+        private void schedule(Duration delay) {
+            try {
+                scheduler.schedule(() -> pollers.execute(this::poll), delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+
+        private void poll() {
+            if (retireIfUnwatched()) {
+                return;
+            }
+            Duration delay;
+            try {
+                NbaGame current = nbaAPIService.fetchGame(gameId);
+                if (current == null) {
+                    logger.warn("Live NBA game {} is unknown upstream", gameId);
+                    delay = idleInterval;
+                } else {
+                    boolean changed = !current.equals(game);
+                    List<NbaPlayerStatistics> statistics = changed && current.status() != null
+                        && current.status().code() != 1 ? nbaAPIService.fetchPlayerStatistics(gameId) : null;
+                    publish(current, changed, statistics);
+                    delay = nextDelay(current, Instant.now());
+                }
+            } catch (NbaApiException e) {
+                logger.debug("Live poll of NBA game {} failed: {}", gameId, e.getMessage());
+                delay = breakInterval;
+            } catch (RuntimeException e) {
+                logger.error("Live poll of NBA game {} failed", gameId, e);
+                delay = breakInterval;
+            }
+            if (delay != null) {
+                schedule(delay);
+            } else {
+                logger.info("Live NBA game {} is final; stopped polling", gameId);
+            }
+        }
+
+        private void publish(NbaGame current, boolean changed, List<NbaPlayerStatistics> statistics) {
+            lock.lock();
+            try {
+                if (changed) {
+                    game = current;
+                    broadcaster.broadcast(GAME_EVENT, current);
+                }
+                if (statistics != null) {
+                    List<NbaPlayerStatistics> changedLines = changedLines(lines, statistics);
+                    changedLines.forEach(line -> lines.put(line.player().id(), line));
+                    if (!changedLines.isEmpty()) {
+                        broadcaster.broadcast(STAT_LINES_EVENT, changedLines);
+                    }
+                }
+                finished = current.status() != null && current.status().isFinished();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @returns true if nobody watches the game any more and it was retired
+         */
+        private boolean retireIfUnwatched() {
+            lock.lock();
+            try {
+                if (closed || broadcaster.getClientCount() > 0) {
+                    return closed;
+                }
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            games.remove(gameId, this);
+            broadcaster.close();
+            logger.info("Stopped following live NBA game {}: no viewers left", gameId);
+            return true;
+        }
+    }
+}
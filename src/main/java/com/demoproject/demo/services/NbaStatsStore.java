@@ -0,0 +1,504 @@
+/* ==========================================================================
+ * NBA Statistics Store Module
+ *
+ * PURPOSE: Local PostgreSQL copy of NBA teams, players, games and box scores
+ * DEPENDENCIES: JdbcTemplate, PostgreSQL
+ * SCOPE: Persistence for NbaSyncService and reads for the NBA pages
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.demoproject.demo.dto.NbaTeam;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* --------------------------------------------------------------------------
+ * NBA Statistics Store
+ *
+ * FUNCTIONALITY:
+ * - Creates the nba_* tables and their indexes on start
+ * - Upserts games, teams, players and per-game player statistics
+ * - Records which dates have been synced and whether they are complete,
+ *   which is the sync checkpoint
+ * - Reads everything back as the same records the API client returns
+ *
+ * IMPORTANT NOTES:
+ * - Rows are keyed by the API's ids, so repeated syncs are idempotent
+ * - A game upsert only writes when status, clock, period or score changed,
+ *   and updated_at only moves on a real change
+ * - stats_synced_at older than updated_at means the box score is behind
+ *   the game and must be fetched again
+ *
+ * PERFORMANCE IMPACT:
+ * - Every page read is a primary key or single index range lookup
+ * -------------------------------------------------------------------------- */
+@Component
+public class NbaStatsStore {
+
+    private static final List<String> SCHEMA_SQL = List.of(
+        "CREATE TABLE IF NOT EXISTS nba_teams (" +
+            "id INTEGER PRIMARY KEY, " +
+            "name VARCHAR(100), " +
+            "nickname VARCHAR(50), " +
+            "code VARCHAR(10), " +
+            "logo VARCHAR(500))",
+        "CREATE TABLE IF NOT EXISTS nba_players (" +
+            "id INTEGER PRIMARY KEY, " +
+            "first_name VARCHAR(100), " +
+            "last_name VARCHAR(100), " +
+            "team_id INTEGER REFERENCES nba_teams (id))",
+        "CREATE TABLE IF NOT EXISTS nba_games (" +
+            "id INTEGER PRIMARY KEY, " +
+            "season INTEGER, " +
+            "game_date DATE NOT NULL, " +
+            "start_time TIMESTAMPTZ, " +
+            "end_time TIMESTAMPTZ, " +
+            "status_code SMALLINT NOT NULL, " +
+            "status VARCHAR(30), " +
+            "clock VARCHAR(10), " +
+            "halftime BOOLEAN NOT NULL DEFAULT FALSE, " +
+            "current_period SMALLINT, " +
+            "total_periods SMALLINT, " +
+            "end_of_period BOOLEAN NOT NULL DEFAULT FALSE, " +
+            "home_team_id INTEGER REFERENCES nba_teams (id), " +
+            "visitor_team_id INTEGER REFERENCES nba_teams (id), " +
+            "home_points INTEGER, " +
+            "visitor_points INTEGER, " +
+            "home_linescore VARCHAR(100), " +
+            "visitor_linescore VARCHAR(100), " +
+            "updated_at TIMESTAMPTZ NOT NULL DEFAULT now(), " +
+            "stats_synced_at TIMESTAMPTZ)",
+        "CREATE INDEX IF NOT EXISTS idx_nba_games_date ON nba_games (game_date, start_time)",
+        "CREATE TABLE IF NOT EXISTS nba_player_game_stats (" +
+            "game_id INTEGER NOT NULL REFERENCES nba_games (id), " +
+            "player_id INTEGER NOT NULL REFERENCES nba_players (id), " +
+            "team_id INTEGER REFERENCES nba_teams (id), " +
+            "points INTEGER, pos VARCHAR(10), min VARCHAR(10), " +
+            "fgm INTEGER, fga INTEGER, fgp VARCHAR(10), " +
+            "ftm INTEGER, fta INTEGER, ftp VARCHAR(10), " +
+            "tpm INTEGER, tpa INTEGER, tpp VARCHAR(10), " +
+            "off_reb INTEGER, def_reb INTEGER, tot_reb INTEGER, " +
+            "assists INTEGER, p_fouls INTEGER, steals INTEGER, " +
+            "turnovers INTEGER, blocks INTEGER, plus_minus VARCHAR(10), " +
+            "PRIMARY KEY (game_id, player_id))",
+        "CREATE INDEX IF NOT EXISTS idx_nba_player_game_stats_player ON nba_player_game_stats (player_id)",
+        "CREATE TABLE IF NOT EXISTS nba_sync_dates (" +
+            "game_date DATE PRIMARY KEY, " +
+            "complete BOOLEAN NOT NULL, " +
+            "synced_at TIMESTAMPTZ NOT NULL)");
+
+    private static final String UPSERT_TEAM_SQL =
+        "INSERT INTO nba_teams (id, name, nickname, code, logo) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, nickname = EXCLUDED.nickname, " +
+        "code = EXCLUDED.code, logo = EXCLUDED.logo " +
+        "WHERE (nba_teams.name, nba_teams.nickname, nba_teams.code, nba_teams.logo) " +
+        "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.nickname, EXCLUDED.code, EXCLUDED.logo)";
+
+    private static final String UPSERT_PLAYER_SQL =
+        "INSERT INTO nba_players (id, first_name, last_name, team_id) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name, " +
+        "team_id = EXCLUDED.team_id " +
+        "WHERE (nba_players.first_name, nba_players.last_name, nba_players.team_id) " +
+        "IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name, EXCLUDED.team_id)";
+
+    private static final String GAME_COLUMNS =
+        "season, game_date, start_time, end_time, status_code, status, clock, halftime, " +
+        "current_period, total_periods, end_of_period, home_team_id, visitor_team_id, " +
+        "home_points, visitor_points, home_linescore, visitor_linescore";
+
+    private static final String UPSERT_GAME_SQL =
+        "INSERT INTO nba_games (id, " + GAME_COLUMNS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET (" + GAME_COLUMNS + ", updated_at) = (" +
+        excluded(GAME_COLUMNS) + ", now()) " +
+        "WHERE (" + qualified("nba_games", GAME_COLUMNS) + ") IS DISTINCT FROM (" + excluded(GAME_COLUMNS) + ")";
+
+    private static final String STATS_COLUMNS =
+        "game_id, player_id, team_id, points, pos, min, fgm, fga, fgp, ftm, fta, ftp, tpm, tpa, tpp, " +
+        "off_reb, def_reb, tot_reb, assists, p_fouls, steals, turnovers, blocks, plus_minus";
+
+    private static final String INSERT_STATS_SQL =
+        "INSERT INTO nba_player_game_stats (" + STATS_COLUMNS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_GAMES_SQL =
+        "SELECT g.id, g.season, g.start_time, g.end_time, g.status_code, g.status, g.clock, g.halftime, " +
+        "g.current_period, g.total_periods, g.end_of_period, g.home_points, g.visitor_points, " +
+        "g.home_linescore, g.visitor_linescore, " +
+        "h.id AS h_id, h.name AS h_name, h.nickname AS h_nickname, h.code AS h_code, h.logo AS h_logo, " +
+        "v.id AS v_id, v.name AS v_name, v.nickname AS v_nickname, v.code AS v_code, v.logo AS v_logo " +
+        "FROM nba_games g " +
+        "LEFT JOIN nba_teams h ON h.id = g.home_team_id " +
+        "LEFT JOIN nba_teams v ON v.id = g.visitor_team_id ";
+
+    private static final String SELECT_STATS_SQL =
+        "SELECT s.*, p.first_name, p.last_name, " +
+        "t.id AS t_id, t.name AS t_name, t.nickname AS t_nickname, t.code AS t_code, t.logo AS t_logo " +
+        "FROM nba_player_game_stats s " +
+        "JOIN nba_players p ON p.id = s.player_id " +
+        "LEFT JOIN nba_teams t ON t.id = s.team_id ";
+
+    /**
+     * Sync bookkeeping for one stored game
+     *
+     * @param id API game id
+     * @param statusCode 1 scheduled, 2 in play, 3 finished
+     * @param statisticsCurrent Whether the stored box score was fetched after the game last changed
+     */
+    public record GameSyncState(int id, int statusCode, boolean statisticsCurrent) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public NbaStatsStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the tables and indexes if they do not exist yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        transactionTemplate.executeWithoutResult(status -> SCHEMA_SQL.forEach(jdbcTemplate::execute));
+    }
+
+    /* .... Sync Writes .... */
+
+    /**
+     * Upserts the games of one date and their teams
+     *
+     * @param date Date the games were listed under
+     * @param games Games as returned by the API
+     * @returns Number of games that were new or changed
+     */
+    public int saveGames(LocalDate date, List<NbaGame> games) {
+        Integer changed = transactionTemplate.execute(status -> {
+            Map<Integer, NbaTeam> teams = new LinkedHashMap<>();
+            for (NbaGame game : games) {
+                addTeam(teams, side(game.teams(), true));
+                addTeam(teams, side(game.teams(), false));
+            }
+            upsertTeams(teams.values());
+
+            int count = 0;
+            for (NbaGame game : games) {
+                count += jdbcTemplate.update(UPSERT_GAME_SQL, gameRow(date, game));
+            }
+            return count;
+        });
+        return changed != null ? changed : 0;
+    }
+
+    /**
+     * Replaces the box score of a game and marks it current
+     *
+     * @param gameId API game id
+     * @param statistics Box score lines as returned by the API
+     */
+    public void savePlayerStatistics(int gameId, List<NbaPlayerStatistics> statistics) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, NbaTeam> teams = new LinkedHashMap<>();
+            statistics.forEach(line -> addTeam(teams, line.team()));
+            upsertTeams(teams.values());
+
+            List<Object[]> players = new ArrayList<>();
+            List<Object[]> lines = new ArrayList<>();
+            for (NbaPlayerStatistics line : statistics) {
+                if (line.player() == null) {
+                    continue;
+                }
+                Integer teamId = line.team() != null ? line.team().id() : null;
+                players.add(new Object[] {line.player().id(), line.player().firstname(),
+                    line.player().lastname(), teamId});
+                lines.add(new Object[] {gameId, line.player().id(), teamId, line.points(), line.pos(), line.min(),
+                    line.fgm(), line.fga(), line.fgp(), line.ftm(), line.fta(), line.ftp(),
+                    line.tpm(), line.tpa(), line.tpp(), line.offReb(), line.defReb(), line.totReb(),
+                    line.assists(), line.pFouls(), line.steals(), line.turnovers(), line.blocks(),
+                    line.plusMinus()});
+            }
+            jdbcTemplate.batchUpdate(UPSERT_PLAYER_SQL, players);
+            jdbcTemplate.update("DELETE FROM nba_player_game_stats WHERE game_id = ?", gameId);
+            jdbcTemplate.batchUpdate(INSERT_STATS_SQL, lines);
+            jdbcTemplate.update("UPDATE nba_games SET stats_synced_at = clock_timestamp() WHERE id = ?", gameId);
+        });
+    }
+
+    /**
+     * Lists sync state of the games stored for a date
+     *
+     * @param date Game date
+     * @returns One entry per stored game
+     */
+    public List<GameSyncState> findSyncStates(LocalDate date) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            "SELECT id, status_code, stats_synced_at IS NOT NULL AND stats_synced_at >= updated_at AS current " +
+            "FROM nba_games WHERE game_date = ?",
+            (rs, rowNum) -> new GameSyncState(rs.getInt("id"), rs.getInt("status_code"), rs.getBoolean("current")),
+            Date.valueOf(date)));
+    }
+
+    /* .... Checkpoint .... */
+
+    /**
+     * Records that a date was synced
+     *
+     * @param date Game date
+     * @param complete Whether the date needs no further syncing
+     */
+    public void markDateSynced(LocalDate date, boolean complete) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+            "INSERT INTO nba_sync_dates (game_date, complete, synced_at) VALUES (?, ?, now()) " +
+            "ON CONFLICT (game_date) DO UPDATE SET complete = EXCLUDED.complete, synced_at = now()",
+            Date.valueOf(date), complete));
+    }
+
+    /**
+     * @returns Synced dates that still have unfinished games, oldest first
+     */
+    public List<LocalDate> findIncompleteDates() {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            "SELECT game_date FROM nba_sync_dates WHERE NOT complete ORDER BY game_date",
+            (rs, rowNum) -> rs.getDate(1).toLocalDate()));
+    }
+
+    /**
+     * Dates that were never synced, from the earliest synced date or the given start,
+     * whichever is older, up to the given bound
+     *
+     * @param start Start of the series when nothing older has been synced
+     * @param before Exclusive upper bound
+     * @param limit Maximum number of dates
+     * @returns Missing dates, oldest first
+     */
+    public List<LocalDate> findUnsyncedDates(LocalDate start, LocalDate before, int limit) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            "SELECT day::date FROM generate_series(" +
+            "LEAST((SELECT MIN(game_date) FROM nba_sync_dates), CAST(? AS date)), " +
+            "CAST(? AS date) - 1, interval '1 day') AS day " +
+            "WHERE NOT EXISTS (SELECT 1 FROM nba_sync_dates WHERE game_date = day::date) " +
+            "ORDER BY day LIMIT ?",
+            (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+            Date.valueOf(start), Date.valueOf(before), limit));
+    }
+
+    /**
+     * @param date Game date
+     * @returns Whether the games of the date have been synced at least once
+     */
+    public boolean isDateSynced(LocalDate date) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM nba_sync_dates WHERE game_date = ?)", Boolean.class, Date.valueOf(date))));
+    }
+
+    /* .... Page Reads .... */
+
+    /**
+     * @param date Game date
+     * @returns Stored games of the date in start order
+     */
+    public List<NbaGame> findGames(LocalDate date) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            SELECT_GAMES_SQL + "WHERE g.game_date = ? ORDER BY g.start_time, g.id",
+            this::mapGame, Date.valueOf(date)));
+    }
+
+    /**
+     * @param gameId API game id
+     * @returns The stored game, or null if it has not been synced
+     */
+    public NbaGame findGame(int gameId) {
+        List<NbaGame> games = transactionTemplate.execute(status -> jdbcTemplate.query(
+            SELECT_GAMES_SQL + "WHERE g.id = ?", this::mapGame, gameId));
+        return games == null || games.isEmpty() ? null : games.get(0);
+    }
+
+    /**
+     * @param gameId API game id
+     * @returns Stored box score of the game, or null if it has never been synced
+     */
+    public List<NbaPlayerStatistics> findPlayerStatistics(int gameId) {
+        return transactionTemplate.execute(status -> {
+            Boolean synced = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM nba_games WHERE id = ? AND stats_synced_at IS NOT NULL)",
+                Boolean.class, gameId);
+            if (!Boolean.TRUE.equals(synced)) {
+                return null;
+            }
+            return jdbcTemplate.query(SELECT_STATS_SQL + "WHERE s.game_id = ? ORDER BY s.team_id, s.points DESC NULLS LAST",
+                statisticsMapper(), gameId);
+        });
+    }
+
+    /**
+     * @param gameId API game id
+     * @returns Stored box score of the game if it is finished and the box score is current, else null
+     */
+    public List<NbaPlayerStatistics> findFinalPlayerStatistics(int gameId) {
+        return transactionTemplate.execute(status -> {
+            Boolean isFinal = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM nba_games WHERE id = ? AND status_code = 3 " +
+                "AND stats_synced_at >= updated_at)", Boolean.class, gameId);
+            if (!Boolean.TRUE.equals(isFinal)) {
+                return null;
+            }
+            return jdbcTemplate.query(SELECT_STATS_SQL + "WHERE s.game_id = ? ORDER BY s.team_id, s.points DESC NULLS LAST",
+                statisticsMapper(), gameId);
+        });
+    }
+
+    /**
+     * @param playerId API player id
+     * @param limit Maximum number of games
+     * @returns The player's box scores, most recent game first
+     */
+    public List<NbaPlayerStatistics> findPlayerGameLog(int playerId, int limit) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            SELECT_STATS_SQL + "JOIN nba_games g ON g.id = s.game_id " +
+            "WHERE s.player_id = ? ORDER BY g.game_date DESC, g.id DESC LIMIT ?",
+            statisticsMapper(), playerId, limit));
+    }
+
+    /**
+     * @returns Every stored team by name
+     */
+    public List<NbaTeam> findTeams() {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+            "SELECT id, name, nickname, code, logo FROM nba_teams ORDER BY name",
+            (rs, rowNum) -> new NbaTeam(rs.getInt("id"), rs.getString("name"), rs.getString("nickname"),
+                rs.getString("code"), rs.getString("logo"))));
+    }
+
+    /* .... Helpers .... */
+
+    private void upsertTeams(Collection<NbaTeam> teams) {
+        jdbcTemplate.batchUpdate(UPSERT_TEAM_SQL, teams.stream()
+            .map(team -> new Object[] {team.id(), team.name(), team.nickname(), team.code(), team.logo()})
+            .toList());
+    }
+
+    private static void addTeam(Map<Integer, NbaTeam> teams, NbaTeam team) {
+        if (team != null) {
+            teams.putIfAbsent(team.id(), team);
+        }
+    }
+
+    private static <T> T side(NbaGame.Matchup<T> matchup, boolean home) {
+        return matchup == null ? null : home ? matchup.home() : matchup.visitors();
+    }
+
+    private static Object[] gameRow(LocalDate date, NbaGame game) {
+        NbaGame.Status status = game.status();
+        NbaGame.Periods periods = game.periods();
+        NbaTeam home = side(game.teams(), true);
+        NbaTeam visitors = side(game.teams(), false);
+        NbaGame.Score homeScore = side(game.scores(), true);
+        NbaGame.Score visitorScore = side(game.scores(), false);
+        return new Object[] {
+            game.id(), game.season(), Date.valueOf(date),
+            game.date() != null ? timestamp(game.date().start()) : null,
+            game.date() != null ? timestamp(game.date().end()) : null,
+            status != null ? status.code() : 1,
+            status != null ? status.description() : null,
+            status != null ? status.clock() : null,
+            status != null && status.halftime(),
+            periods != null ? periods.current() : null,
+            periods != null ? periods.total() : null,
+            periods != null && periods.endOfPeriod(),
+            home != null ? home.id() : null,
+            visitors != null ? visitors.id() : null,
+            homeScore != null ? homeScore.points() : null,
+            visitorScore != null ? visitorScore.points() : null,
+            homeScore != null ? linescore(homeScore.linescore()) : null,
+            visitorScore != null ? linescore(visitorScore.linescore()) : null
+        };
+    }
+
+    private NbaGame mapGame(ResultSet rs, int rowNum) throws SQLException {
+        return new NbaGame(rs.getInt("id"), rs.getInt("season"),
+            new NbaGame.Schedule(instant(rs.getTimestamp("start_time")), instant(rs.getTimestamp("end_time"))),
+            new NbaGame.Status(rs.getString("clock"), rs.getBoolean("halftime"), rs.getInt("status_code"),
+                rs.getString("status")),
+            new NbaGame.Periods(rs.getInt("current_period"), rs.getInt("total_periods"),
+                rs.getBoolean("end_of_period")),
+            new NbaGame.Matchup<>(team(rs, "h_"), team(rs, "v_")),
+            new NbaGame.Matchup<>(
+                new NbaGame.Score(integer(rs, "home_points"), linescore(rs.getString("home_linescore"))),
+                new NbaGame.Score(integer(rs, "visitor_points"), linescore(rs.getString("visitor_linescore")))));
+    }
+
+    private static RowMapper<NbaPlayerStatistics> statisticsMapper() {
+        return (rs, rowNum) -> new NbaPlayerStatistics(
+            new NbaPlayerStatistics.Player(rs.getInt("player_id"), rs.getString("first_name"),
+                rs.getString("last_name")),
+            team(rs, "t_"),
+            new NbaPlayerStatistics.GameRef(rs.getInt("game_id")),
+            integer(rs, "points"), rs.getString("pos"), rs.getString("min"),
+            integer(rs, "fgm"), integer(rs, "fga"), rs.getString("fgp"),
+            integer(rs, "ftm"), integer(rs, "fta"), rs.getString("ftp"),
+            integer(rs, "tpm"), integer(rs, "tpa"), rs.getString("tpp"),
+            integer(rs, "off_reb"), integer(rs, "def_reb"), integer(rs, "tot_reb"),
+            integer(rs, "assists"), integer(rs, "p_fouls"), integer(rs, "steals"),
+            integer(rs, "turnovers"), integer(rs, "blocks"), rs.getString("plus_minus"));
+    }
+
+    private static NbaTeam team(ResultSet rs, String prefix) throws SQLException {
+        Integer id = integer(rs, prefix + "id");
+        return id == null ? null : new NbaTeam(id, rs.getString(prefix + "name"), rs.getString(prefix + "nickname"),
+            rs.getString(prefix + "code"), rs.getString(prefix + "logo"));
+    }
+
+    private static Integer integer(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    // Per-period points are stored comma-separated; the API uses "" for periods not yet played
+    private static String linescore(List<String> linescore) {
+        return linescore != null ? String.join(",", linescore) : null;
+    }
+
+    private static List<String> linescore(String stored) {
+        return stored != null ? Arrays.asList(stored.split(",", -1)) : null;
+    }
+
+    private static String excluded(String columns) {
+        return qualified("EXCLUDED", columns);
+    }
+
+    private static String qualified(String table, String columns) {
+        return Arrays.stream(columns.split(",\\s*"))
+            .map(column -> table + "." + column)
+            .reduce((a, b) -> a + ", " + b)
+            .orElseThrow();
+    }
+}
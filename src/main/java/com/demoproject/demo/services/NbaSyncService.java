@@ -0,0 +1,181 @@
+/* ==========================================================================
+ * NBA Sync Module
+ *
+ * PURPOSE: Keeps the local NBA store current with incremental syncs
+ * DEPENDENCIES: NbaAPIService, NbaStatsStore, Spring scheduling
+ * SCOPE: Background job
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import com.demoproject.demo.services.NbaStatsStore.GameSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/* --------------------------------------------------------------------------
+ * Incremental NBA Sync
+ *
+ * FUNCTIONALITY:
+ * - Each run lists the games of today and of every date still open in the
+ *   checkpoint, plus a few new dates while backfilling, oldest first
+ * - Game rows are only rewritten when they changed upstream
+ * - Box scores are fetched only for started games whose stored box score
+ *   is older than their last change, with bounded concurrency
+ * - A date is checkpointed as complete once every game on it is finished
+ *   with a current box score; complete dates are never fetched again
+ *
+ * IMPORTANT NOTES:
+ * - The first run backfills initial-days days; later runs fill every date
+ *   missing from the checkpoint since then, oldest first, so a restart or
+ *   an outage only delays the sync
+ * - A run stops at the first date the API cannot list and resumes there
+ * - Unfinished games stop holding their date open after SETTLE_DAYS, so a
+ *   postponed game is not polled forever; finished games without a box
+ *   score always do
+ * - Runs never overlap on one instance; concurrent instances only repeat
+ *   idempotent upserts
+ *
+ * PERFORMANCE IMPACT:
+ * - A quiet run costs one API call per open date
+ * - Upstream calls in flight are capped at nba.sync.concurrency
+ * -------------------------------------------------------------------------- */
+@Service
+public class NbaSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaSyncService.class);
+    private static final int SETTLE_DAYS = 2;
+
+    private final NbaAPIService nbaAPIService;
+    private final NbaStatsStore store;
+    private final boolean enabled;
+    private final int initialDays;
+    private final int maxBackfillDatesPerRun;
+    private final int concurrency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public NbaSyncService(NbaAPIService nbaAPIService, NbaStatsStore store,
+                          @Value("${nba.sync.enabled:true}") boolean enabled,
+                          @Value("${nba.sync.initial-days:7}") int initialDays,
+                          @Value("${nba.sync.max-backfill-dates-per-run:3}") int maxBackfillDatesPerRun,
+                          @Value("${nba.sync.concurrency:4}") int concurrency) {
+        this.nbaAPIService = nbaAPIService;
+        this.store = store;
+        this.enabled = enabled;
+        this.initialDays = initialDays;
+        this.maxBackfillDatesPerRun = maxBackfillDatesPerRun;
+        this.concurrency = concurrency;
+    }
+
+    @Scheduled(fixedDelayString = "${nba.sync.interval:PT5M}", initialDelayString = "${nba.sync.initial-delay:PT1M}")
+    public void scheduledSync() {
+        if (enabled) {
+            sync();
+        }
+    }
+
+    /**
+     * Runs one incremental sync
+     *
+     * @returns false if a sync was already running on this instance
+     */
+    public boolean sync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            List<LocalDate> dates = datesToSync(today);
+            logger.debug("Syncing NBA dates {}", dates);
+            try (ExecutorService pool = Executors.newFixedThreadPool(concurrency,
+                    Thread.ofVirtual().name("NbaSync-", 0).factory())) {
+                for (LocalDate date : dates) {
+                    if (!syncDate(date, today, pool)) {
+                        break;
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("NBA sync failed; it resumes from the checkpoint on the next run", e);
+        } finally {
+            running.set(false);
+        }
+        return true;
+    }
+
+    /**
+     * Open checkpoint dates and up to maxBackfillDatesPerRun never synced dates, always including today.
+     * Backfill takes the first gaps in the series rather than following the latest synced date,
+     * because every run also checkpoints today, which is ahead of an unfinished backfill.
+     */
+    private List<LocalDate> datesToSync(LocalDate today) {
+        TreeSet<LocalDate> dates = new TreeSet<>(
+            store.findUnsyncedDates(today.minusDays(initialDays), today, maxBackfillDatesPerRun));
+        store.findIncompleteDates().stream().filter(date -> !date.isAfter(today)).forEach(dates::add);
+        dates.add(today);
+        return new ArrayList<>(dates);
+    }
+
+    /**
+     * Sync the games of one date and the box scores that are behind
+     *
+     * @returns false if the date could not be listed and the run should stop
+     */
+    private boolean syncDate(LocalDate date, LocalDate today, ExecutorService pool) {
+        List<NbaGame> games;
+        try {
+            games = nbaAPIService.fetchGames(date);
+        } catch (NbaApiException e) {
+            logger.warn("NBA sync stopped at {}: {}", date, e.getMessage());
+            return false;
+        }
+        int changed = store.saveGames(date, games);
+
+        List<Callable<Void>> fetches = new ArrayList<>();
+        for (GameSyncState state : store.findSyncStates(date)) {
+            if (state.statusCode() != 1 && !state.statisticsCurrent()) {
+                fetches.add(() -> {
+                    store.savePlayerStatistics(state.id(), nbaAPIService.fetchPlayerStatistics(state.id()));
+                    return null;
+                });
+            }
+        }
+        int failed = 0;
+        try {
+            for (Future<Void> result : pool.invokeAll(fetches)) {
+                if (result.state() == Future.State.FAILED) {
+                    failed++;
+                    logger.warn("NBA box score sync failed for {}: {}", date, result.exceptionNow().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        boolean settled = date.isBefore(today.minusDays(SETTLE_DAYS));
+        boolean complete = store.findSyncStates(date).stream().allMatch(state -> state.statusCode() == 3
+            ? state.statisticsCurrent() : settled);
+        store.markDateSynced(date, complete);
+        logger.info("Synced NBA games of {}: {} listed, {} changed, {} box scores fetched, {} failed{}",
+            date, games.size(), changed, fetches.size() - failed, failed, complete ? ", complete" : "");
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+/* ==========================================================================
+ * NBA Upstream Guard Module
+ *
+ * PURPOSE: Keeps a slow or failing NBA API from tying up application threads
+ * DEPENDENCIES: Resilience4j circuit breaker and bulkhead, Micrometer
+ * SCOPE: Every call NbaAPIService makes to the upstream
+ * ========================================================================== */
+
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import com.demoproject.demo.services.NbaAPIService.NbaApiUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/* --------------------------------------------------------------------------
+ * NBA Upstream Guard
+ *
+ * FUNCTIONALITY:
+ * - Circuit breaker over a sliding window of recent calls; it opens when
+ *   too many of them fail or are slow, fails fast while open, and probes
+ *   the upstream with a few calls once the open period is over
+ * - Semaphore bulkhead capping concurrent upstream calls, so a hanging
+ *   upstream holds at most that many threads
+ * - Per-call deadline applied by NbaAPIService to the whole HTTP exchange
+ *
+ * IMPORTANT NOTES:
+ * - Only transient failures (I/O, timeouts, 429, 5xx) and slow calls count
+ *   against the circuit; 4xx answers and local quota waits do not
+ * - Rejected calls throw NbaApiUnavailableException; cached reads answer
+ *   those with their last good value
+ * - State transitions are logged and counted in
+ *   nba.api.circuit.transitions; resilience4j's own gauges and counters are
+ *   published under resilience4j.circuitbreaker.* and resilience4j.bulkhead.*
+ *
+ * PERFORMANCE IMPACT:
+ * - A degraded upstream costs request threads at most call-timeout each,
+ *   and nothing at all while the circuit is open
+ * -------------------------------------------------------------------------- */
+@Component
+public class NbaUpstreamGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(NbaUpstreamGuard.class);
+    private static final String NAME = "nbaApi";
+    private static final int HALF_OPEN_CALLS = 3;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration callTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Counter fallbacks;
+
+    public NbaUpstreamGuard(MeterRegistry meterRegistry,
+                            @Value("${nba.api.call-timeout:PT5S}") Duration callTimeout,
+                            @Value("${nba.api.bulkhead.max-concurrent:10}") int maxConcurrent,
+                            @Value("${nba.api.bulkhead.max-wait:PT0.5S}") Duration maxWait,
+                            @Value("${nba.api.circuit.failure-rate-threshold:50}") float failureRateThreshold,
+                            @Value("${nba.api.circuit.slow-call-threshold:PT3S}") Duration slowCallThreshold,
+                            @Value("${nba.api.circuit.window-size:20}") int windowSize,
+                            @Value("${nba.api.circuit.minimum-calls:10}") int minimumCalls,
+                            @Value("${nba.api.circuit.open-duration:PT30S}") Duration openDuration) {
+        this.callTimeout = callTimeout;
+        this.meterRegistry = meterRegistry;
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(windowSize)
+            .minimumNumberOfCalls(minimumCalls)
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(slowCallThreshold)
+            .waitDurationInOpenState(openDuration)
+            .permittedNumberOfCallsInHalfOpenState(HALF_OPEN_CALLS)
+            .automaticTransitionFromOpenToHalfOpenEnabled(false)
+            .recordException(NbaUpstreamGuard::isUpstreamFailure)
+            .ignoreExceptions(BulkheadFullException.class)
+            .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrent)
+            .maxWaitDuration(maxWait)
+            .build());
+        this.bulkhead = bulkheads.bulkhead(NAME);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        this.fallbacks = meterRegistry.counter("nba.api.fallbacks");
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            logger.warn("NBA API circuit {} -> {}", transition.getFromState(), transition.getToState());
+            meterRegistry.counter("nba.api.circuit.transitions",
+                "from", transition.getFromState().name().toLowerCase(Locale.ROOT),
+                "to", transition.getToState().name().toLowerCase(Locale.ROOT)).increment();
+        });
+    }
+
+    /**
+     * Runs one upstream call through the circuit breaker and the bulkhead
+     *
+     * @param operation Name of the call, for error messages
+     * @param call The upstream call
+     * @returns The call's result
+     * @throws NbaApiUnavailableException if the circuit is open or the bulkhead stays full
+     * @throws NbaApiException if the call itself fails
+     */
+    public <T> T execute(String operation, Supplier<T> call) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreaker,
+            Bulkhead.decorateSupplier(bulkhead, call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            throw new NbaApiUnavailableException("NBA API circuit is open; skipped " + operation, false);
+        } catch (BulkheadFullException e) {
+            throw new NbaApiUnavailableException("Too many concurrent NBA API calls; skipped " + operation, true);
+        }
+    }
+
+    /**
+     * @returns Deadline for one whole HTTP exchange, including connect and body read
+     */
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    /**
+     * @returns Current circuit state, e.g. CLOSED or OPEN
+     */
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Counts a read answered with a last good value because the upstream was unavailable
+     */
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    private static boolean isUpstreamFailure(Throwable e) {
+        return e instanceof NbaApiException apiException && apiException.isRetryable();
+    }
+}
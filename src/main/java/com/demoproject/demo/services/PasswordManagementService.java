@@ -7,6 +7,7 @@
  * - Password changes with validation
  * - Secure password encoding
  * - Transactional user updates
+ * - Evicts the cached login principal after the change commits
  * 
  * DEPENDENCIES:
  * - Spring Security (PasswordEncoder)
@@ -24,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.demoproject.demo.repository.UserRepository;
 import com.demoproject.demo.entity.User;
+import com.demoproject.demo.event.UserAccountChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Service
@@ -34,18 +37,22 @@ public class PasswordManagementService {
      * -------------------------------------------------------------------------- */
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Initializes password management service with required components.
      * 
      * @param userRepository Data access for user operations
      * @param passwordEncoder Security component for password hashing
-     * @note Both dependencies are required and must be non-null
+     * @param eventPublisher Publishes account changes for cache eviction
+     * @note All dependencies are required and must be non-null
      */
     public PasswordManagementService(UserRepository userRepository, 
-                                   PasswordEncoder passwordEncoder) {
+                                   PasswordEncoder passwordEncoder,
+                                   ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     /* --------------------------------------------------------------------------
@@ -84,6 +91,7 @@ public class PasswordManagementService {
         String encodedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(encodedPassword);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(username));
     }
 
     /* --------------------------------------------------------------------------
@@ -0,0 +1,194 @@
+package com.demoproject.demo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans server-sent events out to every subscribed client.
+ * A broadcast serializes its payload once and only enqueues it per client; each client
+ * drains its own bounded queue on a virtual thread, so a slow connection never delays
+ * the publisher or the other clients. A client whose queue overflows has its backlog
+ * replaced by a single resync event telling it to reload instead of replaying deltas.
+ */
+public class SseBroadcaster implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    /**
+     * Sent to a client that fell behind and lost events
+     */
+    public static final String RESYNC_EVENT = "resync";
+
+    private final String name;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final AtomicLong eventIds = new AtomicLong();
+
+    /**
+     * @param name Stream name, used for thread names and logging
+     * @param bufferSize Events buffered per client before it is asked to resync
+     * @param timeout Lifetime of a connection before the browser has to reconnect
+     * @param objectMapper Serializer for event payloads
+     */
+    public SseBroadcaster(String name, int bufferSize, Duration timeout, ObjectMapper objectMapper) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("Buffer size must be at least 2");
+        }
+        this.name = name;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-" + name + "-", 0).factory());
+    }
+
+    /**
+     * Register a new client
+     * @return Emitter to return from the controller
+     */
+    public SseEmitter subscribe() {
+        return subscribe(null, null);
+    }
+
+    /**
+     * Register a new client and queue an event for it alone, ahead of any later broadcast
+     * @param eventName SSE event name of the initial event, or null for none
+     * @param initialPayload Object serialized to JSON for this client only
+     * @return Emitter to return from the controller
+     */
+    public SseEmitter subscribe(String eventName, Object initialPayload) {
+        String initialJson = eventName != null ? toJson(eventName, initialPayload) : null;
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Client client = new Client(emitter);
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(error -> client.close());
+        clients.add(client);
+        // Flushes the response headers right away so the browser sees the stream as open
+        client.offer(new Event(null, "connected", "{}"));
+        if (initialJson != null) {
+            client.offer(new Event(null, eventName, initialJson));
+        }
+        senders.execute(client::drain);
+        logger.debug("SSE client joined {} stream, {} connected", name, clients.size());
+        return emitter;
+    }
+
+    /**
+     * Send an event to every connected client
+     * @param eventName SSE event name
+     * @param payload Object serialized to JSON once for all clients
+     */
+    public void broadcast(String eventName, Object payload) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Event event = new Event(String.valueOf(eventIds.incrementAndGet()), eventName, toJson(eventName, payload));
+        clients.forEach(client -> client.offer(event));
+    }
+
+    /**
+     * Send a comment line to every client so proxies keep idle connections open
+     * and dead connections are detected on the next write
+     */
+    public void heartbeat() {
+        clients.forEach(client -> client.offer(Event.HEARTBEAT));
+    }
+
+    /**
+     * @return Number of connected clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    private String toJson(String eventName, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + eventName + " event", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        clients.forEach(client -> client.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private record Event(String id, String name, String data) {
+
+        static final Event HEARTBEAT = new Event(null, null, null);
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+            return id != null ? builder.id(id) : builder;
+        }
+    }
+
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private volatile boolean closed;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed || queue.offer(event)) {
+                return;
+            }
+            // Deltas are useless once one is lost; replace the backlog with a resync request
+            queue.clear();
+            queue.offer(new Event(null, RESYNC_EVENT, "{}"));
+            logger.debug("SSE client on {} stream fell behind, asking it to resync", name);
+        }
+
+        void drain() {
+            try {
+                while (!closed) {
+                    Event event = queue.poll(1, TimeUnit.SECONDS);
+                    if (event != null) {
+                        emitter.send(event.toBuilder());
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("SSE client on {} stream disconnected: {}", name, e.getMessage());
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            if (clients.remove(this)) {
+                logger.debug("SSE client left {} stream, {} connected", name, clients.size());
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@
  * - Safe user deletion with role validation
  * - Transactional integrity
  * - Admin protection
+ * - Evicts the cached login principal after the deletion commits
  * 
  * DEPENDENCIES:
  * - Spring Framework (Service, Transactional)
@@ -23,6 +24,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.demoproject.demo.repository.UserRepository;
 import com.demoproject.demo.entity.User;
+import com.demoproject.demo.event.UserAccountChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +37,7 @@ public class UserDeletionService {
      * -------------------------------------------------------------------------- */
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(UserDeletionService.class);
 
     /**
@@ -41,12 +45,15 @@ public class UserDeletionService {
      * 
      * @param userRepository Data access for user operations
      * @param auditLogService Data access for audit logging
+     * @param eventPublisher Publishes account changes for cache eviction
      * @note Repository must be non-null
      */
     public UserDeletionService(UserRepository userRepository, 
-                             AuditLogService auditLogService) {
+                             AuditLogService auditLogService,
+                             ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.auditLogService = auditLogService;
+        this.eventPublisher = eventPublisher;
     }
 
     /* --------------------------------------------------------------------------
@@ -82,6 +89,7 @@ public class UserDeletionService {
                 "User deleted: " + username);
             
             userRepository.delete(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(username));
             logger.info("Successfully deleted user: {}", username);
         } catch (Exception e) {
             logger.error("Failed to delete user: {}", username, e);
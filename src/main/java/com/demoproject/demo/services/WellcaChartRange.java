@@ -0,0 +1,71 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Half-open, bucket-aligned date range for chart queries: [start, endExclusive).
+ * Year, quarter and week requests are turned into plain bounds on the date column,
+ * so queries compare raw values and stay index-friendly.
+ *
+ * @param granularity Bucket size of the chart
+ * @param start First day of the first bucket (inclusive)
+ * @param endExclusive First day after the last bucket
+ */
+public record WellcaChartRange(Granularity granularity, LocalDate start, LocalDate endExclusive) {
+
+    public WellcaChartRange {
+        if (!endExclusive.isAfter(start)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+    }
+
+    /**
+     * Range covering every bucket that touches the inclusive dates
+     * @param granularity Bucket size
+     * @param firstDate First date to include
+     * @param lastDate Last date to include
+     * @return Aligned range
+     */
+    public static WellcaChartRange covering(Granularity granularity, LocalDate firstDate, LocalDate lastDate) {
+        if (lastDate.isBefore(firstDate)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        return new WellcaChartRange(granularity,
+            granularity.bucketStart(firstDate),
+            granularity.nextBucket(granularity.bucketStart(lastDate)));
+    }
+
+    /**
+     * Monthly buckets of a calendar quarter
+     * @throws IllegalArgumentException if the quarter is not between 1 and 4
+     */
+    public static WellcaChartRange quarter(int year, int quarter) {
+        if (quarter < 1 || quarter > 4) {
+            throw new IllegalArgumentException("Quarter must be between 1 and 4");
+        }
+        LocalDate start = LocalDate.of(year, (quarter - 1) * 3 + 1, 1);
+        return new WellcaChartRange(Granularity.MONTH, start, start.plusMonths(3));
+    }
+
+    /**
+     * @return Last day inside the range
+     */
+    public LocalDate lastDate() {
+        return endExclusive.minusDays(1);
+    }
+
+    /**
+     * @return Number of buckets in the range
+     */
+    public int bucketCount() {
+        ChronoUnit unit = switch (granularity) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+        };
+        return (int) unit.between(start, endExclusive);
+    }
+}
@@ -0,0 +1,124 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaDTO;
+import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.util.CsvFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * CSV layout shared by the Wellca bulk import and export endpoints.
+ * Columns use the WellcaDTO property names; records are read and written with {@link CsvFormat}.
+ */
+public final class WellcaCsvFormat {
+
+    /**
+     * Column order used when writing CSV. Import accepts any order and subset via the header row.
+     */
+    public static final List<String> COLUMNS = List.of(
+        "id", "date", "purolator", "fedex", "oneCourier", "goBolt",
+        "newRx", "refill", "reAuth", "hold", "profilesEntered", "whoFilledRx",
+        "activePercentage", "serviceType", "serviceCost",
+        "patientName", "patientDob", "pharmacistName"
+    );
+
+    private static final Map<String, BiConsumer<WellcaDTO, String>> SETTERS = Map.ofEntries(
+        Map.entry("id", (dto, value) -> dto.setId(Long.valueOf(value))),
+        Map.entry("date", (dto, value) -> dto.setDate(LocalDate.parse(value))),
+        Map.entry("purolator", (dto, value) -> dto.setPurolator(Integer.valueOf(value))),
+        Map.entry("fedex", (dto, value) -> dto.setFedex(Integer.valueOf(value))),
+        Map.entry("oneCourier", (dto, value) -> dto.setOneCourier(Integer.valueOf(value))),
+        Map.entry("goBolt", (dto, value) -> dto.setGoBolt(Integer.valueOf(value))),
+        Map.entry("newRx", (dto, value) -> dto.setNewRx(Integer.valueOf(value))),
+        Map.entry("refill", (dto, value) -> dto.setRefill(Integer.valueOf(value))),
+        Map.entry("reAuth", (dto, value) -> dto.setReAuth(Integer.valueOf(value))),
+        Map.entry("hold", (dto, value) -> dto.setHold(Integer.valueOf(value))),
+        Map.entry("profilesEntered", (dto, value) -> dto.setProfilesEntered(Integer.valueOf(value))),
+        Map.entry("whoFilledRx", (dto, value) -> dto.setWhoFilledRx(Integer.valueOf(value))),
+        Map.entry("activePercentage", (dto, value) -> dto.setActivePercentage(new BigDecimal(value))),
+        Map.entry("serviceType", WellcaDTO::setServiceType),
+        Map.entry("serviceCost", (dto, value) -> dto.setServiceCost(new BigDecimal(value))),
+        Map.entry("patientName", WellcaDTO::setPatientName),
+        Map.entry("patientDob", (dto, value) -> dto.setPatientDob(LocalDate.parse(value))),
+        Map.entry("pharmacistName", WellcaDTO::setPharmacistName)
+    );
+
+    private WellcaCsvFormat() {
+    }
+
+    /**
+     * Resolve a header row to canonical column names
+     * @param headerLine First line of the CSV
+     * @return Column names in file order
+     * @throws IllegalArgumentException if a column is unknown
+     */
+    public static List<String> parseHeader(String headerLine) {
+        List<String> columns = new ArrayList<>();
+        for (String name : CsvFormat.parseLine(headerLine)) {
+            String column = COLUMNS.stream()
+                .filter(known -> known.equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown CSV column: " + name));
+            columns.add(column);
+        }
+        if (!columns.contains("date")) {
+            throw new IllegalArgumentException("CSV header must contain a date column");
+        }
+        return columns;
+    }
+
+    /**
+     * Map one CSV record onto a DTO. Empty values are left null.
+     * @param columns Header columns
+     * @param values Field values of the record
+     * @return Populated DTO
+     * @throws IllegalArgumentException if the record has the wrong width or an unparsable value
+     */
+    public static WellcaDTO toDTO(List<String> columns, List<String> values) {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + columns.size() + " fields but found " + values.size());
+        }
+        WellcaDTO dto = new WellcaDTO();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                SETTERS.get(columns.get(i)).accept(dto, value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid value for " + columns.get(i) + ": " + value);
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Extract an entry's values in COLUMNS order
+     * @param entry Entry to export
+     * @return Values, with nulls for empty fields
+     */
+    public static List<Object> toValues(Wellca entry) {
+        return Arrays.asList(
+            entry.getId(), entry.getDate(), entry.getPurolator(), entry.getFedex(),
+            entry.getOneCourier(), entry.getGoBolt(), entry.getNewRx(), entry.getRefill(),
+            entry.getReAuth(), entry.getHold(), entry.getProfilesEntered(), entry.getWhoFilledRx(),
+            entry.getActivePercentage(), entry.getServiceType(), entry.getServiceCost(),
+            entry.getPatientName(), entry.getPatientDob(), entry.getPharmacistName()
+        );
+    }
+
+    /**
+     * @return The header line written by exports
+     */
+    public static String headerLine() {
+        return String.join(",", COLUMNS);
+    }
+}
@@ -0,0 +1,134 @@
+package com.demoproject.demo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the whole Wellca dashboard in one call. Each part is computed on its own
+ * virtual thread through the WellcaService proxy, so caching and read-only
+ * transactions still apply, and the page waits for the slowest part instead of the sum.
+ * Each part runs in a read-only transaction whose timeout matches the part timeout,
+ * so a part that is given up on also has its running query cancelled by the database
+ * driver rather than holding a connection until it finishes.
+ * A read-only transaction takes a connection as soon as it starts, even for a cache hit,
+ * so parts of all dashboard loads together share max-concurrent-parts slots, well below
+ * the pool size; a part that gets no slot before the deadline is reported as timed out.
+ */
+@Service
+public class WellcaDashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WellcaDashboardService.class);
+
+    private final WellcaService wellcaService;
+    private final ExecutorService executor;
+    private final Duration partTimeout;
+    private final TransactionTemplate partTransaction;
+    private final Semaphore partPermits;
+
+    public WellcaDashboardService(WellcaService wellcaService,
+                                  @Qualifier("dashboardExecutor") ExecutorService executor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${wellca.dashboard.part-timeout:5s}") Duration partTimeout,
+                                  @Value("${wellca.dashboard.max-concurrent-parts:4}") int maxConcurrentParts) {
+        this.wellcaService = wellcaService;
+        this.executor = executor;
+        this.partTimeout = partTimeout;
+        // The transaction timeout becomes the JDBC query timeout, which cancels the statement on the server
+        this.partTransaction = new TransactionTemplate(transactionManager);
+        this.partTransaction.setReadOnly(true);
+        this.partTransaction.setTimeout((int) Math.max(1, (partTimeout.toMillis() + 999) / 1000));
+        this.partPermits = new Semaphore(maxConcurrentParts, true);
+    }
+
+    /**
+     * Compute every dashboard part for the week, month and quarter containing a date.
+     * A part that fails or exceeds the per-part timeout is reported as null and listed
+     * under "errors"; the other parts are still returned.
+     * @param date Reference date
+     * @return Combined payload keyed by part name
+     */
+    public Map<String, Object> getDashboard(LocalDate date) {
+        LocalDate weekStart = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate monthStart = date.withDayOfMonth(1);
+        LocalDate monthEnd = date.withDayOfMonth(date.lengthOfMonth());
+        int quarter = (date.getMonthValue() - 1) / 3 + 1;
+
+        // All parts start together, so they share one deadline
+        long deadline = System.nanoTime() + partTimeout.toNanos();
+        Map<String, Future<?>> parts = new LinkedHashMap<>();
+        parts.put("weeklyStats", submit(() -> wellcaService.getWeeklyStats(weekStart), deadline));
+        parts.put("monthlyChart", submit(() -> wellcaService.getMonthlyChartStats(monthStart, monthEnd), deadline));
+        parts.put("quarterlyChart", submit(() -> wellcaService.getQuarterlyChartStats(date.getYear(), quarter),
+            deadline));
+        parts.put("weeklyChart", submit(() -> wellcaService.getWeeklyChartStats(monthStart, monthEnd, 1), deadline));
+        parts.put("serviceStats", submit(() -> wellcaService.getMonthlyServiceStats(monthStart), deadline));
+        parts.put("deliveryCounts", submit(() -> wellcaService.getMonthlyDeliveryCounts(monthStart), deadline));
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        dashboard.put("date", date);
+
+        for (Map.Entry<String, Future<?>> part : parts.entrySet()) {
+            Future<?> future = part.getValue();
+            try {
+                dashboard.put(part.getKey(), future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // No interrupt: on a virtual thread it closes the JDBC socket, leaving the query running
+                future.cancel(false);
+                logger.warn("Dashboard part {} timed out after {}", part.getKey(), partTimeout);
+                dashboard.put(part.getKey(), null);
+                errors.put(part.getKey(), "Timed out");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    logger.warn("Dashboard part {} got no connection slot within {}", part.getKey(), partTimeout);
+                    dashboard.put(part.getKey(), null);
+                    errors.put(part.getKey(), "Timed out");
+                    continue;
+                }
+                logger.error("Dashboard part {} failed", part.getKey(), e.getCause());
+                dashboard.put(part.getKey(), null);
+                errors.put(part.getKey(), e.getCause() instanceof IllegalArgumentException
+                    ? e.getCause().getMessage() : "Failed to load");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                parts.values().forEach(pending -> pending.cancel(false));
+                throw new IllegalStateException("Dashboard request was interrupted", e);
+            }
+        }
+
+        dashboard.put("errors", errors);
+        return dashboard;
+    }
+
+    private Future<?> submit(Supplier<?> part, long deadline) {
+        return executor.submit(() -> {
+            if (!partPermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No dashboard slot free within " + partTimeout);
+            }
+            try {
+                return partTransaction.execute(status -> part.get());
+            } finally {
+                partPermits.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.repository.WellcaRepository;
+import com.demoproject.demo.util.CsvFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes Wellca ranges as CSV or NDJSON straight from a database cursor.
+ * Rows are detached as soon as they are written, so memory use does not
+ * depend on the size of the range.
+ */
+@Service
+public class WellcaExportService {
+    private static final Logger logger = LoggerFactory.getLogger(WellcaExportService.class);
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final WellcaRepository wellcaRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public WellcaExportService(WellcaRepository wellcaRepository, EntityManager entityManager,
+                               ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.wellcaRepository = wellcaRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write all entries between two dates (inclusive) to a stream
+     * @param startDate First date to export
+     * @param endDate Last date to export
+     * @param format Output format
+     * @param gzip Whether to gzip the output
+     * @param output Destination; flushed but not closed
+     * @return Number of rows written
+     * @throws IOException if writing to the destination fails
+     */
+    public long export(LocalDate startDate, LocalDate endDate, Format format, boolean gzip,
+                       OutputStream output) throws IOException {
+        long started = System.currentTimeMillis();
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(output, 64 * 1024) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+            gzipStream != null ? gzipStream : output, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) {
+            writer.write(WellcaCsvFormat.headerLine());
+            writer.write(CsvFormat.LINE_TERMINATOR);
+        }
+
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Wellca> entries = wellcaRepository.streamByDateRange(startDate, endDate)) {
+                    for (Wellca entry : (Iterable<Wellca>) entries::iterator) {
+                        writeRow(writer, format, entry);
+                        entityManager.detach(entry);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        output.flush();
+
+        logger.info("Exported {} Wellca entries between {} and {} as {} in {} ms",
+            rows, startDate, endDate, format, System.currentTimeMillis() - started);
+        return rows != null ? rows : 0;
+    }
+
+    private void writeRow(Writer writer, Format format, Wellca entry) throws IOException {
+        List<Object> values = WellcaCsvFormat.toValues(entry);
+        if (format == Format.CSV) {
+            writer.write(CsvFormat.formatLine(values));
+        } else {
+            // Same property names as the WellcaDTO returned by the range endpoint
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                row.put(WellcaCsvFormat.COLUMNS.get(i), values.get(i));
+            }
+            writer.write(objectMapper.writeValueAsString(row));
+        }
+        writer.write(CsvFormat.LINE_TERMINATOR);
+    }
+}
@@ -0,0 +1,254 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.dto.WellcaDTO;
+import com.demoproject.demo.dto.WellcaImportResult;
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
+import com.demoproject.demo.util.CsvFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk loads Wellca entries from CSV or NDJSON uploads.
+ * Rows are validated against the WellcaDTO constraints and written with batched
+ * JDBC inserts instead of one JPA save per row. Rollups and caches are refreshed
+ * once for the whole imported date range.
+ * Rows carrying the id of an existing entry, as in a re-imported export, are skipped
+ * and counted rather than stored twice; other ids are ignored and a new one is assigned.
+ */
+@Service
+public class WellcaImportService {
+    private static final Logger logger = LoggerFactory.getLogger(WellcaImportService.class);
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String INSERT_SQL = "INSERT INTO wellca_entries (date, purolator, fedex, one_courier, " +
+        "go_bolt, new_rx, refill, re_auth, hold, profiles_entered, who_filled_rx, active_percentage, " +
+        "service_type, service_cost, patient_name, patient_dob, pharmacist_name, patient_name_bidx) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Explicit types keep the driver from describing the statement to bind null parameters
+    private static final int[] INSERT_TYPES = {
+        Types.DATE, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+        Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+        Types.INTEGER, Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.VARCHAR, Types.DATE, Types.VARCHAR, Types.VARCHAR
+    };
+
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM wellca_entries WHERE id = ANY(?)";
+
+    private static final int DATE_INDEX = 0;
+    private static final int PATIENT_NAME_INDEX = 14;
+    private static final int PATIENT_NAME_BIDX_INDEX = 17;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AttributeEncryptor attributeEncryptor;
+    private final WellcaRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public WellcaImportService(JdbcTemplate jdbcTemplate, Validator validator, ObjectMapper objectMapper,
+                               AttributeEncryptor attributeEncryptor, WellcaRollupService rollupService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${wellca.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.attributeEncryptor = attributeEncryptor;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return true if the content type is a supported import format
+     */
+    public static boolean isSupported(MediaType contentType) {
+        return TEXT_CSV.isCompatibleWith(contentType) || APPLICATION_NDJSON.isCompatibleWith(contentType);
+    }
+
+    /**
+     * Stream rows from an upload into wellca_entries.
+     * Valid rows are stored even when others are rejected; the whole import is one transaction,
+     * so a database failure leaves no partial data behind.
+     * @param input Upload body, read as UTF-8
+     * @param contentType text/csv (with header row) or application/x-ndjson
+     * @return Counts, imported date range and per-row errors
+     * @throws IllegalArgumentException if the format is unsupported or the CSV header is invalid
+     * @throws IOException if the upload cannot be read
+     */
+    @Transactional
+    public WellcaImportResult importEntries(InputStream input, MediaType contentType) throws IOException {
+        if (!isSupported(contentType)) {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        long started = System.currentTimeMillis();
+        WellcaImportResult result = new WellcaImportResult();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        // Id column of each pending row, null where the row has none
+        List<Long> batchIds = new ArrayList<>(batchSize);
+        Set<Long> seenIds = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            // CSV records may span lines inside quoted values; NDJSON has one record per line
+            CsvFormat.RecordReader records = csv ? new CsvFormat.RecordReader(reader) : null;
+            List<String> columns = null;
+            long jsonLines = 0;
+            String line;
+            while ((line = csv ? records.next() : reader.readLine()) != null) {
+                long lineNumber = csv ? records.getLineNumber() : ++jsonLines;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = WellcaCsvFormat.parseHeader(line);
+                    continue;
+                }
+
+                WellcaDTO dto;
+                try {
+                    dto = csv
+                        ? WellcaCsvFormat.toDTO(columns, CsvFormat.parseLine(line))
+                        : objectMapper.readValue(line, WellcaDTO.class);
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, List.of(e.getMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // The original message omits the source excerpt, which may contain patient data
+                    result.reject(lineNumber, List.of("Invalid JSON: " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                Set<ConstraintViolation<WellcaDTO>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    result.reject(lineNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .toList());
+                    continue;
+                }
+
+                if (dto.getId() != null && !seenIds.add(dto.getId())) {
+                    result.skip(dto.getId());
+                    continue;
+                }
+                batch.add(toRow(dto));
+                batchIds.add(dto.getId());
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchIds, result);
+                }
+            }
+        }
+        flush(batch, batchIds, result);
+
+        if (result.getImported() > 0) {
+            rollupService.rebuild(result.getEarliestDate(), result.getLatestDate());
+            // One eviction for the whole range once the import commits
+            eventPublisher.publishEvent(
+                WellcaEntryChangedEvent.ofRange(result.getEarliestDate(), result.getLatestDate()));
+        }
+
+        logger.info("Imported {} Wellca entries ({} rejected, {} already present) in {} ms",
+            result.getImported(), result.getRejected(), result.getSkipped(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    /**
+     * Write the pending rows as one JDBC batch, leaving out rows whose id already exists
+     */
+    private void flush(List<Object[]> batch, List<Long> batchIds, WellcaImportResult result) {
+        skipExisting(batch, batchIds, result);
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.forEach(row -> result.includeDate((LocalDate) row[DATE_INDEX]));
+        // Encrypt the batch's patient names with one borrowed cipher
+        List<String> names = batch.stream().map(row -> (String) row[PATIENT_NAME_INDEX]).toList();
+        List<String> encrypted = attributeEncryptor.encryptAll(names);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i)[PATIENT_NAME_BIDX_INDEX] = attributeEncryptor.blindIndex(names.get(i));
+            batch.get(i)[PATIENT_NAME_INDEX] = encrypted.get(i);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, INSERT_TYPES);
+        result.setImported(result.getImported() + batch.size());
+        logger.debug("Flushed batch of {} Wellca entries", batch.size());
+        batch.clear();
+    }
+
+    /**
+     * Drop pending rows whose id is already stored, one lookup per batch
+     */
+    private void skipExisting(List<Object[]> batch, List<Long> batchIds, WellcaImportResult result) {
+        Long[] ids = batchIds.stream().filter(Objects::nonNull).toArray(Long[]::new);
+        if (ids.length > 0) {
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_IDS_SQL, Long.class, (Object) ids));
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                Long id = batchIds.get(i);
+                if (id != null && existing.contains(id)) {
+                    batch.remove(i);
+                    result.skip(id);
+                }
+            }
+        }
+        batchIds.clear();
+    }
+
+    /**
+     * Convert a validated DTO into insert parameters, applying the same
+     * defaults as the entity lifecycle callbacks and the submit endpoint.
+     * The patient name stays plaintext and its blind index empty until the batch is flushed.
+     */
+    private Object[] toRow(WellcaDTO dto) {
+        return new Object[] {
+            dto.getDate(),
+            zeroIfNull(dto.getPurolator()),
+            zeroIfNull(dto.getFedex()),
+            zeroIfNull(dto.getOneCourier()),
+            zeroIfNull(dto.getGoBolt()),
+            dto.getNewRx(),
+            dto.getRefill(),
+            dto.getReAuth(),
+            dto.getHold(),
+            dto.getProfilesEntered(),
+            dto.getWhoFilledRx(),
+            dto.getActivePercentage() != null ? dto.getActivePercentage() : BigDecimal.ZERO,
+            dto.getServiceType(),
+            dto.getServiceCost(),
+            dto.getPatientName(),
+            dto.getPatientDob(),
+            dto.getPharmacistName(),
+            null
+        };
+    }
+
+    private static Integer zeroIfNull(Integer value) {
+        return value != null ? value : 0;
+    }
+}
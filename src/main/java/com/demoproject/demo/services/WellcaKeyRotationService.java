@@ -0,0 +1,385 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.dto.WellcaKeyRotationStatus;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-encrypts wellca_entries.patient_name under the primary key after a key rotation,
+ * and upgrades legacy ECB values to AES-GCM along the way. Every rewritten row also
+ * gets a fresh blind index, which backfills rows written before the index existed.
+ *
+ * The id space is split into fixed chunks recorded in wellca_key_rotation_chunks.
+ * Parallel workers claim pending chunks with FOR UPDATE SKIP LOCKED, rewrite the rows
+ * with a batched compare-and-set UPDATE and mark the chunk done in the same short
+ * transaction. Completed chunks are the checkpoint: after a restart, or on another
+ * instance, the job continues with the chunks still pending. A shared rate limit keeps
+ * the load on the database bounded while the app stays online.
+ *
+ * A row that cannot be decrypted with any known key, or whose UPDATE fails, is recorded
+ * in wellca_key_rotation_failures and no longer counts as stale, so one bad row neither
+ * rolls back its chunk nor restarts the job on every boot. Deleting its failure row makes
+ * the next run retry it. A chunk that fails as a whole is retried up to
+ * MAX_CHUNK_ATTEMPTS times per run and then skipped until the next run.
+ */
+@Service
+public class WellcaKeyRotationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WellcaKeyRotationService.class);
+
+    /**
+     * Failed attempts after which a chunk is skipped for the rest of a run
+     */
+    static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final List<String> SCHEMA_SQL = List.of(
+        "CREATE TABLE IF NOT EXISTS wellca_key_rotation_chunks (" +
+            "key_id VARCHAR(16) NOT NULL, " +
+            "chunk_start BIGINT NOT NULL, " +
+            "chunk_end BIGINT NOT NULL, " +
+            "rows_updated INTEGER, " +
+            "completed_at TIMESTAMP, " +
+            "failed_attempts INTEGER NOT NULL DEFAULT 0, " +
+            "last_error VARCHAR(" + MAX_ERROR_LENGTH + "), " +
+            "PRIMARY KEY (key_id, chunk_start))",
+        // Tables created before failures were tracked
+        "ALTER TABLE wellca_key_rotation_chunks ADD COLUMN IF NOT EXISTS failed_attempts INTEGER NOT NULL DEFAULT 0",
+        "ALTER TABLE wellca_key_rotation_chunks ADD COLUMN IF NOT EXISTS last_error VARCHAR(" + MAX_ERROR_LENGTH + ")",
+        "CREATE TABLE IF NOT EXISTS wellca_key_rotation_failures (" +
+            "key_id VARCHAR(16) NOT NULL, " +
+            "entry_id BIGINT NOT NULL, " +
+            "error VARCHAR(" + MAX_ERROR_LENGTH + "), " +
+            "failed_at TIMESTAMP NOT NULL DEFAULT now(), " +
+            "PRIMARY KEY (key_id, entry_id))"
+    );
+
+    // Chunks are aligned to multiples of the chunk size, so re-planning after new inserts only adds chunks
+    private static final String PLAN_CHUNKS_SQL =
+        "INSERT INTO wellca_key_rotation_chunks (key_id, chunk_start, chunk_end) " +
+        "SELECT ?, start, start + ? FROM generate_series(" +
+        "(SELECT MIN(id) FROM wellca_entries) / ? * ?, (SELECT MAX(id) FROM wellca_entries), ?) start " +
+        "ON CONFLICT DO NOTHING";
+
+    private static final String RESET_ATTEMPTS_SQL =
+        "UPDATE wellca_key_rotation_chunks SET failed_attempts = 0 " +
+        "WHERE key_id = ? AND completed_at IS NULL AND failed_attempts > 0";
+
+    private static final String CLAIM_CHUNK_SQL =
+        "SELECT chunk_start, chunk_end FROM wellca_key_rotation_chunks " +
+        "WHERE key_id = ? AND completed_at IS NULL AND failed_attempts < ? " +
+        "ORDER BY chunk_start LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+    // Encrypted with an old key or format, or missing its blind index, and not set aside as failed.
+    // Parameters: current prefix, key id
+    private static final String STALE_ROW =
+        "patient_name IS NOT NULL AND (NOT starts_with(patient_name, ?) OR patient_name_bidx IS NULL) " +
+        "AND NOT EXISTS (SELECT 1 FROM wellca_key_rotation_failures f " +
+        "WHERE f.key_id = ? AND f.entry_id = wellca_entries.id)";
+
+    private static final String STALE_ROWS_SQL =
+        "SELECT id, patient_name FROM wellca_entries WHERE id >= ? AND id < ? AND " + STALE_ROW;
+
+    // Compare-and-set: a row changed by a user since it was read is left alone; it already uses the primary key
+    private static final String UPDATE_ROW_SQL =
+        "UPDATE wellca_entries SET patient_name = ?, patient_name_bidx = ? WHERE id = ? AND patient_name = ?";
+
+    private static final String RECORD_ROW_FAILURE_SQL =
+        "INSERT INTO wellca_key_rotation_failures (key_id, entry_id, error) VALUES (?, ?, ?) " +
+        "ON CONFLICT (key_id, entry_id) DO UPDATE SET error = EXCLUDED.error, failed_at = now()";
+
+    private static final String RECORD_CHUNK_FAILURE_SQL =
+        "UPDATE wellca_key_rotation_chunks SET failed_attempts = failed_attempts + 1, last_error = ? " +
+        "WHERE key_id = ? AND chunk_start = ?";
+
+    private static final String COMPLETE_CHUNK_SQL =
+        "UPDATE wellca_key_rotation_chunks SET completed_at = now(), rows_updated = ? " +
+        "WHERE key_id = ? AND chunk_start = ?";
+
+    // Rows written with an old key after their chunk completed, e.g. by an instance not yet redeployed
+    private static final String REOPEN_CHUNKS_SQL =
+        "UPDATE wellca_key_rotation_chunks c SET completed_at = NULL " +
+        "WHERE c.key_id = ? AND c.completed_at IS NOT NULL AND EXISTS (" +
+        "SELECT 1 FROM wellca_entries WHERE id >= c.chunk_start AND id < c.chunk_end AND " + STALE_ROW + ")";
+
+    private static final String NEEDS_ROTATION_SQL =
+        "SELECT EXISTS (SELECT 1 FROM wellca_entries WHERE " + STALE_ROW + ") " +
+        "OR EXISTS (SELECT 1 FROM wellca_key_rotation_chunks WHERE key_id = ? AND completed_at IS NULL)";
+
+    private record Chunk(long start, long end) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttributeEncryptor attributeEncryptor;
+    private final int workers;
+    private final long chunkSize;
+    private final boolean autoStart;
+    private final Bucket rateLimit;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile ExecutorService workerPool;
+
+    public WellcaKeyRotationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    AttributeEncryptor attributeEncryptor,
+                                    @Value("${encryption.rotation.workers:4}") int workers,
+                                    @Value("${encryption.rotation.chunk-size:500}") long chunkSize,
+                                    @Value("${encryption.rotation.max-rows-per-second:2000}") long maxRowsPerSecond,
+                                    @Value("${encryption.rotation.auto-start:true}") boolean autoStart) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.attributeEncryptor = attributeEncryptor;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.autoStart = autoStart;
+        // A chunk may hold up to chunkSize rows, and a blocking consume cannot exceed the capacity
+        this.rateLimit = Bucket.builder()
+            .addLimit(Bandwidth.classic(Math.max(maxRowsPerSecond, chunkSize),
+                Refill.greedy(maxRowsPerSecond, Duration.ofSeconds(1))))
+            .build();
+    }
+
+    /**
+     * Create the checkpoint tables and resume or start a rotation if any row still needs one
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfNeeded() {
+        transactionTemplate.executeWithoutResult(status -> SCHEMA_SQL.forEach(jdbcTemplate::execute));
+        if (!autoStart) {
+            return;
+        }
+        Boolean needed = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(NEEDS_ROTATION_SQL,
+            Boolean.class, attributeEncryptor.getCurrentPrefix(), keyId(), keyId()));
+        if (Boolean.TRUE.equals(needed)) {
+            start();
+        }
+    }
+
+    /**
+     * Start re-encrypting in the background
+     * @return false if a run is already in progress on this instance
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        startedAt = Instant.now();
+        finishedAt = null;
+        Thread.ofPlatform().name("wellca-key-rotation").daemon().start(this::run);
+        return true;
+    }
+
+    /**
+     * @return Progress for the primary key, including checkpoints written by other instances
+     */
+    public WellcaKeyRotationStatus getStatus() {
+        Map<String, Object> totals = transactionTemplate.execute(status -> jdbcTemplate.queryForMap(
+            "SELECT COUNT(*) AS total, COUNT(completed_at) AS completed, COALESCE(SUM(rows_updated), 0) AS rows, " +
+            "(SELECT COUNT(*) FROM wellca_key_rotation_failures WHERE key_id = ?) AS failed " +
+            "FROM wellca_key_rotation_chunks WHERE key_id = ?", keyId(), keyId()));
+        return new WellcaKeyRotationStatus(keyId(), running.get(),
+            ((Number) totals.get("total")).longValue(),
+            ((Number) totals.get("completed")).longValue(),
+            ((Number) totals.get("rows")).longValue(),
+            ((Number) totals.get("failed")).longValue(), startedAt, finishedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService pool = workerPool;
+        if (pool != null) {
+            // In-flight chunks roll back and stay pending for the next start
+            pool.shutdownNow();
+        }
+    }
+
+    private void run() {
+        String keyId = keyId();
+        try {
+            logger.info("Starting Wellca patient data re-encryption to key {}", keyId);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(PLAN_CHUNKS_SQL, keyId, chunkSize, chunkSize, chunkSize, chunkSize);
+                jdbcTemplate.update(RESET_ATTEMPTS_SQL, keyId);
+            });
+            runWorkers();
+            // One more pass for rows rewritten with an old key while the first pass ran
+            Integer reopened = transactionTemplate.execute(status ->
+                jdbcTemplate.update(REOPEN_CHUNKS_SQL, keyId, attributeEncryptor.getCurrentPrefix(), keyId));
+            if (reopened != null && reopened > 0) {
+                logger.info("Re-encrypting {} chunks that received stale rows during the run", reopened);
+                runWorkers();
+            }
+            WellcaKeyRotationStatus status = getStatus();
+            logger.info("Wellca patient data re-encryption to key {} finished: {}/{} chunks, {} rows, {} failed",
+                keyId, status.completedChunks(), status.totalChunks(), status.rowsReencrypted(), status.rowsFailed());
+        } catch (RuntimeException e) {
+            logger.error("Wellca patient data re-encryption to key {} stopped; it resumes on the next start", keyId, e);
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    private void runWorkers() {
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("wellca-key-rotation-", 0).factory())) {
+            workerPool = pool;
+            for (int i = 0; i < workers; i++) {
+                pool.submit(this::workLoop);
+            }
+        } finally {
+            workerPool = null;
+        }
+    }
+
+    /**
+     * Process chunks until none are left to claim. A chunk that fails is counted
+     * against its attempts and the worker moves on to the next one.
+     */
+    private void workLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Chunk[] claimed = new Chunk[1];
+                Integer updated;
+                try {
+                    updated = transactionTemplate.execute(status -> processNextChunk(claimed));
+                } catch (DataAccessException e) {
+                    if (claimed[0] == null) {
+                        throw e;
+                    }
+                    recordChunkFailure(claimed[0], e);
+                    continue;
+                }
+                if (updated == null) {
+                    return;
+                }
+                rateLimit.asBlocking().consume(Math.max(updated, 1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Key rotation worker failed", e);
+        }
+    }
+
+    /**
+     * Claim one pending chunk, rewrite its stale rows and checkpoint it
+     * @param claimed Receives the claimed chunk, so a failure can be charged to it
+     * @return Rows updated, or null if no chunk was left
+     */
+    private Integer processNextChunk(Chunk[] claimed) {
+        List<Chunk> chunks = jdbcTemplate.query(CLAIM_CHUNK_SQL,
+            (rs, rowNum) -> new Chunk(rs.getLong("chunk_start"), rs.getLong("chunk_end")),
+            keyId(), MAX_CHUNK_ATTEMPTS);
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        Chunk chunk = chunks.get(0);
+        claimed[0] = chunk;
+
+        List<Long> ids = new ArrayList<>();
+        List<String> stored = new ArrayList<>();
+        jdbcTemplate.query(STALE_ROWS_SQL, rs -> {
+            ids.add(rs.getLong("id"));
+            stored.add(rs.getString("patient_name"));
+        }, chunk.start(), chunk.end(), attributeEncryptor.getCurrentPrefix(), keyId());
+
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            try {
+                String plaintext = attributeEncryptor.convertToEntityAttribute(stored.get(i));
+                updates.add(new Object[] {attributeEncryptor.convertToDatabaseColumn(plaintext),
+                    attributeEncryptor.blindIndex(plaintext), ids.get(i), stored.get(i)});
+            } catch (IllegalStateException e) {
+                // Unknown key or corrupt value: leave it for an administrator rather than stall the job
+                recordRowFailure(ids.get(i), e);
+            }
+        }
+
+        int updated = updateRows(updates);
+        jdbcTemplate.update(COMPLETE_CHUNK_SQL, updated, keyId(), chunk.start());
+        logger.debug("Re-encrypted {} rows in Wellca ids [{}, {})", updated, chunk.start(), chunk.end());
+        return updated;
+    }
+
+    /**
+     * Run the compare-and-set updates as one batch. If the batch fails, roll back to a
+     * savepoint and retry row by row, setting aside each row that still fails.
+     * Must run inside the chunk's transaction.
+     * @return Rows updated
+     */
+    private int updateRows(List<Object[]> updates) {
+        jdbcTemplate.execute("SAVEPOINT wellca_rotation_batch");
+        try {
+            int updated = 0;
+            for (int count : jdbcTemplate.batchUpdate(UPDATE_ROW_SQL, updates)) {
+                updated += Math.max(count, 0);
+            }
+            jdbcTemplate.execute("RELEASE SAVEPOINT wellca_rotation_batch");
+            return updated;
+        } catch (DataAccessException e) {
+            jdbcTemplate.execute("ROLLBACK TO SAVEPOINT wellca_rotation_batch");
+            logger.warn("Batched re-encryption failed, retrying row by row: {}", errorMessage(e));
+        }
+
+        int updated = 0;
+        for (Object[] update : updates) {
+            jdbcTemplate.execute("SAVEPOINT wellca_rotation_row");
+            try {
+                updated += Math.max(jdbcTemplate.update(UPDATE_ROW_SQL, update), 0);
+                jdbcTemplate.execute("RELEASE SAVEPOINT wellca_rotation_row");
+            } catch (DataAccessException e) {
+                jdbcTemplate.execute("ROLLBACK TO SAVEPOINT wellca_rotation_row");
+                recordRowFailure((Long) update[2], e);
+            }
+        }
+        return updated;
+    }
+
+    private void recordRowFailure(long entryId, Exception e) {
+        logger.warn("Cannot re-encrypt patient name of Wellca entry {}: {}", entryId, errorMessage(e));
+        jdbcTemplate.update(RECORD_ROW_FAILURE_SQL, keyId(), entryId, errorMessage(e));
+    }
+
+    private void recordChunkFailure(Chunk chunk, DataAccessException e) {
+        logger.error("Re-encrypting Wellca ids [{}, {}) failed; the chunk is retried at most {} times per run",
+            chunk.start(), chunk.end(), MAX_CHUNK_ATTEMPTS, e);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(RECORD_CHUNK_FAILURE_SQL, errorMessage(e), keyId(), chunk.start()));
+    }
+
+    private static String errorMessage(Exception e) {
+        Throwable cause = e instanceof DataAccessException dataAccess ? dataAccess.getMostSpecificCause() : e;
+        String message = String.valueOf(cause.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String keyId() {
+        return attributeEncryptor.getKeyId();
+    }
+}
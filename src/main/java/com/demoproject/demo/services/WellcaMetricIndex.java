@@ -0,0 +1,397 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaDailyMetrics;
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
+import com.demoproject.demo.repository.WellcaRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of daily Wellca totals backed by one Fenwick tree per metric
+ * and per service type. Sums over any date range take O(log n) with no database
+ * round trip. The index is loaded at startup and the affected days are re-read
+ * after every committed write.
+ *
+ * Loads and refreshes read the database while holding the write lock, so they
+ * apply in the order they read and an older read never overwrites a newer one.
+ * Changes committed before the index is ready are remembered and re-read once
+ * the load has finished.
+ */
+@Service
+public class WellcaMetricIndex {
+    private static final Logger logger = LoggerFactory.getLogger(WellcaMetricIndex.class);
+
+    /**
+     * Extra days allocated around the loaded range so new entries rarely force a resize
+     */
+    private static final int SLACK_DAYS = 366;
+
+    /**
+     * Metrics summed per day
+     */
+    public enum Metric {
+        PUROLATOR,
+        FEDEX,
+        ONE_COURIER,
+        GO_BOLT,
+        NEW_RX,
+        REFILL,
+        RE_AUTH,
+        HOLD,
+        PROFILES_ENTERED,
+        SERVICE_COUNT,
+        SERVICE_REVENUE_CENTS,
+        ENTRY_COUNT
+    }
+
+    private final WellcaRepository wellcaRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+    private LocalDate pendingStart;
+    private LocalDate pendingEnd;
+    private LocalDate origin;
+    private int capacity;
+    private Series[] totals = new Series[0];
+    private final Map<String, Series> serviceCounts = new TreeMap<>();
+    private final Map<String, Series> serviceRevenueCents = new TreeMap<>();
+
+    public WellcaMetricIndex(WellcaRepository wellcaRepository) {
+        this.wellcaRepository = wellcaRepository;
+    }
+
+    /**
+     * Load every day from the database, replacing the current contents
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long started = System.currentTimeMillis();
+        int dayGroups;
+        lock.writeLock().lock();
+        try {
+            Optional<LocalDate> earliest = wellcaRepository.findEarliestDate();
+            Optional<LocalDate> latest = wellcaRepository.findLatestDate();
+            List<WellcaDailyMetrics> rows = earliest.isPresent() && latest.isPresent()
+                ? wellcaRepository.getDailyMetrics(earliest.get(), latest.get())
+                : List.of();
+            dayGroups = rows.size();
+
+            origin = null;
+            capacity = 0;
+            totals = new Series[0];
+            serviceCounts.clear();
+            serviceRevenueCents.clear();
+            if (earliest.isPresent() && latest.isPresent()) {
+                ensureCovers(earliest.get(), latest.get());
+                applyDays(groupByDate(rows).keySet(), rows);
+            }
+            if (pendingStart != null) {
+                refresh(dateRange(pendingStart, pendingEnd));
+                pendingStart = null;
+                pendingEnd = null;
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded Wellca metric index with {} day groups in {} ms",
+            dayGroups, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Re-read the days touched by a committed write, or remember them until the index is loaded.
+     * Runs in its own read-only transaction because the writer's has already completed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onEntryChanged(WellcaEntryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pendingStart = pendingStart == null || event.startDate().isBefore(pendingStart)
+                    ? event.startDate() : pendingStart;
+                pendingEnd = pendingEnd == null || event.endDate().isAfter(pendingEnd)
+                    ? event.endDate() : pendingEnd;
+                return;
+            }
+            refresh(event.hasDeltas() ? event.affectedDates() : dateRange(event.startDate(), event.endDate()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Sum one or more metrics over a date range
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @param metrics Metrics to add together
+     * @return Combined total
+     */
+    public long sum(LocalDate startDate, LocalDate endDate, Metric... metrics) {
+        lock.readLock().lock();
+        try {
+            int[] range = slots(startDate, endDate);
+            long sum = 0;
+            if (range != null) {
+                for (Metric metric : metrics) {
+                    sum += totals[metric.ordinal()].sum(range[0], range[1]);
+                }
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average a metric per entry over a date range
+     * @return Mean value per entry, or 0 when the range has no entries
+     */
+    public double averagePerEntry(Metric metric, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            long entries = sum(startDate, endDate, Metric.ENTRY_COUNT);
+            return entries == 0 ? 0.0 : (double) sum(startDate, endDate, metric) / entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of costed services per type over a date range, omitting types with none
+     */
+    public Map<String, Long> serviceCounts(LocalDate startDate, LocalDate endDate) {
+        return sumByType(serviceCounts, startDate, endDate);
+    }
+
+    /**
+     * @return Service revenue per type over a date range, omitting types with none
+     */
+    public Map<String, BigDecimal> serviceRevenue(LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal> revenue = new TreeMap<>();
+        Map<String, Long> counts = serviceCounts(startDate, endDate);
+        sumByType(serviceRevenueCents, startDate, endDate).forEach((type, cents) -> {
+            if (counts.containsKey(type)) {
+                revenue.put(type, BigDecimal.valueOf(cents, 2));
+            }
+        });
+        return revenue;
+    }
+
+    private Map<String, Long> sumByType(Map<String, Series> series, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> sums = new TreeMap<>();
+            int[] range = slots(startDate, endDate);
+            if (range != null) {
+                series.forEach((type, values) -> {
+                    long sum = values.sum(range[0], range[1]);
+                    if (sum != 0) {
+                        sums.put(type, sum);
+                    }
+                });
+            }
+            return sums;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read the given days from the database and overwrite them. Caller must hold the write lock.
+     * @param dates Non-empty set of days
+     */
+    private void refresh(Collection<LocalDate> dates) {
+        TreeSet<LocalDate> sorted = new TreeSet<>(dates);
+        List<WellcaDailyMetrics> rows = new ArrayList<>();
+        if (sorted.size() == ChronoUnit.DAYS.between(sorted.first(), sorted.last()) + 1) {
+            rows.addAll(wellcaRepository.getDailyMetrics(sorted.first(), sorted.last()));
+        } else {
+            for (LocalDate date : sorted) {
+                rows.addAll(wellcaRepository.getDailyMetrics(date, date));
+            }
+        }
+        ensureCovers(sorted.first(), sorted.last());
+        applyDays(sorted, rows);
+        logger.debug("Refreshed Wellca metric index for {} to {}", sorted.first(), sorted.last());
+    }
+
+    private static List<LocalDate> dateRange(LocalDate startDate, LocalDate endDate) {
+        return startDate.datesUntil(endDate.plusDays(1)).toList();
+    }
+
+    /**
+     * Clamp a date range to the allocated slots
+     * @return {from, to} slot indexes, or null if the range lies outside the index
+     */
+    private int[] slots(LocalDate startDate, LocalDate endDate) {
+        if (origin == null) {
+            return null;
+        }
+        long from = Math.max(0, ChronoUnit.DAYS.between(origin, startDate));
+        long to = Math.min(capacity - 1L, ChronoUnit.DAYS.between(origin, endDate));
+        return from > to ? null : new int[] {(int) from, (int) to};
+    }
+
+    /**
+     * Overwrite the given days with the totals from the database rows.
+     * Days without rows are reset to zero. Caller must hold the write lock.
+     */
+    private void applyDays(Collection<LocalDate> dates, List<WellcaDailyMetrics> rows) {
+        Map<LocalDate, List<WellcaDailyMetrics>> byDate = groupByDate(rows);
+        for (LocalDate date : dates) {
+            int slot = (int) ChronoUnit.DAYS.between(origin, date);
+            List<WellcaDailyMetrics> dayRows = byDate.getOrDefault(date, List.of());
+
+            long[] dayTotals = new long[Metric.values().length];
+            Map<String, long[]> dayServices = new TreeMap<>();
+            for (WellcaDailyMetrics row : dayRows) {
+                dayTotals[Metric.PUROLATOR.ordinal()] += row.purolator();
+                dayTotals[Metric.FEDEX.ordinal()] += row.fedex();
+                dayTotals[Metric.ONE_COURIER.ordinal()] += row.oneCourier();
+                dayTotals[Metric.GO_BOLT.ordinal()] += row.goBolt();
+                dayTotals[Metric.NEW_RX.ordinal()] += row.newRx();
+                dayTotals[Metric.REFILL.ordinal()] += row.refill();
+                dayTotals[Metric.RE_AUTH.ordinal()] += row.reAuth();
+                dayTotals[Metric.HOLD.ordinal()] += row.hold();
+                dayTotals[Metric.PROFILES_ENTERED.ordinal()] += row.profilesEntered();
+                dayTotals[Metric.ENTRY_COUNT.ordinal()] += row.entryCount();
+                if (row.serviceType() != null) {
+                    long cents = toCents(row.serviceRevenue());
+                    dayTotals[Metric.SERVICE_COUNT.ordinal()] += row.entryCount();
+                    dayTotals[Metric.SERVICE_REVENUE_CENTS.ordinal()] += cents;
+                    dayServices.put(row.serviceType(), new long[] {row.costedCount(), cents});
+                }
+            }
+
+            for (Metric metric : Metric.values()) {
+                totals[metric.ordinal()].set(slot, dayTotals[metric.ordinal()]);
+            }
+            for (String type : dayServices.keySet()) {
+                serviceCounts.computeIfAbsent(type, t -> new Series(capacity));
+                serviceRevenueCents.computeIfAbsent(type, t -> new Series(capacity));
+            }
+            for (Map.Entry<String, Series> entry : serviceCounts.entrySet()) {
+                long[] values = dayServices.getOrDefault(entry.getKey(), new long[2]);
+                entry.getValue().set(slot, values[0]);
+                serviceRevenueCents.get(entry.getKey()).set(slot, values[1]);
+            }
+        }
+    }
+
+    /**
+     * Grow or shift the slot array so [from, to] is addressable. Caller must hold the write lock.
+     */
+    private void ensureCovers(LocalDate from, LocalDate to) {
+        if (origin == null) {
+            origin = from.minusDays(SLACK_DAYS);
+            capacity = (int) ChronoUnit.DAYS.between(origin, to) + 1 + SLACK_DAYS;
+            totals = new Series[Metric.values().length];
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = new Series(capacity);
+            }
+            return;
+        }
+
+        int shift = 0;
+        LocalDate newOrigin = origin;
+        if (from.isBefore(origin)) {
+            newOrigin = from.minusDays(SLACK_DAYS);
+            shift = (int) ChronoUnit.DAYS.between(newOrigin, origin);
+        }
+        int needed = (int) ChronoUnit.DAYS.between(newOrigin, to) + 1;
+        int newCapacity = capacity + shift;
+        if (needed > newCapacity) {
+            newCapacity = Math.max(newCapacity * 2, needed + SLACK_DAYS);
+        }
+        if (shift == 0 && newCapacity == capacity) {
+            return;
+        }
+
+        logger.debug("Resizing Wellca metric index from {} to {} days", capacity, newCapacity);
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = totals[i].resize(shift, newCapacity);
+        }
+        for (Map.Entry<String, Series> entry : serviceCounts.entrySet()) {
+            entry.setValue(entry.getValue().resize(shift, newCapacity));
+        }
+        for (Map.Entry<String, Series> entry : serviceRevenueCents.entrySet()) {
+            entry.setValue(entry.getValue().resize(shift, newCapacity));
+        }
+        origin = newOrigin;
+        capacity = newCapacity;
+    }
+
+    private static Map<LocalDate, List<WellcaDailyMetrics>> groupByDate(List<WellcaDailyMetrics> rows) {
+        return rows.stream().collect(Collectors.groupingBy(WellcaDailyMetrics::date));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Point values of one metric plus the Fenwick tree over them
+     */
+    private static final class Series {
+        private final long[] values;
+        private final LongFenwickTree tree;
+
+        Series(int capacity) {
+            this(new long[capacity]);
+        }
+
+        private Series(long[] values) {
+            this.values = values;
+            this.tree = new LongFenwickTree(values);
+        }
+
+        void set(int slot, long value) {
+            long delta = value - values[slot];
+            if (delta != 0) {
+                values[slot] = value;
+                tree.add(slot, delta);
+            }
+        }
+
+        long sum(int from, int to) {
+            return tree.rangeSum(from, to);
+        }
+
+        Series resize(int shift, int newCapacity) {
+            long[] resized = new long[newCapacity];
+            System.arraycopy(values, 0, resized, shift, values.length);
+            return new Series(resized);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaRollupDelta;
+import com.demoproject.demo.entity.WellcaRollup;
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+import com.demoproject.demo.repository.WellcaRepository;
+import com.demoproject.demo.repository.WellcaRollupRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains the wellca_rollups table: per-day, per-ISO-week and per-month totals
+ * of every wellca_entries row. Writers apply deltas inside their own transaction,
+ * so the rollups are always consistent with the raw entries.
+ */
+@Service
+public class WellcaRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(WellcaRollupService.class);
+    private final WellcaRollupRepository rollupRepository;
+    private final WellcaRepository wellcaRepository;
+
+    public WellcaRollupService(WellcaRollupRepository rollupRepository, WellcaRepository wellcaRepository) {
+        this.rollupRepository = rollupRepository;
+        this.wellcaRepository = wellcaRepository;
+    }
+
+    /**
+     * Add a delta to the day, week and month buckets of its date.
+     * Must run inside the transaction that modified the entry.
+     * @param delta Change in totals for a single date
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(WellcaRollupDelta delta) {
+        logger.debug("Applying rollup delta for date: {}", delta.date());
+        for (Granularity granularity : Granularity.values()) {
+            rollupRepository.addDelta(granularity.name(), granularity.bucketStart(delta.date()), delta);
+        }
+    }
+
+    /**
+     * Get every bucket of a chart range, with empty buckets filled in as zeros
+     * @param range Bucket-aligned half-open range
+     * @return One transient rollup per bucket, ordered by period start
+     */
+    @Transactional(readOnly = true)
+    public List<WellcaRollup> getFilledSeries(WellcaChartRange range) {
+        Granularity granularity = range.granularity();
+        return rollupRepository.findFilledSeries(
+                granularity.name(), granularity.getTruncUnit(), range.start(), range.endExclusive())
+            .stream()
+            .map(row -> toRollup(granularity, row))
+            .toList();
+    }
+
+    /**
+     * Get seven-day windows that start at a given date rather than on ISO Mondays,
+     * summed from the daily buckets. The last window stops at the end date.
+     * @param startDate First day of the first window
+     * @param endDate Last day to include
+     * @return One transient rollup per window, keyed by its first day
+     */
+    @Transactional(readOnly = true)
+    public List<WellcaRollup> getWeekWindows(LocalDate startDate, LocalDate endDate) {
+        List<WellcaRollup> windows = new ArrayList<>();
+        for (WellcaRollup day : getFilledSeries(WellcaChartRange.covering(Granularity.DAY, startDate, endDate))) {
+            if (ChronoUnit.DAYS.between(startDate, day.getPeriodStart()) % 7 == 0) {
+                WellcaRollup window = new WellcaRollup();
+                window.setGranularity(Granularity.WEEK);
+                window.setPeriodStart(day.getPeriodStart());
+                windows.add(window);
+            }
+            addTotals(windows.get(windows.size() - 1), day);
+        }
+        return windows;
+    }
+
+    private static void addTotals(WellcaRollup target, WellcaRollup source) {
+        target.setPurolator(target.getPurolator() + source.getPurolator());
+        target.setFedex(target.getFedex() + source.getFedex());
+        target.setOneCourier(target.getOneCourier() + source.getOneCourier());
+        target.setGoBolt(target.getGoBolt() + source.getGoBolt());
+        target.setNewRx(target.getNewRx() + source.getNewRx());
+        target.setRefill(target.getRefill() + source.getRefill());
+        target.setReAuth(target.getReAuth() + source.getReAuth());
+        target.setHold(target.getHold() + source.getHold());
+        target.setProfilesEntered(target.getProfilesEntered() + source.getProfilesEntered());
+        target.setServiceCount(target.getServiceCount() + source.getServiceCount());
+        target.setServiceRevenue(target.getServiceRevenue().add(source.getServiceRevenue()));
+        target.setEntryCount(target.getEntryCount() + source.getEntryCount());
+    }
+
+    /**
+     * Map a findFilledSeries row onto a detached rollup
+     */
+    private static WellcaRollup toRollup(Granularity granularity, Object[] row) {
+        WellcaRollup rollup = new WellcaRollup();
+        rollup.setGranularity(granularity);
+        rollup.setPeriodStart(row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0]);
+        rollup.setPurolator(((Number) row[1]).longValue());
+        rollup.setFedex(((Number) row[2]).longValue());
+        rollup.setOneCourier(((Number) row[3]).longValue());
+        rollup.setGoBolt(((Number) row[4]).longValue());
+        rollup.setNewRx(((Number) row[5]).longValue());
+        rollup.setRefill(((Number) row[6]).longValue());
+        rollup.setReAuth(((Number) row[7]).longValue());
+        rollup.setHold(((Number) row[8]).longValue());
+        rollup.setProfilesEntered(((Number) row[9]).longValue());
+        rollup.setServiceCount(((Number) row[10]).longValue());
+        rollup.setServiceRevenue(new BigDecimal(row[11].toString()));
+        rollup.setEntryCount(((Number) row[12]).longValue());
+        return rollup;
+    }
+
+    /**
+     * Recompute every bucket touching a date range from the raw entries.
+     * Used for back-filling and after bulk writes.
+     * @param startDate First affected date
+     * @param endDate Last affected date
+     */
+    @Transactional
+    public void rebuild(LocalDate startDate, LocalDate endDate) {
+        logger.info("Rebuilding Wellca rollups between {} and {}", startDate, endDate);
+        for (Granularity granularity : Granularity.values()) {
+            LocalDate alignedStart = granularity.bucketStart(startDate);
+            LocalDate alignedEnd = granularity.nextBucket(granularity.bucketStart(endDate));
+            rollupRepository.deleteBuckets(granularity.name(), alignedStart, alignedEnd);
+            int buckets = rollupRepository.rebuildBuckets(
+                granularity.name(), granularity.getTruncUnit(), alignedStart, alignedEnd);
+            logger.debug("Rebuilt {} {} buckets", buckets, granularity);
+        }
+    }
+
+    /**
+     * Back-fill the rollups on startup when entries exist but no buckets have been built yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        Optional<LocalDate> earliest = wellcaRepository.findEarliestDate();
+        Optional<LocalDate> latest = wellcaRepository.findLatestDate();
+        if (earliest.isEmpty() || latest.isEmpty()) {
+            logger.debug("No Wellca entries found, skipping rollup back-fill");
+            return;
+        }
+        rebuild(earliest.get(), latest.get());
+    }
+}
@@ -1,19 +1,27 @@
 package com.demoproject.demo.services;
 
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.dto.CursorPage;
+import com.demoproject.demo.dto.KeysetCursor;
+import com.demoproject.demo.dto.WellcaRollupDelta;
+import com.demoproject.demo.dto.WellcaServiceMetrics;
+import com.demoproject.demo.dto.WellcaWeeklyMetrics;
 import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.entity.WellcaPatientNameListener;
+import com.demoproject.demo.entity.WellcaRollup;
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
 import com.demoproject.demo.repository.WellcaRepository;
+import com.demoproject.demo.services.WellcaMetricIndex.Metric;
 
 import org.hibernate.annotations.BatchSize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Async;
-import java.util.concurrent.CompletableFuture;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,6 +31,7 @@ import java.util.Optional;
 import java.util.HashMap;
 import java.util.ArrayList;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 
 @Service
@@ -30,11 +39,21 @@ import java.time.temporal.ChronoUnit;
 public class WellcaService {
     private static final Logger logger = LoggerFactory.getLogger(WellcaService.class);
     private final WellcaRepository wellcaRepository;
-    private final CacheManager cacheManager;
+    private final WellcaRollupService rollupService;
+    private final WellcaMetricIndex metricIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttributeEncryptor attributeEncryptor;
+    private final WellcaPatientNameListener patientNameListener;
 
-    public WellcaService(WellcaRepository wellcaRepository, CacheManager cacheManager) {
+    public WellcaService(WellcaRepository wellcaRepository, WellcaRollupService rollupService,
+                         WellcaMetricIndex metricIndex, ApplicationEventPublisher eventPublisher,
+                         AttributeEncryptor attributeEncryptor, WellcaPatientNameListener patientNameListener) {
         this.wellcaRepository = wellcaRepository;
-        this.cacheManager = cacheManager;
+        this.rollupService = rollupService;
+        this.metricIndex = metricIndex;
+        this.eventPublisher = eventPublisher;
+        this.attributeEncryptor = attributeEncryptor;
+        this.patientNameListener = patientNameListener;
     }
 
     /**
@@ -43,7 +62,6 @@ public class WellcaService {
      * @return The saved entry
      */
     @Transactional
-    @CacheEvict(value = {"wellcaRangeData", "wellcaData", "serviceDetails"}, allEntries = true)
     public Wellca saveEntry(Wellca wellca) {
         logger.debug("Saving Wellca entry for date: {} with service type: {} and cost: {}", 
             wellca.getDate(), wellca.getServiceType(), wellca.getServiceCost());
@@ -57,24 +75,45 @@ public class WellcaService {
             logger.info("Updating existing entry for date: {}", wellca.getDate());
         }
         
+        // Snapshot the stored version before it is overwritten so its totals can be backed out.
+        // The row stays locked until commit, so a concurrent update of the same entry waits and
+        // then backs out this write's totals instead of subtracting the same old ones again.
+        Optional<WellcaRollupDelta> previous = wellca.getId() == null
+            ? Optional.empty()
+            : wellcaRepository.findByIdForUpdate(wellca.getId()).map(WellcaRollupDelta::of);
+        
+        // Updates are merged, and merge ignores the transient plain-text name
+        patientNameListener.encryptPatientName(wellca);
         Wellca savedEntry = wellcaRepository.save(wellca);
         logger.debug("Successfully saved entry with ID: {}. Service type: {}, cost: {}", 
             savedEntry.getId(), savedEntry.getServiceType(), savedEntry.getServiceCost());
         
-        // Clear all related caches
-        clearCaches();
+        List<WellcaRollupDelta> deltas = updateRollups(previous, Optional.of(WellcaRollupDelta.of(savedEntry)));
+        
+        // Caches covering the affected dates are evicted once the transaction commits
+        eventPublisher.publishEvent(WellcaEntryChangedEvent.of(deltas));
         
         return savedEntry;
     }
 
-    private void clearCaches() {
-        logger.debug("Clearing all Wellca related caches");
-        cacheManager.getCacheNames().stream()
-            .filter(name -> name.startsWith("wellca"))
-            .forEach(cacheName -> {
-                logger.debug("Clearing cache: {}", cacheName);
-                cacheManager.getCache(cacheName).clear();
-            });
+    /**
+     * Move an entry's contribution from its previous to its current totals
+     * @param previous Contribution before the write, if the entry existed
+     * @param current Contribution after the write, if the entry still exists
+     * @return The deltas that were applied
+     */
+    private List<WellcaRollupDelta> updateRollups(Optional<WellcaRollupDelta> previous,
+                                                  Optional<WellcaRollupDelta> current) {
+        List<WellcaRollupDelta> deltas = new ArrayList<>();
+        if (previous.isPresent() && current.isPresent()
+                && previous.get().date().equals(current.get().date())) {
+            deltas.add(current.get().plus(previous.get().negate()));
+        } else {
+            previous.map(WellcaRollupDelta::negate).ifPresent(deltas::add);
+            current.ifPresent(deltas::add);
+        }
+        deltas.forEach(rollupService::apply);
+        return deltas;
     }
 
     /**
@@ -82,7 +121,7 @@ public class WellcaService {
      * @param date The date to search for
      * @return Optional containing the entry if found
      */
-    @Cacheable(value = "wellcaData", key = "#date")
+    @Cacheable(value = "wellcaData", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).of('entry', #date, #date))")
     public Optional<Wellca> getEntryByDate(LocalDate date) {
         logger.debug("Fetching Wellca entry for date: {}", date);
         Optional<Wellca> entry = wellcaRepository.findByDate(date);
@@ -97,7 +136,7 @@ public class WellcaService {
      * @param endDate End of the range
      * @return List of entries
      */
-    @Cacheable(value = "wellcaRangeData", key = "#startDate.toString() + '-' + #endDate.toString()")
+    @Cacheable(value = "wellcaRangeData", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).of('range', #startDate, #endDate))")
     public List<Wellca> getEntriesInRange(LocalDate startDate, LocalDate endDate) {
         logger.debug("Fetching Wellca entries between {} and {}", startDate, endDate);
         List<Wellca> entries = wellcaRepository.findByDateBetweenOrderByDateAsc(startDate, endDate);
@@ -107,6 +146,32 @@ public class WellcaService {
         return entries;
     }
 
+    /**
+     * Get one keyset page of entries within a date range, ordered by date and id
+     * @param startDate Start date
+     * @param endDate End date
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @return Page of entries with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Wellca> getEntriesPage(LocalDate startDate, LocalDate endDate, String cursor, int limit) {
+        LocalDate afterDate = startDate;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            try {
+                afterDate = LocalDate.parse(position.key());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            afterId = position.id();
+        }
+        List<Wellca> fetched = wellcaRepository.findPageAfter(startDate, endDate, afterDate, afterId, limit + 1);
+        return CursorPage.of(fetched, limit, entry -> new KeysetCursor(entry.getDate().toString(), entry.getId()));
+    }
+
     /**
      * Get weekly statistics
      * @param weekStartDate First day of the week
@@ -115,9 +180,15 @@ public class WellcaService {
     @Transactional(readOnly = true)
     public Map<String, Object> getWeeklyStats(LocalDate weekStartDate) {
         LocalDate weekEndDate = weekStartDate.plusDays(6);
-        List<Wellca> weeklyData = wellcaRepository.findWeeklyData(weekStartDate, weekEndDate);
         logger.debug("Fetching weekly stats for period {} to {}", weekStartDate, weekEndDate);
-        return calculateWeeklyStats(weeklyData);
+        if (metricIndex.isReady()) {
+            long entries = metricIndex.sum(weekStartDate, weekEndDate, Metric.ENTRY_COUNT);
+            return calculateWeeklyStats(new WellcaWeeklyMetrics(
+                entries,
+                metricIndex.averagePerEntry(Metric.PROFILES_ENTERED, weekStartDate, weekEndDate),
+                metricIndex.sum(weekStartDate, weekEndDate, Metric.NEW_RX, Metric.REFILL, Metric.RE_AUTH)));
+        }
+        return calculateWeeklyStats(wellcaRepository.getWeeklyMetrics(weekStartDate, weekEndDate));
     }
 
     /**
@@ -133,24 +204,15 @@ public class WellcaService {
     }
 
     /**
-     * Calculate weekly statistics from data
-     * @param weeklyData List of entries for the week
+     * Shape the weekly metrics projection for the API
+     * @param metrics Aggregates for the week
      * @return Map of calculated statistics
      */
-    private Map<String, Object> calculateWeeklyStats(List<Wellca> weeklyData) {
-        double avgProfilesEntered = weeklyData.stream()
-            .mapToInt(Wellca::getProfilesEntered)
-            .average()
-            .orElse(0.0);
-
-        long totalRx = weeklyData.stream()
-            .mapToInt(Wellca::getTotalFilled)
-            .sum();
-
+    private Map<String, Object> calculateWeeklyStats(WellcaWeeklyMetrics metrics) {
         Map<String, Object> stats = Map.of(
-            "averageProfilesEntered", avgProfilesEntered,
-            "totalRxFilled", totalRx,
-            "entriesCount", weeklyData.size()
+            "averageProfilesEntered", metrics.averageProfilesEntered() != null ? metrics.averageProfilesEntered() : 0.0,
+            "totalRxFilled", metrics.totalRxFilled() != null ? metrics.totalRxFilled() : 0L,
+            "entriesCount", metrics.entriesCount()
         );
         
         logger.debug("Calculated weekly stats: {}", stats);
@@ -162,10 +224,13 @@ public class WellcaService {
      * @param id Entry ID to delete
      */
     @Transactional
-    @CacheEvict(value = "wellcaData", allEntries = true)
     public void deleteEntry(Long id) {
         logger.debug("Deleting Wellca entry with ID: {}", id);
-        wellcaRepository.deleteById(id);
+        wellcaRepository.findByIdForUpdate(id).ifPresent(entry -> {
+            Optional<WellcaRollupDelta> previous = Optional.of(WellcaRollupDelta.of(entry));
+            wellcaRepository.delete(entry);
+            eventPublisher.publishEvent(WellcaEntryChangedEvent.of(updateRollups(previous, Optional.empty())));
+        });
     }
 
     /**
@@ -185,7 +250,7 @@ public class WellcaService {
     /**
      * Get detailed service entries by type and date range
      */
-    @Cacheable(value = "serviceDetails", key = "#serviceType + '-' + #startDate + '-' + #endDate")
+    @Cacheable(value = "serviceDetails", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).of('service-' + #serviceType, #startDate, #endDate))")
     public List<Wellca> getServiceDetailsByType(String serviceType, LocalDate startDate, LocalDate endDate) {
         logger.debug("Fetching service details for type: {} between {} and {}", 
             serviceType, startDate, endDate);
@@ -197,41 +262,79 @@ public class WellcaService {
         return entries;
     }
 
+    /**
+     * Get a patient's professional service history.
+     * The patient is found through the blind index, so only their own rows are
+     * read and decrypted. Not cached, as the results contain patient data.
+     * @param patientName Patient name; case and spacing are ignored
+     * @param serviceType Service type to match, or null for all
+     * @param startDate Start of the date range, or null
+     * @param endDate End of the date range, or null
+     * @return Service entries, newest first
+     * @throws IllegalArgumentException if the name is blank or the range is reversed
+     */
+    @Transactional(readOnly = true)
+    public List<Wellca> getPatientServiceHistory(String patientName, String serviceType,
+                                                 LocalDate startDate, LocalDate endDate) {
+        List<String> patientIndexes = attributeEncryptor.blindIndexes(patientName);
+        if (patientIndexes.isEmpty()) {
+            throw new IllegalArgumentException("Patient name is required");
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        String type = serviceType == null || serviceType.isBlank() ? null : serviceType;
+        List<Wellca> entries = wellcaRepository.findPatientServices(patientIndexes, type, startDate, endDate);
+        logger.debug("Found {} service entries for patient lookup (type: {}, {} to {})",
+            entries.size(), type, startDate, endDate);
+        return entries;
+    }
+
     /**
      * Get monthly service statistics
      */
-    @Cacheable(value = "serviceDetails", key = "'monthly-' + #yearMonth")
+    @Cacheable(value = "serviceDetails", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).ofMonth('monthly-services', #yearMonth))")
     public Map<String, Object> getMonthlyServiceStats(LocalDate yearMonth) {
         LocalDate startDate = yearMonth.withDayOfMonth(1);
         LocalDate endDate = yearMonth.withDayOfMonth(yearMonth.lengthOfMonth());
         
-        List<Wellca> monthlyServices = wellcaRepository.findByDateBetweenOrderByDateAsc(startDate, endDate);
+        List<WellcaServiceMetrics> metrics;
+        long totalEntries;
+        if (metricIndex.isReady()) {
+            Map<String, BigDecimal> revenue = metricIndex.serviceRevenue(startDate, endDate);
+            metrics = metricIndex.serviceCounts(startDate, endDate).entrySet().stream()
+                .map(count -> new WellcaServiceMetrics(count.getKey(), count.getValue(),
+                    revenue.getOrDefault(count.getKey(), BigDecimal.ZERO)))
+                .toList();
+            totalEntries = metricIndex.sum(startDate, endDate, Metric.ENTRY_COUNT);
+        } else {
+            // Metric-only projections: no entities are loaded and no patient names are decrypted
+            metrics = wellcaRepository.getServiceMetrics(startDate, endDate);
+            totalEntries = wellcaRepository.countByDateBetween(startDate, endDate);
+        }
         
-        Map<String, Object> stats = calculateMonthlyServiceStats(monthlyServices);
+        Map<String, Object> stats = calculateMonthlyServiceStats(metrics, totalEntries);
         logger.debug("Calculated monthly service stats: {}", stats);
         
         return stats;
     }
 
-    private Map<String, Object> calculateMonthlyServiceStats(List<Wellca> services) {
+    private Map<String, Object> calculateMonthlyServiceStats(List<WellcaServiceMetrics> metrics, long totalEntries) {
         Map<String, Integer> serviceCounts = new HashMap<>();
         Map<String, BigDecimal> serviceRevenue = new HashMap<>();
         BigDecimal totalRevenue = BigDecimal.ZERO;
 
-        for (Wellca service : services) {
-            if (service.getServiceType() != null && service.getServiceCost() != null) {
-                serviceCounts.merge(service.getServiceType(), 1, Integer::sum);
-                serviceRevenue.merge(service.getServiceType(), 
-                    service.getServiceCost(), BigDecimal::add);
-                totalRevenue = totalRevenue.add(service.getServiceCost());
-            }
+        for (WellcaServiceMetrics metric : metrics) {
+            serviceCounts.put(metric.serviceType(), Math.toIntExact(metric.count()));
+            serviceRevenue.put(metric.serviceType(), metric.revenue());
+            totalRevenue = totalRevenue.add(metric.revenue());
         }
 
         return Map.of(
             "serviceCounts", serviceCounts,
             "serviceRevenue", serviceRevenue,
             "totalRevenue", totalRevenue,
-            "totalServices", services.size()
+            "totalServices", Math.toIntExact(totalEntries)
         );
     }
 
@@ -245,59 +348,20 @@ public class WellcaService {
      */
     @Transactional(readOnly = true)
     @BatchSize(size = 100)
-    @Cacheable(value = "monthlyChartData", key = "'monthly-' + #startDate + '-' + #endDate")
+    @Cacheable(value = "monthlyChartData", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).of('monthly-chart', #startDate, #endDate))")
     public Map<String, Object> getMonthlyChartStats(LocalDate startDate, LocalDate endDate) {
         logger.debug("Generating monthly chart stats from {} to {}", startDate, endDate);
         
-        List<Map<String, Object>> monthlyStats = wellcaRepository.getMonthlyChartStats(startDate, endDate);
-        
-        // Prepare chart data structure
-        List<String> labels = new ArrayList<>();
-        List<Number> rxCounts = new ArrayList<>();
-        List<Number> deliveryCounts = new ArrayList<>();
-        List<Number> rxPerDelivery = new ArrayList<>();
-        List<Number> servicesCounts = new ArrayList<>();
+        // Every day of the range is reported; days without entries come back as zero
+        List<WellcaRollup> dailyStats = rollupService.getFilledSeries(
+            WellcaChartRange.covering(Granularity.DAY, startDate, endDate));
         
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        List<String> labels = dailyStats.stream()
+            .map(stat -> stat.getPeriodStart().format(formatter))
+            .toList();
         
-        monthlyStats.forEach(stat -> {
-            LocalDate date = (LocalDate) stat.get("date");
-            labels.add(date.format(formatter));
-            
-            // Using camelCase to match repository naming
-            Long totalRx = ((Number) stat.get("newRx")).longValue() + 
-                          ((Number) stat.get("refill")).longValue() + 
-                          ((Number) stat.get("reAuth")).longValue();
-            Long totalDeliveries = ((Number) stat.get("purolator")).longValue() + 
-                                 ((Number) stat.get("fedex")).longValue() + 
-                                 ((Number) stat.get("oneCourier")).longValue() + 
-                                 ((Number) stat.get("goBolt")).longValue();
-            Long totalServices = ((Number) stat.get("serviceCount")).longValue();
-            
-            rxCounts.add(totalRx);
-            deliveryCounts.add(totalDeliveries);
-            rxPerDelivery.add(totalDeliveries > 0 ? 
-                (double) totalRx / totalDeliveries : 0);
-            servicesCounts.add(totalServices);
-        });
-        
-        Map<String, Object> chartData = new HashMap<>();
-        chartData.put("labels", labels);
-        chartData.put("datasets", Map.of(
-            "rxCount", rxCounts,
-            "deliveries", deliveryCounts,
-            "rxPerDelivery", rxPerDelivery,
-            "services", servicesCounts
-        ));
-        
-        return chartData;
-    }
-
-    @Async
-    public CompletableFuture<Map<String, Object>> getMonthlyChartStatsAsync(LocalDate yearMonth) {
-        LocalDate startDate = yearMonth.withDayOfMonth(1);
-        LocalDate endDate = yearMonth.withDayOfMonth(yearMonth.lengthOfMonth());
-        return CompletableFuture.completedFuture(getMonthlyChartStats(startDate, endDate));
+        return buildChartData(labels, dailyStats);
     }
 
     /**
@@ -308,64 +372,24 @@ public class WellcaService {
      */
     @Transactional(readOnly = true)
     @BatchSize(size = 100)
-    @Cacheable(value = "quarterlyChartData", key = "'quarterly-' + #year + '-Q' + #quarter")
+    @Cacheable(value = "quarterlyChartData", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).ofQuarter('quarterly-chart', #year, #quarter))")
     public Map<String, Object> getQuarterlyChartStats(int year, int quarter) {
         logger.debug("Fetching quarterly chart stats for Q{} {}", quarter, year);
         
-        if (quarter < 1 || quarter > 4) {
-            throw new IllegalArgumentException("Quarter must be between 1 and 4");
-        }
-        
-        List<Map<String, Object>> quarterlyStats = wellcaRepository.getQuarterlyChartStats(year, quarter);
-        
-        // Prepare chart data structure
-        List<String> labels = new ArrayList<>();
-        List<Number> rxCounts = new ArrayList<>();
-        List<Number> deliveryCounts = new ArrayList<>();
-        List<Number> rxPerDelivery = new ArrayList<>();
-        List<Number> servicesCounts = new ArrayList<>();
+        // Validates the quarter; all three months are reported, empty months as zero
+        List<WellcaRollup> months = rollupService.getFilledSeries(WellcaChartRange.quarter(year, quarter));
         
-        // Get month names for the quarter
         String[] monthNames = getMonthsForQuarter(quarter);
-        
-        // Initialize data for all three months of the quarter
-        for (String month : monthNames) {
-            labels.add(month + " " + year);
+        List<String> labels = new ArrayList<>();
+        for (String monthName : monthNames) {
+            labels.add(monthName + " " + year);
         }
         
-        // Map the data to the correct months
-        quarterlyStats.forEach(stat -> {
-            int monthIndex = ((Integer) stat.get("month") - 1) % 3;
-            
-            Long totalRx = (Long) stat.get("totalRx");
-            Long totalDeliveries = (Long) stat.get("totalDeliveries");
-            Long totalServices = (Long) stat.get("totalServices");
-            
-            rxCounts.add(monthIndex, totalRx);
-            deliveryCounts.add(monthIndex, totalDeliveries);
-            rxPerDelivery.add(monthIndex, totalDeliveries > 0 ? 
-                (double) totalRx / totalDeliveries : 0);
-            servicesCounts.add(monthIndex, totalServices);
-        });
-        
-        Map<String, Object> chartData = new HashMap<>();
-        chartData.put("labels", labels);
-        chartData.put("datasets", Map.of(
-            "rxCount", rxCounts,
-            "deliveries", deliveryCounts,
-            "rxPerDelivery", rxPerDelivery,
-            "services", servicesCounts
-        ));
-        
+        Map<String, Object> chartData = buildChartData(labels, months);
         logger.debug("Generated quarterly chart data with {} data points", labels.size());
         return chartData;
     }
     
-    @Async
-    public CompletableFuture<Map<String, Object>> getQuarterlyChartStatsAsync(int year, int quarter) {
-        return CompletableFuture.completedFuture(getQuarterlyChartStats(year, quarter));
-    }
-    
     /**
      * Helper method to get month names for a quarter
      */
@@ -389,50 +413,71 @@ public class WellcaService {
      */
     @Transactional(readOnly = true)
     @BatchSize(size = 100)
-    @Cacheable(value = "weeklyChartData", key = "'weekly-' + #startDate + '-' + #endDate + '-page-' + #page")
+    @Cacheable(value = "weeklyChartData", key = "@wellcaDataVersions.current(T(com.demoproject.demo.config.WellcaCacheKey).of('weekly-chart-page-' + #page, #startDate, #endDate))")
     public Map<String, Object> getWeeklyChartStats(LocalDate startDate, LocalDate endDate, int page) {
         logger.debug("Fetching weekly chart stats for period {} to {}, page {}", startDate, endDate, page);
         
         final int WEEKS_PER_PAGE = 4;
         LocalDate adjustedStartDate = startDate.plusWeeks((page - 1) * WEEKS_PER_PAGE);
-        LocalDate adjustedEndDate = adjustedStartDate.plusWeeks(WEEKS_PER_PAGE);
+        LocalDate adjustedEndDate = adjustedStartDate.plusWeeks(WEEKS_PER_PAGE).minusDays(1);
         
         // Ensure we don't exceed the original end date
         if (adjustedEndDate.isAfter(endDate)) {
             adjustedEndDate = endDate;
         }
         
-        List<Map<String, Object>> weeklyStats = wellcaRepository.getWeeklyChartStats(
-            adjustedStartDate, 
-            adjustedEndDate
-        );
+        // Weeks run from startDate rather than from ISO Mondays, so pages never overlap
+        List<WellcaRollup> weeklyStats = rollupService.getWeekWindows(adjustedStartDate, adjustedEndDate);
         
         // Calculate total number of weeks for pagination
-        long totalWeeks = ChronoUnit.WEEKS.between(startDate, endDate);
-        int totalPages = (int) Math.ceil((double) totalWeeks / WEEKS_PER_PAGE);
+        int totalPages = getTotalWeeklyPages(startDate, endDate);
         
-        // Prepare chart data structure
-        List<String> labels = new ArrayList<>();
+        // Label each week by its last day, which is the end date for a trailing partial week
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        LocalDate lastDate = adjustedEndDate;
+        List<String> labels = weeklyStats.stream()
+            .map(stat -> {
+                LocalDate weekEnd = stat.getPeriodStart().plusDays(6);
+                return (weekEnd.isAfter(lastDate) ? lastDate : weekEnd).format(formatter);
+            })
+            .toList();
+        
+        Map<String, Object> chartData = buildChartData(labels, weeklyStats);
+        
+        // Add pagination metadata
+        chartData.put("pagination", Map.of(
+            "currentPage", page,
+            "totalPages", totalPages,
+            "hasMore", page < totalPages
+        ));
+        
+        logger.debug("Generated weekly chart data with {} data points for page {}", 
+            labels.size(), page);
+        
+        return chartData;
+    }
+    
+    /**
+     * Build the chart payload shared by the monthly, quarterly and weekly charts
+     * @param labels One label per bucket
+     * @param buckets Rollup totals aligned with the labels
+     * @return Map containing labels and datasets
+     */
+    private Map<String, Object> buildChartData(List<String> labels, List<WellcaRollup> buckets) {
         List<Number> rxCounts = new ArrayList<>();
         List<Number> deliveryCounts = new ArrayList<>();
         List<Number> rxPerDelivery = new ArrayList<>();
         List<Number> servicesCounts = new ArrayList<>();
         
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-        
-        weeklyStats.forEach(stat -> {
-            LocalDate weekEnd = (LocalDate) stat.get("weekEndDate");
-            labels.add(weekEnd.format(formatter));
-            
-            Long totalRx = (Long) stat.get("totalRx");
-            Long totalDeliveries = (Long) stat.get("totalDeliveries");
-            Long totalServices = (Long) stat.get("totalServices");
+        buckets.forEach(bucket -> {
+            long totalRx = bucket.getTotalRx();
+            long totalDeliveries = bucket.getTotalDeliveries();
             
             rxCounts.add(totalRx);
             deliveryCounts.add(totalDeliveries);
             rxPerDelivery.add(totalDeliveries > 0 ? 
                 (double) totalRx / totalDeliveries : 0);
-            servicesCounts.add(totalServices);
+            servicesCounts.add(bucket.getServiceCount());
         });
         
         Map<String, Object> chartData = new HashMap<>();
@@ -443,26 +488,9 @@ public class WellcaService {
             "rxPerDelivery", rxPerDelivery,
             "services", servicesCounts
         ));
-        
-        // Add pagination metadata
-        chartData.put("pagination", Map.of(
-            "currentPage", page,
-            "totalPages", totalPages,
-            "hasMore", page < totalPages
-        ));
-        
-        logger.debug("Generated weekly chart data with {} data points for page {}", 
-            labels.size(), page);
-        
         return chartData;
     }
     
-    @Async
-    public CompletableFuture<Map<String, Object>> getWeeklyChartStatsAsync(
-            LocalDate startDate, LocalDate endDate, int page) {
-        return CompletableFuture.completedFuture(getWeeklyChartStats(startDate, endDate, page));
-    }
-    
     /**
      * Get total number of weeks between dates
      * @param startDate Start of period
@@ -471,7 +499,8 @@ public class WellcaService {
      */
     public int getTotalWeeklyPages(LocalDate startDate, LocalDate endDate) {
         final int WEEKS_PER_PAGE = 4;
-        long totalWeeks = ChronoUnit.WEEKS.between(startDate, endDate);
-        return (int) Math.ceil((double) totalWeeks / WEEKS_PER_PAGE);
+        // Count the trailing partial week too, so the last days of the range get a page
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return (int) Math.ceil((double) totalDays / (7 * WEEKS_PER_PAGE));
     }
 }
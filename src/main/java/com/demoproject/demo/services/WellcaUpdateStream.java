@@ -0,0 +1,108 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaPeriodTotals;
+import com.demoproject.demo.dto.WellcaRollupDelta;
+import com.demoproject.demo.dto.WellcaUpdate;
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pushes Wellca changes to open dashboards over server-sent events.
+ * One broadcast per committed write replaces per-tab polling.
+ */
+@Service
+public class WellcaUpdateStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(WellcaUpdateStream.class);
+
+    static final String UPDATE_EVENT = "wellca-update";
+    static final String RANGE_EVENT = "wellca-range-changed";
+
+    private final WellcaRollupService rollupService;
+    private final SseBroadcaster broadcaster;
+
+    public WellcaUpdateStream(WellcaRollupService rollupService, ObjectMapper objectMapper,
+                              @Value("${wellca.stream.buffer-size:32}") int bufferSize,
+                              @Value("${wellca.stream.timeout:30m}") Duration timeout) {
+        this.rollupService = rollupService;
+        this.broadcaster = new SseBroadcaster("wellca", bufferSize, timeout, objectMapper);
+    }
+
+    /**
+     * @return Emitter for a new dashboard connection
+     */
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe();
+    }
+
+    /**
+     * Broadcast the change once the writing transaction has committed.
+     * Individual writes carry their net delta and the recomputed day, week and month
+     * totals; bulk writes only announce the affected range so clients reload it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onEntryChanged(WellcaEntryChangedEvent event) {
+        if (broadcaster.getClientCount() == 0) {
+            return;
+        }
+        // The write has already committed; a failed push must not surface to the submitter
+        try {
+            if (!event.hasDeltas()) {
+                broadcaster.broadcast(RANGE_EVENT, Map.of("startDate", event.startDate(), "endDate", event.endDate()));
+                return;
+            }
+            for (WellcaRollupDelta delta : netDeltas(event)) {
+                broadcaster.broadcast(UPDATE_EVENT, new WellcaUpdate(delta.date(), delta, periodTotals(delta.date())));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to push Wellca update for {} to {}", event.startDate(), event.endDate(), e);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${wellca.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    @PreDestroy
+    public void close() {
+        broadcaster.close();
+    }
+
+    /**
+     * Combine the deltas of an event per date, e.g. the removal and re-add of an update
+     */
+    private static List<WellcaRollupDelta> netDeltas(WellcaEntryChangedEvent event) {
+        Map<LocalDate, WellcaRollupDelta> byDate = new TreeMap<>();
+        event.deltas().forEach(delta -> byDate.merge(delta.date(), delta, WellcaRollupDelta::plus));
+        return new ArrayList<>(byDate.values());
+    }
+
+    private List<WellcaPeriodTotals> periodTotals(LocalDate date) {
+        List<WellcaPeriodTotals> totals = new ArrayList<>();
+        for (Granularity granularity : Granularity.values()) {
+            rollupService.getFilledSeries(WellcaChartRange.covering(granularity, date, date))
+                .forEach(bucket -> totals.add(WellcaPeriodTotals.of(bucket)));
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,151 @@
+package com.demoproject.demo.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV reading and writing shared by the export, import and archive code.
+ * Quoted values may contain commas, quotes and line breaks.
+ */
+public final class CsvFormat {
+
+    /**
+     * Terminator written after every record, the header included
+     */
+    public static final String LINE_TERMINATOR = "\n";
+
+    private CsvFormat() {
+    }
+
+    /**
+     * Split a single CSV record into fields
+     * @param line Raw record without its final line terminator, as returned by RecordReader
+     * @return Unquoted field values
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Format values as one CSV line, quoting where needed
+     * @param values Field values; nulls are written as empty fields
+     * @return CSV line without terminator
+     */
+    public static String formatLine(List<?> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads CSV records from physical lines. A record continues onto the next line
+     * while one of its quoted values is still open; line breaks inside values come
+     * back as "\n".
+     */
+    public static final class RecordReader {
+
+        /**
+         * A stray quote would otherwise swallow the rest of the file into one record.
+         * After this many lines the record is returned as is and fails to parse.
+         */
+        static final int MAX_RECORD_LINES = 100;
+
+        private final BufferedReader reader;
+        private long lineNumber;
+        private long recordLineNumber;
+
+        public RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return The next record without its final line terminator, or null at the end of input
+         * @throws IOException if the input cannot be read
+         */
+        public String next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            recordLineNumber = lineNumber;
+            if (!hasOddQuotes(line)) {
+                return line;
+            }
+            // Every escaped quote is a pair, so an odd count means a quoted value is still open
+            StringBuilder record = new StringBuilder(line);
+            boolean open = true;
+            for (int lines = 1; open && lines < MAX_RECORD_LINES; lines++) {
+                String next = reader.readLine();
+                if (next == null) {
+                    break;
+                }
+                lineNumber++;
+                record.append('\n').append(next);
+                open = open != hasOddQuotes(next);
+            }
+            return record.toString();
+        }
+
+        /**
+         * @return 1-based line number on which the last record returned by next() starts
+         */
+        public long getLineNumber() {
+            return recordLineNumber;
+        }
+
+        private static boolean hasOddQuotes(String line) {
+            boolean odd = false;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    odd = !odd;
+                }
+            }
+            return odd;
+        }
+    }
+}
@@ -76,6 +76,24 @@ class WellcaApiService {
         return this.makeRequest(`/range?${params}`);
     }
 
+    /**
+     * Fetch every dashboard chart and statistic in a single request
+     * @param {string} [date] - Reference date in YYYY-MM-DD format, defaults to today
+     * @returns {Promise} - Dashboard parts keyed by name, plus an errors map
+     */
+    async getDashboard(date) {
+        const params = date ? `?${new URLSearchParams({ date })}` : '';
+        return this.makeRequest(`/dashboard${params}`);
+    }
+
+    /**
+     * Open the live update stream for committed changes
+     * @returns {EventSource} - Emits wellca-update, wellca-range-changed and resync events
+     */
+    openUpdateStream() {
+        return new EventSource(`${this.baseUrl}/stream`);
+    }
+
     /**
      * Submit service-specific data
      * @param {Object} serviceData - Service data to submit
@@ -25,6 +25,9 @@ import {
 } from './services/wellcamessage.js';
 
 let reportChart = null;
+let updateStream = null;
+let refreshTimer = null;
+let dashboardShown = false;
 
 document.addEventListener('DOMContentLoaded', function() {
     // Initialize form handlers from the new module
@@ -64,6 +67,8 @@ document.addEventListener('DOMContentLoaded', function() {
                 if (!reportChart) {
                     console.log('Initializing chart...');
                     initializeChart();
+                    // Show the current month until a report is generated
+                    loadDashboard();
                 }
             } catch (error) {
                 console.error('Error in reports tab click handler:', error);
@@ -83,8 +88,53 @@ document.addEventListener('DOMContentLoaded', function() {
     if (generateButton) {
         generateButton.addEventListener('click', generateReport);
     }
+
+    // Keep an open report current without polling
+    setupUpdateStream();
 });
 
+/* ------------------------------------------------------------------------- 
+ * Live Updates
+ * --------------------------------------------------------------------- */
+function setupUpdateStream() {
+    if (!window.EventSource) return;
+
+    updateStream = wellcaApi.openUpdateStream();
+    window.addEventListener('beforeunload', () => updateStream.close());
+
+    updateStream.addEventListener('wellca-update', event => {
+        const update = JSON.parse(event.data);
+        if (dashboardShown || reportCovers(update.date, update.date)) scheduleReportRefresh();
+    });
+    updateStream.addEventListener('wellca-range-changed', event => {
+        const range = JSON.parse(event.data);
+        if (dashboardShown || reportCovers(range.startDate, range.endDate)) scheduleReportRefresh();
+    });
+    updateStream.addEventListener('resync', () => {
+        if (dashboardShown || isReportVisible()) scheduleReportRefresh();
+    });
+    // EventSource reconnects on its own; nothing to do on error
+}
+
+function isReportVisible() {
+    const section = document.querySelector('.report-section');
+    return section && section.style.display === 'block';
+}
+
+function reportCovers(startDate, endDate) {
+    if (!isReportVisible()) return false;
+    const reportStart = document.getElementById(INPUT_FIELDS.START_DATE).value;
+    const reportEnd = document.getElementById(INPUT_FIELDS.END_DATE).value;
+    // ISO dates compare correctly as strings
+    return startDate <= reportEnd && endDate >= reportStart;
+}
+
+function scheduleReportRefresh() {
+    // Coalesce bursts of submissions into one reload
+    clearTimeout(refreshTimer);
+    refreshTimer = setTimeout(dashboardShown ? loadDashboard : refreshReportData, 500);
+}
+
 /* ------------------------------------------------------------------------- 
  * Tab Navigation Functions
  * --------------------------------------------------------------------- */
@@ -175,6 +225,19 @@ function formatServiceType(type) {
 /* ------------------------------------------------------------------------- 
  * API Calls
  * --------------------------------------------------------------------- */
+async function loadDashboard() {
+    try {
+        // One request returns every part; failed parts are null and listed under errors
+        const dashboard = await wellcaApi.getDashboard();
+        if (!isReportVisible() || dashboardShown) {
+            showDashboard(dashboard);
+        }
+    } catch (error) {
+        console.error('Error loading dashboard:', error);
+        showMessage(VALIDATION_MESSAGES.REPORT_ERROR + error.message, MESSAGE_TYPES.ERROR);
+    }
+}
+
 async function refreshReportData() {
     try {
         const startDateInput = document.getElementById(INPUT_FIELDS.START_DATE);
@@ -230,6 +293,7 @@ async function generateReport() {
         generateButton.disabled = true;
         generateButton.classList.add(CSS_CLASSES.LOADING);
 
+        dashboardShown = false;
         await refreshReportData();
 
         document.querySelectorAll('.report-section').forEach(section => {
@@ -403,6 +467,50 @@ async function updateReportDisplay(data) {
     }
 }
 
+function showDashboard(dashboard) {
+    dashboardShown = true;
+
+    if (dashboard.monthlyChart && reportChart) {
+        const { labels, datasets } = dashboard.monthlyChart;
+        reportChart.data.labels = labels;
+        reportChart.data.datasets[0].data = datasets.rxCount;
+        reportChart.data.datasets[1].data = datasets.deliveries;
+        reportChart.data.datasets[2].data = datasets.rxPerDelivery;
+        reportChart.data.datasets[3].data = datasets.services;
+        reportChart.update();
+    }
+
+    if (dashboard.deliveryCounts) {
+        // Reuse the report totals by renaming the per-day counts to entry fields
+        updateDeliveryStatistics(dashboard.deliveryCounts.map(day => ({
+            purolator: day.purolatorCount,
+            fedex: day.fedexCount,
+            oneCourier: day.oneCourierCount,
+            goBolt: day.goBoltCount
+        })));
+    }
+
+    if (dashboard.serviceStats) {
+        document.getElementById('totalServices').textContent =
+            `$${Number(dashboard.serviceStats.totalRevenue).toFixed(2)}`;
+        const breakdownContainer = document.getElementById('serviceBreakdown');
+        if (breakdownContainer) {
+            breakdownContainer.innerHTML = '';
+            Object.entries(dashboard.serviceStats.serviceCounts).forEach(([type, count]) => {
+                const row = document.createElement('div');
+                row.className = 'service-type-row';
+                row.textContent = `${formatServiceType(type)} (${count})`;
+                breakdownContainer.appendChild(row);
+            });
+        }
+    }
+
+    const failedParts = Object.keys(dashboard.errors || {});
+    if (failedParts.length > 0) {
+        showMessage(VALIDATION_MESSAGES.REPORT_ERROR + failedParts.join(', '), MESSAGE_TYPES.WARNING);
+    }
+}
+
 function updateDeliveryStatistics(data) {
     if (!data || data.length === 0) {
         showMessage(VALIDATION_MESSAGES.NO_DELIVERY_DATA, MESSAGE_TYPES.WARNING);
@@ -663,6 +771,7 @@ export {
     showMessage,
     
     // Report Functions
+    loadDashboard,
     refreshReportData,
     generateReport,
     validateDateRange,
@@ -0,0 +1,133 @@
+package com.demoproject.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of CryptoEngine at increasing thread counts, against a single cipher
+ * shared under a lock. The pooled engine should scale with cores; the shared cipher
+ * should not.
+ *
+ * Excluded from the regular build; run with: mvn -Pbenchmark test
+ */
+@State(Scope.Benchmark)
+public class CryptoEngineBenchmark {
+
+    private static final String PLAINTEXT = "Jane Q. Patient-Example";
+
+    private CryptoEngine engine;
+    private String ciphertext;
+    private String legacyCiphertext;
+    private SecretKeySpec key;
+    private Cipher sharedCipher;
+    private SecureRandom sharedRandom;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        engine = new CryptoEngine(keyBytes, 256);
+        ciphertext = engine.encrypt(PLAINTEXT);
+
+        key = new SecretKeySpec(keyBytes, "AES");
+        Cipher legacy = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        legacy.init(Cipher.ENCRYPT_MODE, key);
+        legacyCiphertext = Base64.getEncoder().encodeToString(legacy.doFinal(PLAINTEXT.getBytes(StandardCharsets.UTF_8)));
+
+        sharedCipher = Cipher.getInstance("AES/GCM/NoPadding");
+        sharedRandom = new SecureRandom();
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return engine.encrypt(PLAINTEXT);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return engine.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        return engine.decrypt(legacyCiphertext);
+    }
+
+    /**
+     * Baseline: the previous single-cipher design, made thread-safe with a lock
+     */
+    @Benchmark
+    public byte[] encryptSharedCipher() throws GeneralSecurityException {
+        synchronized (sharedCipher) {
+            byte[] iv = new byte[12];
+            sharedRandom.nextBytes(iv);
+            sharedCipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+            return sharedCipher.doFinal(PLAINTEXT.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Runs every benchmark at 1, 2, 4, ... threads up to the number of cores
+     * and prints ops/ms per benchmark and thread count.
+     */
+    @Test
+    void throughputAcrossCores() throws RunnerException {
+        List<Integer> threadCounts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        Map<String, Map<Integer, Double>> scores = new TreeMap<>();
+        for (int threads : threadCounts) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(CryptoEngineBenchmark.class.getName() + "\\.")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .threads(threads)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build()).run();
+            for (RunResult result : results) {
+                String benchmark = result.getParams().getBenchmark();
+                scores.computeIfAbsent(benchmark.substring(benchmark.lastIndexOf('.') + 1), name -> new TreeMap<>())
+                    .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n%-22s", "ops/ms by threads"));
+        threadCounts.forEach(threads -> table.append(String.format("%12d", threads)));
+        scores.forEach((benchmark, byThreads) -> {
+            table.append(String.format("%n%-22s", benchmark));
+            byThreads.values().forEach(score -> table.append(String.format("%12.1f", score)));
+        });
+        System.out.println(table);
+    }
+}
@@ -0,0 +1,112 @@
+package com.demoproject.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that stored values stay readable across formats and key rotations,
+ * and that damaged or foreign values are rejected instead of misread.
+ */
+class CryptoEngineTest {
+
+    private static final byte[] CURRENT_KEY = key(1);
+    private static final byte[] PREVIOUS_KEY = key(2);
+    private static final byte[] OTHER_KEY = key(3);
+
+    private final CryptoEngine engine = new CryptoEngine(CURRENT_KEY, List.of(PREVIOUS_KEY), 4);
+
+    @Test
+    void decryptsLegacyEcbValuesUnderEveryRingKey() throws Exception {
+        assertEquals("Jane Doe", engine.decrypt(legacy(CURRENT_KEY, "Jane Doe")));
+        assertEquals("Émile Zoë", engine.decrypt(legacy(PREVIOUS_KEY, "Émile Zoë")));
+        assertEquals(List.of("Jane Doe", "John Roe"),
+            engine.decryptAll(List.of(legacy(PREVIOUS_KEY, "Jane Doe"), engine.encrypt("John Roe"))));
+        assertTrue(CryptoEngine.isLegacy(legacy(CURRENT_KEY, "Jane Doe")));
+        assertFalse(engine.isCurrent(legacy(CURRENT_KEY, "Jane Doe")));
+    }
+
+    @Test
+    void rejectsLegacyValuesUnderAnUnknownKey() throws Exception {
+        assertThrows(IllegalStateException.class, () -> engine.decrypt(legacy(OTHER_KEY, "Jane Doe")));
+        assertThrows(IllegalStateException.class, () -> engine.decrypt("not base64!"));
+    }
+
+    @Test
+    void readsValuesEncryptedBeforeARotation() {
+        String stored = new CryptoEngine(PREVIOUS_KEY, 4).encrypt("Jane Doe");
+
+        assertEquals("Jane Doe", engine.decrypt(stored));
+        assertFalse(engine.isCurrent(stored));
+        assertTrue(engine.isCurrent(engine.encrypt("Jane Doe")));
+    }
+
+    @Test
+    void rejectsTamperedAndTruncatedValues() {
+        String stored = engine.encrypt("Jane Doe");
+        String prefix = engine.currentPrefix();
+        byte[] data = Base64.getDecoder().decode(stored.substring(prefix.length()));
+
+        byte[] flipped = data.clone();
+        flipped[flipped.length - 1] ^= 1;
+        byte[] flippedBody = data.clone();
+        flippedBody[12] ^= 1;
+
+        assertThrows(IllegalStateException.class,
+            () -> engine.decrypt(prefix + Base64.getEncoder().encodeToString(flipped)));
+        assertThrows(IllegalStateException.class,
+            () -> engine.decrypt(prefix + Base64.getEncoder().encodeToString(flippedBody)));
+        assertThrows(IllegalStateException.class,
+            () -> engine.decrypt(prefix + Base64.getEncoder().encodeToString(Arrays.copyOf(data, data.length - 4))));
+        assertThrows(IllegalStateException.class,
+            () -> engine.decrypt(prefix + Base64.getEncoder().encodeToString(Arrays.copyOf(data, 8))));
+        assertThrows(IllegalStateException.class, () -> engine.decrypt(prefix));
+        assertThrows(IllegalStateException.class, () -> engine.decrypt(prefix + "%%%"));
+    }
+
+    @Test
+    void rejectsUnknownOrMissingKeyIds() {
+        String foreign = new CryptoEngine(OTHER_KEY, 4).encrypt("Jane Doe");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> engine.decrypt(foreign));
+        assertTrue(e.getMessage().contains("unknown key"));
+        assertThrows(IllegalStateException.class, () -> engine.decrypt(CryptoEngine.VERSION_PREFIX));
+        assertThrows(IllegalStateException.class, () -> engine.decrypt(CryptoEngine.VERSION_PREFIX + "abcdefgh"));
+    }
+
+    @Test
+    void encryptsWithFreshIvs() {
+        assertNotEquals(engine.encrypt("Jane Doe"), engine.encrypt("Jane Doe"));
+        assertEquals(engine.blindIndex("jane doe"), engine.blindIndexes("jane doe").get(0));
+        assertEquals(2, engine.blindIndexes("jane doe").size());
+    }
+
+    /**
+     * Ciphertext as the application stored it before the versioned format:
+     * Cipher.getInstance("AES"), which is ECB with PKCS5 padding, Base64 encoded
+     */
+    private static String legacy(byte[] keyBytes, String plaintext) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(keyBytes, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) (seed * 31 + i);
+        }
+        return key;
+    }
+}
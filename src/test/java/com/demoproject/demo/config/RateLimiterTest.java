@@ -0,0 +1,54 @@
+package com.demoproject.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that login attempts reserve failure tokens before the password check.
+ */
+class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), true, List.of(), List.of(),
+        30, 300, 2, 5, 50, Duration.ofMinutes(15), 1_000);
+
+    @Test
+    void parallelAttemptsCannotOutrunTheFailureLimit() {
+        // Attempts still in flight have not failed yet, but each holds a token
+        long allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (rateLimiter.checkLogin(login("10.0.0.1", "admin")).allowed()) {
+                allowed++;
+            }
+        }
+
+        assertEquals(5, allowed);
+        RateLimiter.Decision decision = rateLimiter.checkLogin(login("10.0.0.1", "admin"));
+        assertFalse(decision.allowed());
+        assertTrue(decision.retryAfterSeconds() > 0);
+        assertTrue(rateLimiter.checkLogin(login("10.0.0.1", "someone-else")).allowed());
+    }
+
+    @Test
+    void successfulLoginsGiveTheirTokenBack() {
+        for (int i = 0; i < 20; i++) {
+            MockHttpServletRequest request = login("10.0.0.2", "tester");
+            assertTrue(rateLimiter.checkLogin(request).allowed());
+            rateLimiter.releaseLoginAttempt(request);
+        }
+    }
+
+    private static MockHttpServletRequest login(String address, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr(address);
+        request.setParameter("username", username);
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package com.demoproject.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that cache keys and ETags move together when a range's data changes.
+ */
+class WellcaDataVersionsTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2026, 3, 10);
+    private static final LocalDate MAY = LocalDate.of(2026, 5, 10);
+
+    private final WellcaDataVersions versions = new WellcaDataVersions();
+
+    @Test
+    void valueLoadedBeforeAWriteIsNotLookedUpAfterIt() {
+        WellcaCacheKey before = versions.current(WellcaCacheKey.of("range", MARCH, MAY));
+        String etagBefore = versions.versionOf(MARCH, MAY).etag();
+
+        versions.bump(MAY, MAY);
+
+        // A slow read that started earlier caches under the old key
+        WellcaCacheKey after = versions.current(WellcaCacheKey.of("range", MARCH, MAY));
+        assertNotEquals(before, after);
+        assertNotEquals(etagBefore, versions.versionOf(MARCH, MAY).etag());
+        assertEquals(after, versions.current(WellcaCacheKey.of("range", MARCH, MAY)));
+    }
+
+    @Test
+    void writesOutsideTheRangeKeepTheKey() {
+        WellcaCacheKey march = versions.current(WellcaCacheKey.ofMonth("monthly-services", MARCH));
+        String etag = versions.versionOf(MARCH, MARCH).etag();
+
+        versions.bump(MAY, MAY);
+
+        assertEquals(march, versions.current(WellcaCacheKey.ofMonth("monthly-services", MARCH)));
+        assertEquals(etag, versions.versionOf(MARCH, MARCH).etag());
+    }
+}
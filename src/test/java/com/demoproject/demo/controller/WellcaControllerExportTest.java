@@ -0,0 +1,127 @@
+package com.demoproject.demo.controller;
+
+import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.exception.GlobalExceptionHandler;
+import com.demoproject.demo.repository.WellcaRepository;
+import com.demoproject.demo.services.WellcaExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams exports through Spring MVC's return value handling, with the real export
+ * service reading from a mocked repository. Security is not part of this setup.
+ */
+class WellcaControllerExportTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    private WellcaRepository repository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WellcaRepository.class);
+        WellcaExportService exportService = new WellcaExportService(repository, mock(EntityManager.class),
+            new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class));
+        WellcaController controller = new WellcaController(null, null, exportService, null, null, null, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void streamsCsvExport() throws Exception {
+        when(repository.streamByDateRange(START, END)).thenReturn(Stream.of(entry(1L, 2), entry(2L, 3)));
+
+        MvcResult started = mockMvc.perform(get("/wellca-management/export")
+                .param("startDate", START.toString())
+                .param("endDate", END.toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+            .andExpect(header().string("Content-Disposition",
+                "attachment; filename=\"wellca-2024-03-01_2024-03-31.csv\""))
+            .andExpect(content().string(
+                "id,date,purolator,fedex,oneCourier,goBolt,newRx,refill,reAuth,hold,profilesEntered,"
+                    + "whoFilledRx,activePercentage,serviceType,serviceCost,patientName,patientDob,pharmacistName\n"
+                    + "1,2024-03-01,,,,,2,,,,,,,,,,,\n"
+                    + "2,2024-03-01,,,,,3,,,,,,,,,,,\n"));
+    }
+
+    @Test
+    void streamsGzippedNdjsonExport() throws Exception {
+        when(repository.streamByDateRange(START, END)).thenReturn(Stream.of(entry(1L, 2)));
+
+        MvcResult started = mockMvc.perform(get("/wellca-management/export")
+                .param("startDate", START.toString())
+                .param("endDate", END.toString())
+                .param("format", "ndjson")
+                .param("gzip", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/gzip"))
+            .andReturn();
+
+        String body = gunzip(result.getResponse().getContentAsByteArray());
+        assertEquals(1, body.lines().count());
+        assertTrue(body.startsWith("{\"id\":1,"), body);
+        assertTrue(body.contains("\"newRx\":2"), body);
+    }
+
+    @Test
+    void rejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/wellca-management/export")
+                .param("startDate", END.toString())
+                .param("endDate", START.toString()))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/wellca-management/export")
+                .param("startDate", START.toString())
+                .param("endDate", END.toString())
+                .param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static Wellca entry(long id, int newRx) {
+        Wellca entry = new Wellca();
+        entry.setId(id);
+        entry.setDate(START);
+        entry.setNewRx(newRx);
+        return entry;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
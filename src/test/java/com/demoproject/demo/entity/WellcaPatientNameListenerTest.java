@@ -0,0 +1,100 @@
+package com.demoproject.demo.entity;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WellcaPatientNameListenerTest {
+
+    private final AttributeEncryptor encryptor = new AttributeEncryptor("test-key", List.of(), 4);
+    private final WellcaPatientNameListener listener = new WellcaPatientNameListener(encryptor);
+
+    @Test
+    void encryptsAndIndexesNameOnSave() {
+        Wellca entry = new Wellca();
+        entry.setPatientName("Jane Doe");
+
+        listener.encryptPatientName(entry);
+
+        assertFalse(entry.isPatientNamePending());
+        assertEquals("Jane Doe", encryptor.convertToEntityAttribute(entry.getPatientNameCipher()));
+        assertEquals(encryptor.blindIndex("jane  doe"), entry.getPatientNameIndex());
+        assertEquals("Jane Doe", entry.getPatientName());
+    }
+
+    @Test
+    void clearsColumnsWhenNameIsRemoved() {
+        Wellca entry = loaded(encryptor.convertToDatabaseColumn("Jane Doe"));
+        entry.setPatientName(null);
+
+        listener.encryptPatientName(entry);
+
+        assertNull(entry.getPatientNameCipher());
+        assertNull(entry.getPatientNameIndex());
+        assertNull(entry.getPatientName());
+    }
+
+    @Test
+    void decryptsLoadedNameOnceOnFirstAccess() {
+        AtomicInteger decryptions = new AtomicInteger();
+        Wellca entry = new Wellca();
+        entry.setPatientNameCipher(encryptor.convertToDatabaseColumn("Jane Doe"));
+        entry.decryptPatientNameWith(cipher -> {
+            decryptions.incrementAndGet();
+            return encryptor.convertToEntityAttribute(cipher);
+        });
+
+        assertEquals(0, decryptions.get());
+        assertEquals("Jane Doe", entry.getPatientName());
+        assertEquals("Jane Doe", entry.getPatientName());
+        assertEquals(1, decryptions.get());
+    }
+
+    @Test
+    void decryptsAgainWhenMergedCiphertextChanges() {
+        Wellca entry = loaded(encryptor.convertToDatabaseColumn("Jane Doe"));
+        assertEquals("Jane Doe", entry.getPatientName());
+
+        entry.setPatientNameCipher(encryptor.convertToDatabaseColumn("John Roe"));
+
+        assertEquals("John Roe", entry.getPatientName());
+    }
+
+    @Test
+    void savedNameIsServedWithoutDecrypting() {
+        AtomicInteger decryptions = new AtomicInteger();
+        Wellca entry = new Wellca();
+        entry.setPatientNameCipher(encryptor.convertToDatabaseColumn("Jane Doe"));
+        entry.decryptPatientNameWith(cipher -> {
+            decryptions.incrementAndGet();
+            return encryptor.convertToEntityAttribute(cipher);
+        });
+
+        entry.setPatientName("John Roe");
+        listener.encryptPatientName(entry);
+
+        assertEquals("John Roe", entry.getPatientName());
+        assertEquals(0, decryptions.get());
+    }
+
+    @Test
+    void worksWithoutPersistenceContext() {
+        Wellca entry = new Wellca();
+        assertNull(entry.getPatientName());
+        entry.setPatientName("Jane Doe");
+        assertEquals("Jane Doe", entry.getPatientName());
+    }
+
+    private Wellca loaded(String cipher) {
+        Wellca entry = new Wellca();
+        entry.setPatientNameCipher(cipher);
+        listener.attachDecryptor(entry);
+        return entry;
+    }
+}
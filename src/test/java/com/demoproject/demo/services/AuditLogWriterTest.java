@@ -0,0 +1,65 @@
+package com.demoproject.demo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Replays spill files left by earlier runs against a mocked JdbcTemplate.
+ */
+class AuditLogWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<String> inserted = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumesAnUnfinishedReplayBeforeTheNewSpill() throws Exception {
+        Path spill = directory.resolve("audit-spill.ndjson");
+        Path replay = directory.resolve("audit-spill.ndjson.replay");
+        Path progress = directory.resolve("audit-spill.ndjson.replay.progress");
+        // The earlier replay wrote its first batch, then died on a line cut short by a crash
+        Files.writeString(replay, line("a1") + line("a2") + line("a3") + "{\"action\":\"tru");
+        Files.writeString(progress, "2");
+        Files.writeString(spill, line("b1") + line("b2"));
+        doAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(row -> inserted.add((String) row[0]));
+            return new int[rows.size()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(List.class), any(int[].class));
+
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, mock(PlatformTransactionManager.class),
+            objectMapper, new SimpleMeterRegistry(), 10, 2, 50, 10, spill.toString());
+        writer.start();
+        writer.stop();
+
+        assertEquals(List.of("a3", "b1", "b2"), inserted);
+        assertFalse(Files.exists(replay));
+        assertFalse(Files.exists(progress));
+        assertFalse(Files.exists(spill));
+    }
+
+    private String line(String action) throws Exception {
+        return objectMapper.writeValueAsString(new AuditLogWriter.Entry(action, "tester",
+            LocalDateTime.of(2026, 10, 17, 12, 0), "TEST", null)) + "\n";
+    }
+}
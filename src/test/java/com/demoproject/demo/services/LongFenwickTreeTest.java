@@ -0,0 +1,56 @@
+package com.demoproject.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the Fenwick tree's sums with a plain array.
+ */
+class LongFenwickTreeTest {
+
+    @Test
+    void buildsFromInitialValues() {
+        LongFenwickTree tree = new LongFenwickTree(new long[] {3, 1, 4, 1, 5, 9, 2});
+
+        assertEquals(7, tree.size());
+        assertEquals(3, tree.prefixSum(0));
+        assertEquals(25, tree.prefixSum(6));
+        assertEquals(19, tree.rangeSum(2, 5));
+        assertEquals(9, tree.rangeSum(5, 5));
+    }
+
+    @Test
+    void handlesEmptyAndOutOfRangePrefixes() {
+        LongFenwickTree tree = new LongFenwickTree(new long[] {2, 2, 2});
+
+        assertEquals(0, tree.prefixSum(-1));
+        assertEquals(6, tree.prefixSum(10));
+        assertEquals(0, tree.rangeSum(2, 1));
+        assertEquals(0, new LongFenwickTree(new long[0]).prefixSum(0));
+    }
+
+    @Test
+    void matchesAnArrayAfterRandomUpdates() {
+        Random random = new Random(42);
+        long[] values = new long[100];
+        LongFenwickTree tree = new LongFenwickTree(values.clone());
+
+        for (int round = 0; round < 1_000; round++) {
+            int slot = random.nextInt(values.length);
+            long delta = random.nextInt(2_001) - 1_000;
+            values[slot] += delta;
+            tree.add(slot, delta);
+
+            int from = random.nextInt(values.length);
+            int to = from + random.nextInt(values.length - from);
+            long expected = 0;
+            for (int i = from; i <= to; i++) {
+                expected += values[i];
+            }
+            assertEquals(expected, tree.rangeSum(from, to));
+        }
+    }
+}
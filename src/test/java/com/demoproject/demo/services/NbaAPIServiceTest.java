@@ -0,0 +1,298 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.demoproject.demo.services.NbaAPIService.NbaApiException;
+import com.demoproject.demo.services.NbaAPIService.NbaApiUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the NBA client against a local mock server, with a manual clock for cache ages.
+ * Background refreshes are queued and run explicitly by the tests.
+ */
+class NbaAPIServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final Duration MAX_STALE = Duration.ofHours(1);
+
+    private static final String STATISTICS_JSON = """
+        {"get":"players/statistics","parameters":{"game":"42"},"errors":[],"results":1,"response":[
+          {"player":{"id":7,"firstname":"Jayson","lastname":"Tatum"},
+           "team":{"id":2,"name":"Boston Celtics","nickname":"Celtics","code":"BOS","logo":"x.png"},
+           "game":{"id":42},"points":%d,"pos":"SF","min":"36","fgm":12,"fga":22,"fgp":"54.5",
+           "ftm":5,"fta":6,"ftp":"83.3","tpm":3,"tpa":8,"tpp":"37.5","offReb":1,"defReb":8,"totReb":9,
+           "assists":4,"pFouls":2,"steals":1,"turnovers":3,"blocks":0,"plusMinus":"+7","comment":null}]}
+        """;
+
+    private static final String GAME_JSON = """
+        {"get":"games","parameters":{"id":"42"},"errors":[],"results":1,"response":[
+          {"id":42,"league":"standard","season":2024,
+           "date":{"start":"2024-10-22T23:30:00.000Z","end":null,"duration":null},
+           "stage":2,"status":{"clock":"5:12","halftime":false,"short":2,"long":"In Play"},
+           "periods":{"current":3,"total":4,"endOfPeriod":false},
+           "teams":{"visitors":{"id":20,"name":"New York Knicks","nickname":"Knicks","code":"NYK","logo":"n.png"},
+                    "home":{"id":2,"name":"Boston Celtics","nickname":"Celtics","code":"BOS","logo":"x.png"}},
+           "scores":{"visitors":{"win":0,"loss":0,"linescore":["20","31",""],"points":51},
+                     "home":{"win":0,"loss":0,"linescore":["33","28",""],"points":61}}}]}
+        """;
+
+    private MockWebServer server;
+    private AtomicLong clock;
+    private List<Runnable> pendingRefreshes;
+    private SimpleMeterRegistry meterRegistry;
+    private NbaAPIService service;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        clock = new AtomicLong();
+        pendingRefreshes = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        service = newService(guard(Duration.ofSeconds(5), 10));
+    }
+
+    private NbaAPIService newService(NbaUpstreamGuard guard) {
+        return newService(guard, 1_000, Duration.ofSeconds(1));
+    }
+
+    private NbaAPIService newService(NbaUpstreamGuard guard, long requestsPerMinute, Duration quotaMaxWait) {
+        return new NbaAPIService(new OkHttpClient(), new ObjectMapper().findAndRegisterModules(),
+            "test-key", "test-host", server.url("/").toString(), TTL, TTL, MAX_STALE,
+            requestsPerMinute, quotaMaxWait, Duration.ZERO, task -> pendingRefreshes.add(task), guard, clock::get);
+    }
+
+    private NbaUpstreamGuard guard(Duration callTimeout, int minimumCalls) {
+        return new NbaUpstreamGuard(meterRegistry, callTimeout, 10, Duration.ofMillis(500),
+            50, Duration.ofSeconds(3), minimumCalls, minimumCalls, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void parsesPlayerStatisticsAndSendsCredentials() throws InterruptedException {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+
+        List<NbaPlayerStatistics> statistics = service.getPlayerStatistics(42);
+
+        assertEquals(1, statistics.size());
+        NbaPlayerStatistics line = statistics.get(0);
+        assertEquals("Tatum", line.player().lastname());
+        assertEquals("BOS", line.team().code());
+        assertEquals(42, line.game().id());
+        assertEquals(30, line.points());
+        assertEquals(2, line.pFouls());
+        assertEquals(9, line.totReb());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/players/statistics?game=42", request.getPath());
+        assertEquals("test-key", request.getHeader("x-rapidapi-key"));
+        assertEquals("test-host", request.getHeader("x-rapidapi-host"));
+    }
+
+    @Test
+    void parsesGames() throws InterruptedException {
+        server.enqueue(json(GAME_JSON));
+
+        NbaGame game = service.getGame(42);
+
+        assertEquals(Instant.parse("2024-10-22T23:30:00Z"), game.date().start());
+        assertEquals(2, game.status().code());
+        assertEquals("Knicks", game.teams().visitors().nickname());
+        assertEquals(61, game.scores().home().points());
+        assertEquals(3, game.periods().current());
+        assertEquals("/games?id=42", server.takeRequest().getPath());
+    }
+
+    @Test
+    void unknownGameIsNull() {
+        server.enqueue(json("{\"get\":\"games\",\"errors\":[],\"results\":0,\"response\":[]}"));
+
+        assertNull(service.getGame(1));
+    }
+
+    @Test
+    void servesCachedValueWithinTtl() {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+
+        service.getPlayerStatistics(42);
+        clock.addAndGet(TTL.minusSeconds(1).toNanos());
+        service.getPlayerStatistics(42);
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<NbaPlayerStatistics>>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return service.getPlayerStatistics(42);
+                }));
+            }
+            start.countDown();
+            for (Future<List<NbaPlayerStatistics>> result : results) {
+                assertEquals(30, result.get(5, TimeUnit.SECONDS).get(0).points());
+            }
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void servesStaleValueWhileRefreshing() {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+        server.enqueue(json(STATISTICS_JSON.formatted(35)));
+
+        service.getPlayerStatistics(42);
+        clock.addAndGet(TTL.plusSeconds(1).toNanos());
+
+        assertEquals(30, service.getPlayerStatistics(42).get(0).points());
+        assertEquals(1, server.getRequestCount());
+        runPendingRefreshes();
+        assertEquals(35, service.getPlayerStatistics(42).get(0).points());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void keepsStaleValueWhenRefreshFails() {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+        server.enqueue(new MockResponse().setResponseCode(429));
+
+        service.getPlayerStatistics(42);
+        clock.addAndGet(TTL.plusSeconds(1).toNanos());
+
+        assertEquals(30, service.getPlayerStatistics(42).get(0).points());
+        runPendingRefreshes();
+        assertEquals(2, server.getRequestCount());
+        assertEquals(30, service.getPlayerStatistics(42).get(0).points());
+    }
+
+    @Test
+    void dropsValueOlderThanMaxStale() {
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        service.getPlayerStatistics(42);
+        clock.addAndGet(MAX_STALE.plusSeconds(1).toNanos());
+
+        assertThrows(NbaApiException.class, () -> service.getPlayerStatistics(42));
+    }
+
+    @Test
+    void upstreamErrorWithoutCacheFails() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        NbaApiException e = assertThrows(NbaApiException.class, () -> service.getGames(LocalDate.of(2024, 10, 22)));
+        assertTrue(e.getMessage().contains("500"));
+    }
+
+    @Test
+    void servesLastGoodValueWhileCircuitIsOpen() {
+        NbaUpstreamGuard guard = guard(Duration.ofSeconds(5), 2);
+        service = newService(guard);
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        service.getPlayerStatistics(42);
+        // One failure in a window of two reaches the 50% threshold
+        assertThrows(NbaApiException.class, () -> service.getPlayerStatistics(43));
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+
+        clock.addAndGet(MAX_STALE.plusSeconds(1).toNanos());
+        assertEquals(30, service.getPlayerStatistics(42).get(0).points());
+        assertThrows(NbaApiUnavailableException.class, () -> service.getPlayerStatistics(44));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, meterRegistry.counter("nba.api.circuit.transitions", "from", "closed", "to", "open").count());
+        assertEquals(1, meterRegistry.counter("nba.api.fallbacks").count());
+    }
+
+    @Test
+    void cacheLoadsDoNotWaitForQuota() {
+        service = newService(guard(Duration.ofSeconds(5), 10), 1, Duration.ofMillis(300));
+        server.enqueue(json(STATISTICS_JSON.formatted(30)));
+
+        service.getPlayerStatistics(42);
+        clock.addAndGet(MAX_STALE.plusSeconds(1).toNanos());
+
+        long start = System.nanoTime();
+        assertEquals(30, service.getPlayerStatistics(42).get(0).points());
+        assertThrows(NbaApiUnavailableException.class, () -> service.getPlayerStatistics(43));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(300)) < 0);
+
+        // The next token is a minute away, beyond even quotaMaxWait
+        assertThrows(NbaApiUnavailableException.class, () -> service.fetchPlayerStatistics(42));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, meterRegistry.counter("nba.api.fallbacks").count());
+    }
+
+        @Test
+    void clientErrorsDoNotOpenCircuit() {
+        NbaUpstreamGuard guard = guard(Duration.ofSeconds(5), 2);
+        service = newService(guard);
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        assertThrows(NbaApiException.class, () -> service.getPlayerStatistics(43));
+        assertThrows(NbaApiException.class, () -> service.getPlayerStatistics(44));
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void deadlineCutsSlowCalls() {
+        service = newService(guard(Duration.ofMillis(200), 10));
+        server.enqueue(json(STATISTICS_JSON.formatted(30)).setHeadersDelay(2, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        NbaApiException e = assertThrows(NbaApiException.class, () -> service.getPlayerStatistics(42));
+
+        assertTrue(e.isRetryable());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    private void runPendingRefreshes() {
+        List<Runnable> tasks = List.copyOf(pendingRefreshes);
+        pendingRefreshes.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
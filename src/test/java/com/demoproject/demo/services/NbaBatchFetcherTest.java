@@ -0,0 +1,144 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGameStatisticsResult;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the batch fetcher against a local mock server with a mocked store.
+ * Backoff sleeps are recorded instead of taken.
+ */
+class NbaBatchFetcherTest {
+
+    private static final String STATISTICS_JSON = """
+        {"results":1,"response":[{"player":{"id":7,"firstname":"Jayson","lastname":"Tatum"},
+         "team":{"id":2,"name":"Boston Celtics","nickname":"Celtics","code":"BOS","logo":"x.png"},
+         "game":{"id":%d},"points":30}]}
+        """;
+
+    private MockWebServer server;
+    private NbaStatsStore store;
+    private List<Long> sleeps;
+    private Map<Integer, List<MockResponse>> responses;
+    private Map<Integer, AtomicInteger> requestCounts;
+    private NbaBatchFetcher fetcher;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        responses = new ConcurrentHashMap<>();
+        requestCounts = new ConcurrentHashMap<>();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                int gameId = Integer.parseInt(request.getRequestUrl().queryParameter("game"));
+                int attempt = requestCounts.computeIfAbsent(gameId, id -> new AtomicInteger()).getAndIncrement();
+                List<MockResponse> queued = responses.get(gameId);
+                return queued.get(Math.min(attempt, queued.size() - 1));
+            }
+        });
+        server.start();
+
+        NbaAPIService service = new NbaAPIService(new OkHttpClient(), new ObjectMapper().findAndRegisterModules(),
+            "test-key", "test-host", server.url("/").toString(), Duration.ofMinutes(1), Duration.ofMinutes(1),
+            Duration.ofHours(1), 1_000, Duration.ofSeconds(1), Duration.ZERO, Runnable::run,
+            new NbaUpstreamGuard(new SimpleMeterRegistry(), Duration.ofSeconds(5), 10, Duration.ofMillis(500),
+                50, Duration.ofSeconds(3), 20, 10, Duration.ofMinutes(1)),
+            System::nanoTime);
+        store = mock(NbaStatsStore.class);
+        when(store.findFinalPlayerStatistics(anyInt())).thenReturn(null);
+        sleeps = new ArrayList<>();
+        fetcher = new NbaBatchFetcher(service, store, 4, 3, Duration.ofMillis(100), Duration.ofSeconds(1),
+            sleeps::add);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void deliversResultsInCompletionOrder() {
+        responses.put(1, List.of(statistics(1).setBodyDelay(500, TimeUnit.MILLISECONDS)));
+        responses.put(2, List.of(statistics(2)));
+
+        List<NbaGameStatisticsResult> results = fetch(List.of(1, 2, 2));
+
+        assertEquals(List.of(2, 1), results.stream().map(NbaGameStatisticsResult::gameId).toList());
+        assertEquals(30, results.get(1).statistics().get(0).points());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void retriesTransientFailuresWithBackoff() {
+        responses.put(1, List.of(new MockResponse().setResponseCode(503), statistics(1)));
+
+        NbaGameStatisticsResult result = fetch(List.of(1)).get(0);
+
+        assertNull(result.error());
+        assertEquals(2, requestCounts.get(1).get());
+        assertEquals(1, sleeps.size());
+        assertTrue(sleeps.get(0) >= 100 && sleeps.get(0) <= 200, "jittered backoff " + sleeps.get(0));
+    }
+
+    @Test
+    void reportsPermanentFailuresWithoutRetrying() {
+        responses.put(1, List.of(new MockResponse().setResponseCode(403)));
+        responses.put(2, List.of(statistics(2)));
+
+        List<NbaGameStatisticsResult> results = fetch(List.of(1, 2));
+
+        NbaGameStatisticsResult failed = results.stream().filter(r -> r.gameId() == 1).findFirst().orElseThrow();
+        assertTrue(failed.error().contains("403"));
+        assertNull(failed.statistics());
+        assertEquals(1, requestCounts.get(1).get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void servesFinalBoxScoresFromStore() {
+        List<NbaPlayerStatistics> stored = List.of();
+        when(store.findFinalPlayerStatistics(1)).thenReturn(stored);
+
+        NbaGameStatisticsResult result = fetch(List.of(1)).get(0);
+
+        assertEquals(stored, result.statistics());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private List<NbaGameStatisticsResult> fetch(List<Integer> gameIds) {
+        List<NbaGameStatisticsResult> results = new ArrayList<>();
+        fetcher.fetchPlayerStatistics(gameIds, results::add);
+        return results;
+    }
+
+    private static MockResponse statistics(int gameId) {
+        return new MockResponse().setHeader("Content-Type", "application/json")
+            .setBody(STATISTICS_JSON.formatted(gameId));
+    }
+}
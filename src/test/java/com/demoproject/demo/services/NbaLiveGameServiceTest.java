@@ -0,0 +1,88 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.NbaGame;
+import com.demoproject.demo.dto.NbaPlayerStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the live poller's cadence and diffing without polling.
+ */
+class NbaLiveGameServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T23:00:00Z");
+
+    private NbaLiveGameService service;
+
+    @BeforeEach
+    void createService() {
+        service = new NbaLiveGameService(mock(NbaAPIService.class), new ObjectMapper(), new SimpleMeterRegistry(),
+            Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(5), 1, 8, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void closeService() {
+        service.close();
+    }
+
+    @Test
+    void pollsFastDuringPlayAndSlowAtBreaks() {
+        assertEquals(Duration.ofSeconds(10), service.nextDelay(game(2, false, false, NOW), NOW));
+        assertEquals(Duration.ofMinutes(1), service.nextDelay(game(2, true, false, NOW), NOW));
+        assertEquals(Duration.ofMinutes(1), service.nextDelay(game(2, false, true, NOW), NOW));
+        assertNull(service.nextDelay(game(3, false, false, NOW), NOW));
+    }
+
+    @Test
+    void wakesUpForTipOff() {
+        assertEquals(Duration.ofMinutes(5), service.nextDelay(game(1, false, false, NOW.plusSeconds(3_600)), NOW));
+        assertEquals(Duration.ofMinutes(2), service.nextDelay(game(1, false, false, NOW.plusSeconds(120)), NOW));
+        assertEquals(Duration.ofSeconds(10), service.nextDelay(game(1, false, false, NOW.minusSeconds(60)), NOW));
+    }
+
+    @Test
+    void diffsBoxScoreLinesByPlayer() {
+        NbaPlayerStatistics tatum = line(7, 20);
+        NbaPlayerStatistics brown = line(8, 12);
+
+        List<NbaPlayerStatistics> changed = NbaLiveGameService.changedLines(Map.of(7, tatum, 8, brown),
+            List.of(line(7, 20), line(8, 14), line(9, 2)));
+
+        assertEquals(List.of(line(8, 14), line(9, 2)), changed);
+        assertTrue(NbaLiveGameService.changedLines(Map.of(7, tatum), List.of(line(7, 20))).isEmpty());
+    }
+
+    @Test
+    void limitsFollowedGames() {
+        assertNotNull(service.subscribe(1));
+        assertNotNull(service.subscribe(1));
+        assertNull(service.subscribe(2));
+        assertEquals(1, service.getGameCount());
+    }
+
+    private static NbaGame game(int statusCode, boolean halftime, boolean endOfPeriod, Instant start) {
+        return new NbaGame(1, 2026, new NbaGame.Schedule(start, null),
+            new NbaGame.Status("5:00", halftime, statusCode, "S" + statusCode),
+            new NbaGame.Periods(2, 4, endOfPeriod), null, null);
+    }
+
+    private static NbaPlayerStatistics line(int playerId, int points) {
+        return new NbaPlayerStatistics(new NbaPlayerStatistics.Player(playerId, "First", "Last"), null, null,
+            points, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+            null, null, null, null, null, null);
+    }
+}
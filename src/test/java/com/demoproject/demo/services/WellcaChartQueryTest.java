@@ -0,0 +1,145 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.entity.Wellca;
+import com.demoproject.demo.entity.WellcaPatientNameListener;
+import com.demoproject.demo.entity.WellcaRollup;
+import com.demoproject.demo.entity.WellcaRollup.Granularity;
+import com.demoproject.demo.repository.WellcaRepository;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the chart bucketing queries against the local PostgreSQL from the test profile.
+ * Skipped when no database is listening. Data is written far in the future and rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = WellcaChartQueryTest.Config.class)
+class WellcaChartQueryTest {
+
+    /**
+     * DemoApplication's explicit component scan would pull in the whole app, so the slice gets
+     * its own configuration. It is deliberately not a @Configuration so that scan skips it.
+     */
+    @EntityScan("com.demoproject.demo.entity")
+    @EnableJpaRepositories("com.demoproject.demo.repository")
+    @Import({WellcaRollupService.class, WellcaPatientNameListener.class, AttributeEncryptor.class})
+    static class Config {
+    }
+
+    @Autowired
+    private WellcaRepository wellcaRepository;
+
+    @Autowired
+    private WellcaRollupService rollupService;
+
+    @BeforeAll
+    static void requirePostgres() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", 5432), 500);
+        } catch (IOException e) {
+            Assumptions.abort("No PostgreSQL on localhost:5432");
+        }
+    }
+
+    @Test
+    void monthlySeriesFillsEmptyDays() {
+        save(LocalDate.of(2099, 3, 2), 3, 5);
+        save(LocalDate.of(2099, 3, 2), 1, 2);
+        save(LocalDate.of(2099, 3, 31), 4, 0);
+        save(LocalDate.of(2099, 4, 1), 9, 9);
+        rollupService.rebuild(LocalDate.of(2099, 3, 1), LocalDate.of(2099, 4, 1));
+
+        List<WellcaRollup> days = rollupService.getFilledSeries(
+            WellcaChartRange.covering(Granularity.DAY, LocalDate.of(2099, 3, 1), LocalDate.of(2099, 3, 31)));
+
+        assertEquals(31, days.size());
+        assertEquals(LocalDate.of(2099, 3, 1), days.get(0).getPeriodStart());
+        assertEquals(0, days.get(0).getEntryCount());
+        assertEquals(2, days.get(1).getEntryCount());
+        assertEquals(4, days.get(1).getPurolator());
+        assertEquals(7, days.get(1).getNewRx());
+        assertEquals(4, days.get(30).getPurolator());
+    }
+
+    @Test
+    void quarterAlwaysReportsThreeMonths() {
+        save(LocalDate.of(2099, 5, 15), 2, 6);
+        rollupService.rebuild(LocalDate.of(2099, 5, 15), LocalDate.of(2099, 5, 15));
+
+        List<WellcaRollup> months = rollupService.getFilledSeries(WellcaChartRange.quarter(2099, 2));
+
+        assertEquals(3, months.size());
+        assertEquals(LocalDate.of(2099, 4, 1), months.get(0).getPeriodStart());
+        assertEquals(0, months.get(0).getTotalDeliveries());
+        assertEquals(2, months.get(1).getTotalDeliveries());
+        assertEquals(6, months.get(1).getTotalRx());
+        assertEquals(0, months.get(2).getEntryCount());
+    }
+
+    @Test
+    void weeksAreBucketedByIsoMonday() {
+        LocalDate wednesday = LocalDate.of(2099, 6, 10);
+        save(wednesday, 1, 1);
+        save(wednesday.plusDays(4), 1, 1);
+        save(wednesday.plusDays(5), 1, 1);
+        rollupService.rebuild(wednesday, wednesday.plusDays(5));
+
+        List<WellcaRollup> weeks = rollupService.getFilledSeries(
+            WellcaChartRange.covering(Granularity.WEEK, wednesday, wednesday.plusDays(5)));
+
+        assertEquals(2, weeks.size());
+        assertEquals(DayOfWeek.MONDAY, weeks.get(0).getPeriodStart().getDayOfWeek());
+        assertEquals(2, weeks.get(0).getEntryCount());
+        assertEquals(1, weeks.get(1).getEntryCount());
+        assertEquals(new BigDecimal("0.00"), weeks.get(1).getServiceRevenue().setScale(2));
+    }
+
+    @Test
+    void weekWindowsStartOnTheRequestedDay() {
+        LocalDate wednesday = LocalDate.of(2099, 6, 10);
+        save(wednesday.minusDays(1), 1, 1);
+        save(wednesday, 1, 2);
+        save(wednesday.plusDays(6), 1, 3);
+        save(wednesday.plusDays(7), 1, 4);
+        save(wednesday.plusDays(9), 1, 5);
+        save(wednesday.plusDays(10), 1, 6);
+        rollupService.rebuild(wednesday.minusDays(1), wednesday.plusDays(10));
+
+        List<WellcaRollup> weeks = rollupService.getWeekWindows(wednesday, wednesday.plusDays(9));
+
+        assertEquals(2, weeks.size());
+        assertEquals(wednesday, weeks.get(0).getPeriodStart());
+        assertEquals(5, weeks.get(0).getNewRx());
+        assertEquals(wednesday.plusDays(7), weeks.get(1).getPeriodStart());
+        assertEquals(9, weeks.get(1).getNewRx());
+        assertEquals(2, weeks.get(1).getEntryCount());
+    }
+
+    private void save(LocalDate date, int purolator, int newRx) {
+        Wellca entry = new Wellca();
+        entry.setDate(date);
+        entry.setPurolator(purolator);
+        entry.setNewRx(newRx);
+        wellcaRepository.saveAndFlush(entry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WellcaCsvFormatTest {
+
+    @Test
+    void resolvesHeaderNamesIgnoringCaseAndSpaces() {
+        assertEquals(List.of("date", "newRx", "patientName"),
+            WellcaCsvFormat.parseHeader("DATE, newrx ,\"PatientName\""));
+    }
+
+    @Test
+    void rejectsUnknownColumnsAndMissingDate() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+            () -> WellcaCsvFormat.parseHeader("date,bogus"));
+        assertTrue(unknown.getMessage().contains("bogus"));
+        assertThrows(IllegalArgumentException.class, () -> WellcaCsvFormat.parseHeader("newRx"));
+    }
+
+    @Test
+    void mapsRecordsAndLeavesBlankValuesNull() {
+        WellcaDTO dto = WellcaCsvFormat.toDTO(List.of("date", "newRx", "serviceCost", "hold"),
+            List.of("2024-03-05", " 12 ", "19.50", ""));
+
+        assertEquals(LocalDate.of(2024, 3, 5), dto.getDate());
+        assertEquals(12, dto.getNewRx());
+        assertEquals(new BigDecimal("19.50"), dto.getServiceCost());
+        assertNull(dto.getHold());
+    }
+
+    @Test
+    void rejectsWidthMismatchAndBadValues() {
+        IllegalArgumentException width = assertThrows(IllegalArgumentException.class,
+            () -> WellcaCsvFormat.toDTO(List.of("date", "newRx"), List.of("2024-03-05")));
+        assertEquals("Expected 2 fields but found 1", width.getMessage());
+
+        IllegalArgumentException value = assertThrows(IllegalArgumentException.class,
+            () -> WellcaCsvFormat.toDTO(List.of("date", "newRx"), List.of("2024-03-05", "many")));
+        assertEquals("Invalid value for newRx: many", value.getMessage());
+    }
+}
@@ -0,0 +1,65 @@
+package com.demoproject.demo.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that dashboard parts never hold more connections than their slots allow.
+ */
+class WellcaDashboardServiceTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @AfterEach
+    void closeExecutor() {
+        executor.close();
+    }
+
+    @Test
+    void concurrentLoadsShareTheSlots() throws Exception {
+        WellcaService wellcaService = mock(WellcaService.class, invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            active.decrementAndGet();
+            return null;
+        });
+        WellcaDashboardService service = new WellcaDashboardService(wellcaService, executor,
+            mock(PlatformTransactionManager.class), Duration.ofSeconds(10), 2);
+
+        var first = executor.submit(() -> service.getDashboard(LocalDate.of(2026, 10, 17)));
+        var second = executor.submit(() -> service.getDashboard(LocalDate.of(2026, 10, 17)));
+
+        assertEquals(Map.of(), first.get().get("errors"));
+        assertEquals(Map.of(), second.get().get("errors"));
+        assertTrue(peak.get() <= 2, "peak " + peak.get());
+    }
+
+    @Test
+    void partsWithoutASlotTimeOut() {
+        WellcaService wellcaService = mock(WellcaService.class, invocation -> {
+            Thread.sleep(400);
+            return null;
+        });
+        WellcaDashboardService service = new WellcaDashboardService(wellcaService, executor,
+            mock(PlatformTransactionManager.class), Duration.ofMillis(200), 1);
+
+        Map<?, ?> errors = (Map<?, ?>) service.getDashboard(LocalDate.of(2026, 10, 17)).get("errors");
+
+        assertEquals(6, errors.size());
+        assertTrue(errors.values().stream().allMatch("Timed out"::equals));
+    }
+}
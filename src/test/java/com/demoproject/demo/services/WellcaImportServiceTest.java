@@ -0,0 +1,119 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.dto.WellcaImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs CSV imports against a mocked JdbcTemplate and records the inserted rows.
+ */
+class WellcaImportServiceTest {
+
+    private static final String HEADER = "date,newRx,patientName\n";
+
+    private JdbcTemplate jdbcTemplate;
+    private WellcaRollupService rollupService;
+    private AttributeEncryptor encryptor;
+    private List<Object[]> inserted;
+    private WellcaImportService service;
+
+    @BeforeEach
+    void createService() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollupService = mock(WellcaRollupService.class);
+        encryptor = new AttributeEncryptor("test-key", List.of(), 4);
+        inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            // The service reuses its batch list, so copy the rows out
+            inserted.addAll(invocation.<List<Object[]>>getArgument(1));
+            return null;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+        service = new WellcaImportService(jdbcTemplate, Validation.buildDefaultValidatorFactory().getValidator(),
+            new ObjectMapper().findAndRegisterModules(), encryptor, rollupService,
+            mock(ApplicationEventPublisher.class), 2);
+    }
+
+    @Test
+    void reportsEachBadRowByItsLineAndKeepsTheRest() throws IOException {
+        WellcaImportResult result = importCsv(HEADER
+            + "2024-03-01,5,Jane\n"
+            + "2024-03-02,-1,\n"
+            + "2024-03-03,1,2,3\n"
+            + "not-a-date,1,\n"
+            + "\n"
+            + "2024-03-04,7,\n");
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(3L, 4L, 5L), result.getErrors().stream().map(WellcaImportResult.RowError::getLine).toList());
+        assertEquals(List.of("newRx: New RX count must be zero or positive"), result.getErrors().get(0).getMessages());
+        assertEquals(List.of("Expected 3 fields but found 4"), result.getErrors().get(1).getMessages());
+        assertEquals(List.of("Invalid value for date: not-a-date"), result.getErrors().get(2).getMessages());
+        assertEquals(LocalDate.of(2024, 3, 1), result.getEarliestDate());
+        assertEquals(LocalDate.of(2024, 3, 4), result.getLatestDate());
+        verify(rollupService).rebuild(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4));
+    }
+
+    @Test
+    void importsNamesWithLineBreaksAndCountsLinesFromRecordStarts() throws IOException {
+        WellcaImportResult result = importCsv(HEADER
+            + "2024-03-01,5,\"Jane\nDoe\"\n"
+            + "2024-03-02,x,\n");
+
+        assertEquals(1, result.getImported());
+        assertEquals(4L, result.getErrors().get(0).getLine());
+        assertEquals("Jane\nDoe", encryptor.convertToEntityAttribute((String) inserted.get(0)[14]));
+        assertEquals(encryptor.blindIndex("Jane\nDoe"), inserted.get(0)[17]);
+    }
+
+    @Test
+    void skipsRowsWhoseIdIsAlreadyStored() throws IOException {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenReturn(List.of(1L));
+
+        WellcaImportResult result = importCsv("id,date,newRx\n"
+            + "1,2024-02-01,5\n"
+            + "2,2024-03-02,6\n"
+            + "2,2024-03-03,7\n"
+            + ",2024-03-04,8\n");
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals(List.of(1L, 2L), result.getSkippedIds());
+        assertEquals(List.of(6, 8), inserted.stream().map(row -> row[5]).toList());
+        assertEquals(LocalDate.of(2024, 3, 2), result.getEarliestDate());
+        verify(rollupService).rebuild(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 4));
+    }
+
+    @Test
+    void rejectsUnknownHeaderColumns() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("date,bogus\n2024-03-01,1\n"));
+    }
+
+    private WellcaImportResult importCsv(String csv) throws IOException {
+        return service.importEntries(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+            WellcaImportService.TEXT_CSV);
+    }
+}
@@ -0,0 +1,145 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.config.AttributeEncryptor;
+import com.demoproject.demo.dto.WellcaKeyRotationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a key rotation against the local PostgreSQL from the test profile, in a schema of its own
+ * so the real wellca_entries table is never touched. Skipped when no database is listening.
+ */
+class WellcaKeyRotationServiceTest {
+
+    private static final String SCHEMA = "wellca_rotation_test";
+
+    private final AttributeEncryptor oldKey = new AttributeEncryptor("old-key", List.of(), 4);
+    private final AttributeEncryptor lostKey = new AttributeEncryptor("lost-key", List.of(), 4);
+    private final AttributeEncryptor currentKey = new AttributeEncryptor("new-key", List.of("old-key"), 4);
+
+    private JdbcTemplate admin;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void requirePostgres() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", 5432), 500);
+        } catch (IOException e) {
+            Assumptions.abort("No PostgreSQL on localhost:5432");
+        }
+    }
+
+    @BeforeEach
+    void createSchema() throws IOException {
+        Properties test = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-test.properties"));
+        String url = test.getProperty("spring.datasource.url");
+        String username = test.getProperty("spring.datasource.username");
+        String password = test.getProperty("spring.datasource.password");
+
+        admin = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + "?currentSchema=" + SCHEMA, username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE TABLE wellca_entries (" +
+            "id BIGINT PRIMARY KEY, patient_name VARCHAR(1000), patient_name_bidx VARCHAR(64))");
+        // Stands in for any row-specific database error, e.g. a constraint or trigger
+        jdbcTemplate.execute("CREATE FUNCTION reject_poisoned() RETURNS trigger AS $$ BEGIN " +
+            "IF NEW.id = 3 THEN RAISE EXCEPTION 'poisoned row'; END IF; RETURN NEW; END $$ LANGUAGE plpgsql");
+        jdbcTemplate.execute("CREATE TRIGGER reject_poisoned BEFORE UPDATE ON wellca_entries " +
+            "FOR EACH ROW EXECUTE FUNCTION reject_poisoned()");
+    }
+
+    @AfterEach
+    void dropSchema() {
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void setsAsideBadRowsAndFinishesEveryChunk() throws InterruptedException {
+        for (long id = 1; id <= 10; id++) {
+            AttributeEncryptor key = id == 7 ? lostKey : oldKey;
+            jdbcTemplate.update("INSERT INTO wellca_entries (id, patient_name) VALUES (?, ?)",
+                id, key.convertToDatabaseColumn("Patient " + id));
+        }
+
+        WellcaKeyRotationService service = newService();
+        service.resumeIfNeeded();
+        WellcaKeyRotationStatus status = awaitFinished(service);
+
+        assertEquals(status.totalChunks(), status.completedChunks());
+        assertEquals(8, status.rowsReencrypted());
+        assertEquals(2, status.rowsFailed());
+        assertEquals(List.of(3L, 7L), jdbcTemplate.queryForList(
+            "SELECT entry_id FROM wellca_key_rotation_failures ORDER BY entry_id", Long.class));
+        assertEquals(8, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM wellca_entries WHERE starts_with(patient_name, ?) AND patient_name_bidx IS NOT NULL",
+            Integer.class, currentKey.getCurrentPrefix()));
+        assertEquals("Patient 4", currentKey.convertToEntityAttribute(jdbcTemplate.queryForObject(
+            "SELECT patient_name FROM wellca_entries WHERE id = 4", String.class)));
+
+        // The rows set aside no longer count as stale, so the next boot does not start again
+        WellcaKeyRotationService restarted = newService();
+        restarted.resumeIfNeeded();
+        assertFalse(restarted.getStatus().running());
+        assertEquals(null, restarted.getStatus().startedAt());
+    }
+
+    @Test
+    void retriesRowsOnceTheirFailureIsCleared() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO wellca_entries (id, patient_name) VALUES (3, ?)",
+            oldKey.convertToDatabaseColumn("Patient 3"));
+        WellcaKeyRotationService service = newService();
+        service.resumeIfNeeded();
+        assertEquals(1, awaitFinished(service).rowsFailed());
+
+        jdbcTemplate.execute("DROP TRIGGER reject_poisoned ON wellca_entries");
+        jdbcTemplate.update("DELETE FROM wellca_key_rotation_failures");
+        WellcaKeyRotationService retry = newService();
+        retry.resumeIfNeeded();
+        WellcaKeyRotationStatus status = awaitFinished(retry);
+
+        assertEquals(0, status.rowsFailed());
+        assertTrue(currentKey.isCurrent(jdbcTemplate.queryForObject(
+            "SELECT patient_name FROM wellca_entries WHERE id = 3", String.class)));
+    }
+
+    private WellcaKeyRotationService newService() {
+        return new WellcaKeyRotationService(jdbcTemplate, transactionManager, currentKey, 2, 4, 10_000, true);
+    }
+
+    private static WellcaKeyRotationStatus awaitFinished(WellcaKeyRotationService service)
+            throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(10);
+        WellcaKeyRotationStatus status = service.getStatus();
+        while (status.startedAt() != null && status.finishedAt() == null && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+            status = service.getStatus();
+        }
+        assertTrue(status.finishedAt() != null, "Rotation did not finish");
+        return status;
+    }
+}
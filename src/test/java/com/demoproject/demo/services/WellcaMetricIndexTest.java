@@ -0,0 +1,150 @@
+package com.demoproject.demo.services;
+
+import com.demoproject.demo.dto.WellcaDailyMetrics;
+import com.demoproject.demo.event.WellcaEntryChangedEvent;
+import com.demoproject.demo.repository.WellcaRepository;
+import com.demoproject.demo.services.WellcaMetricIndex.Metric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loads and refreshes the index from a mocked repository that serves an in-memory table of daily totals.
+ */
+class WellcaMetricIndexTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+
+    private final Map<LocalDate, Long> newRxByDate = new ConcurrentHashMap<>();
+    private WellcaRepository repository;
+    private WellcaMetricIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        repository = mock(WellcaRepository.class);
+        when(repository.findEarliestDate()).thenAnswer(invocation ->
+            newRxByDate.keySet().stream().min(LocalDate::compareTo));
+        when(repository.findLatestDate()).thenAnswer(invocation ->
+            newRxByDate.keySet().stream().max(LocalDate::compareTo));
+        when(repository.getDailyMetrics(any(), any())).thenAnswer(invocation ->
+            rows(invocation.getArgument(0), invocation.getArgument(1)));
+        index = new WellcaMetricIndex(repository);
+    }
+
+    @Test
+    void refreshesTheDaysOfACommittedWrite() {
+        newRxByDate.put(MONDAY, 5L);
+        newRxByDate.put(MONDAY.plusDays(1), 7L);
+        index.load();
+        assertEquals(12, index.sum(MONDAY, MONDAY.plusDays(6), Metric.NEW_RX));
+
+        newRxByDate.put(MONDAY.plusDays(1), 2L);
+        newRxByDate.remove(MONDAY);
+        index.onEntryChanged(WellcaEntryChangedEvent.ofRange(MONDAY, MONDAY.plusDays(1)));
+
+        assertEquals(2, index.sum(MONDAY, MONDAY.plusDays(6), Metric.NEW_RX));
+        assertEquals(1, index.sum(MONDAY, MONDAY.plusDays(6), Metric.ENTRY_COUNT));
+    }
+
+    @Test
+    void growsToCoverDaysOutsideTheLoadedRange() {
+        newRxByDate.put(MONDAY, 5L);
+        index.load();
+
+        LocalDate farFuture = MONDAY.plusYears(3);
+        LocalDate farPast = MONDAY.minusYears(3);
+        newRxByDate.put(farFuture, 4L);
+        newRxByDate.put(farPast, 3L);
+        index.onEntryChanged(WellcaEntryChangedEvent.ofRange(farFuture, farFuture));
+        index.onEntryChanged(WellcaEntryChangedEvent.ofRange(farPast, farPast));
+
+        assertEquals(12, index.sum(farPast, farFuture, Metric.NEW_RX));
+        assertEquals(5, index.sum(MONDAY, MONDAY, Metric.NEW_RX));
+    }
+
+    @Test
+    void replaysChangesCommittedBeforeTheLoad() {
+        newRxByDate.put(MONDAY, 5L);
+        index.onEntryChanged(WellcaEntryChangedEvent.ofRange(MONDAY, MONDAY));
+        assertFalse(index.isReady());
+
+        // Served by the refresh after the load, not by the load's own read
+        List<LocalDate> loadedDates = new ArrayList<>();
+        doReturn(Optional.empty()).when(repository).findLatestDate();
+        doAnswer(invocation -> {
+            loadedDates.add(invocation.getArgument(0));
+            return rows(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(repository).getDailyMetrics(any(), any());
+        index.load();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(MONDAY), loadedDates);
+        assertEquals(5, index.sum(MONDAY, MONDAY, Metric.NEW_RX));
+    }
+
+    @Test
+    void appliesConcurrentRefreshesInTheOrderTheyRead() throws InterruptedException {
+        newRxByDate.put(MONDAY, 1L);
+        index.load();
+
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<String> reads = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            boolean first = reads.isEmpty();
+            reads.add("start");
+            List<WellcaDailyMetrics> rows = rows(invocation.getArgument(0), invocation.getArgument(1));
+            if (first) {
+                firstReading.countDown();
+                assertTrue(releaseFirst.await(5, TimeUnit.SECONDS));
+            }
+            reads.add("end");
+            return rows;
+        }).when(repository).getDailyMetrics(any(), any());
+
+        Thread older = Thread.ofPlatform().start(() ->
+            index.onEntryChanged(WellcaEntryChangedEvent.ofRange(MONDAY, MONDAY)));
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+        newRxByDate.put(MONDAY, 9L);
+        Thread newer = Thread.ofPlatform().start(() ->
+            index.onEntryChanged(WellcaEntryChangedEvent.ofRange(MONDAY, MONDAY)));
+        while (newer.isAlive() && newer.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        releaseFirst.countDown();
+        older.join(5_000);
+        newer.join(5_000);
+
+        assertEquals(List.of("start", "end", "start", "end"), reads);
+        assertEquals(9, index.sum(MONDAY, MONDAY, Metric.NEW_RX));
+    }
+
+    private List<WellcaDailyMetrics> rows(LocalDate startDate, LocalDate endDate) {
+        List<WellcaDailyMetrics> rows = new ArrayList<>();
+        newRxByDate.forEach((date, newRx) -> {
+            if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                rows.add(new WellcaDailyMetrics(date, null, 0, 0, 0, 0, newRx, 0, 0, 0, 0, 1, 0, BigDecimal.ZERO));
+            }
+        });
+        return rows;
+    }
+}
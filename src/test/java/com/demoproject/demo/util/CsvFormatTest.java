@@ -0,0 +1,70 @@
+package com.demoproject.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvFormatTest {
+
+    @Test
+    void parsesQuotedAndEscapedFields() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""),
+            CsvFormat.parseLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void keepsBlankFields() {
+        assertEquals(List.of("", "", ""), CsvFormat.parseLine(",,"));
+        assertEquals(List.of(""), CsvFormat.parseLine(""));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThrows(IllegalArgumentException.class, () -> CsvFormat.parseLine("a,\"b"));
+    }
+
+    @Test
+    void roundTripsValuesWithLineBreaks() throws IOException {
+        List<Object> values = Arrays.asList("Jane\nDoe", "a,b", null, "x\"y");
+        String csv = CsvFormat.formatLine(values) + CsvFormat.LINE_TERMINATOR
+            + CsvFormat.formatLine(List.of("next")) + CsvFormat.LINE_TERMINATOR;
+
+        CsvFormat.RecordReader reader = new CsvFormat.RecordReader(
+            new BufferedReader(new StringReader(csv)));
+
+        assertEquals(List.of("Jane\nDoe", "a,b", "", "x\"y"), CsvFormat.parseLine(reader.next()));
+        assertEquals(1, reader.getLineNumber());
+        assertEquals(List.of("next"), CsvFormat.parseLine(reader.next()));
+        assertEquals(3, reader.getLineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void limitsRecordsWithAStrayQuote() throws IOException {
+        StringBuilder csv = new StringBuilder("\"open\n");
+        for (int i = 0; i < CsvFormat.RecordReader.MAX_RECORD_LINES + 5; i++) {
+            csv.append("row").append(i).append('\n');
+        }
+        CsvFormat.RecordReader reader = new CsvFormat.RecordReader(
+            new BufferedReader(new StringReader(csv.toString())));
+
+        // The stray record takes MAX_RECORD_LINES lines, the opening one included
+        String stray = reader.next();
+        assertThrows(IllegalArgumentException.class, () -> CsvFormat.parseLine(stray));
+        List<String> rest = new ArrayList<>();
+        for (String record; (record = reader.next()) != null; ) {
+            rest.add(record);
+        }
+        assertEquals(6, rest.size());
+        assertEquals("row" + CsvFormat.RecordReader.MAX_RECORD_LINES, rest.get(1));
+    }
+}